@@ -0,0 +1,24 @@
+package com.ecoai.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor configuration for long-running background jobs
+ * (bulk recalculations, re-attribution).
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(name = "jobExecutor")
+    public ThreadPoolTaskExecutor jobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("ecoai-job-");
+        executor.initialize();
+        return executor;
+    }
+}
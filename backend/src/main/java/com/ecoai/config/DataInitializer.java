@@ -131,14 +131,12 @@ public class DataInitializer {
     }
 
     private void createEnergyUsage(Company company, Department department, BigDecimal totalKwh, LocalDate date) {
-        BigDecimal aiKwh = attributionEngineService.calculateAiAttribution(totalKwh, company, department);
         BigDecimal cost = totalKwh.multiply(company.getElectricityCostPerKwh());
 
         EnergyUsage usage = EnergyUsage.builder()
                 .company(company)
                 .department(department)
                 .totalKwh(totalKwh.setScale(2, java.math.RoundingMode.HALF_UP))
-                .aiAttributedKwh(aiKwh)
                 .cost(cost.setScale(2, java.math.RoundingMode.HALF_UP))
                 .currency(company.getCurrency())
                 .usageDate(date)
@@ -146,6 +144,7 @@ public class DataInitializer {
                 .region(company.getRegion())
                 .dataSource("SAMPLE_DATA")
                 .build();
+        attributionEngineService.applyAttribution(usage);
 
         usage = energyUsageRepository.save(usage);
         carbonCalculationService.calculateAndSaveEmission(usage);
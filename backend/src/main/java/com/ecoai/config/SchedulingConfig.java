@@ -0,0 +1,12 @@
+package com.ecoai.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables periodic maintenance tasks (telemetry and meter interval rollups).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,13 +1,20 @@
 package com.ecoai.controller;
 
+import com.ecoai.dto.AttributionRuleDTO;
 import com.ecoai.dto.ForecastDTO;
+import com.ecoai.dto.JobStatusDTO;
 import com.ecoai.dto.TrendDataPointDTO;
 import com.ecoai.service.AnalyticsService;
 import com.ecoai.service.AttributionEngineService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -45,11 +52,81 @@ public class AnalyticsController {
     }
 
     /**
-     * Get department-wise comparison.
+     * Get department-wise comparison, optionally for a date range with
+     * previous-period deltas.
      */
     @GetMapping("/comparison")
-    public ResponseEntity<?> getDepartmentComparison(@PathVariable UUID companyId) {
-        return ResponseEntity.ok(attributionEngineService.getAttributionByDepartment(companyId));
+    public ResponseEntity<?> getDepartmentComparison(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(attributionEngineService.getAttributionByDepartment(companyId, startDate, endDate));
+    }
+
+    /**
+     * Re-attribute stored usage with the current AI weights in the background
+     * (optionally for one department only).
+     */
+    @PostMapping("/reattribute")
+    public ResponseEntity<JobStatusDTO> reattribute(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) UUID departmentId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(attributionEngineService.startReattributionJob(companyId, departmentId));
+    }
+
+    /**
+     * List attribution rules, highest priority first.
+     */
+    @GetMapping("/attribution-rules")
+    public ResponseEntity<List<AttributionRuleDTO>> getAttributionRules(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(attributionEngineService.getRules(companyId));
+    }
+
+    /**
+     * Add an attribution rule; stored usage is re-attributed in the background.
+     */
+    @PostMapping("/attribution-rules")
+    public ResponseEntity<AttributionRuleDTO> createAttributionRule(
+            @PathVariable UUID companyId,
+            @RequestBody AttributionRuleDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(attributionEngineService.createRule(companyId, dto));
+    }
+
+    @PutMapping("/attribution-rules/{ruleId}")
+    public ResponseEntity<AttributionRuleDTO> updateAttributionRule(
+            @PathVariable UUID companyId,
+            @PathVariable UUID ruleId,
+            @RequestBody AttributionRuleDTO dto) {
+        return ResponseEntity.ok(attributionEngineService.updateRule(companyId, ruleId, dto));
+    }
+
+    @DeleteMapping("/attribution-rules/{ruleId}")
+    public ResponseEntity<JobStatusDTO> deleteAttributionRule(
+            @PathVariable UUID companyId,
+            @PathVariable UUID ruleId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(attributionEngineService.deleteRule(companyId, ruleId));
+    }
+
+    /**
+     * Stream per-record attribution explanations for a date range as NDJSON,
+     * from the factors stored when each record was calculated.
+     */
+    @GetMapping(value = "/attribution-explanations", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAttributionExplanations(
+            @PathVariable UUID companyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("endDate must not be before startDate");
+        }
+        StreamingResponseBody body = out -> attributionEngineService.streamExplanations(companyId, startDate,
+                endDate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     /**
@@ -1,12 +1,27 @@
 package com.ecoai.controller;
 
 import com.ecoai.dto.CarbonConfigDTO;
+import com.ecoai.dto.CfeMatchingDTO;
+import com.ecoai.dto.GenerationProfileDTO;
+import com.ecoai.dto.IntensitySeriesDTO;
+import com.ecoai.dto.JobStatusDTO;
+import com.ecoai.dto.MarketInstrumentDTO;
 import com.ecoai.service.CarbonCalculationService;
+import com.ecoai.service.CarbonIntensitySeriesService;
+import com.ecoai.service.CfeMatchingService;
+import com.ecoai.service.MarketInstrumentService;
+import com.opencsv.exceptions.CsvValidationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,6 +36,9 @@ import java.util.UUID;
 public class CarbonController {
 
     private final CarbonCalculationService carbonCalculationService;
+    private final CarbonIntensitySeriesService intensitySeriesService;
+    private final MarketInstrumentService marketInstrumentService;
+    private final CfeMatchingService cfeMatchingService;
 
     @GetMapping("/carbon/intensities")
     public ResponseEntity<List<CarbonConfigDTO>> getDefaultCarbonIntensities() {
@@ -45,11 +63,115 @@ public class CarbonController {
     @GetMapping("/companies/{companyId}/carbon/intensity/{region}")
     public ResponseEntity<Map<String, Object>> getEffectiveIntensity(
             @PathVariable UUID companyId,
-            @PathVariable String region) {
-        BigDecimal intensity = carbonCalculationService.getEffectiveCarbonIntensity(companyId, region);
+            @PathVariable String region,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        BigDecimal intensity = at != null
+                ? intensitySeriesService.getSeries(companyId, region)
+                        .map(series -> series.intensityAt(at))
+                        .filter(value -> !Double.isNaN(value))
+                        .map(BigDecimal::valueOf)
+                        .orElseGet(() -> carbonCalculationService.getEffectiveCarbonIntensity(companyId, region))
+                : carbonCalculationService.getEffectiveCarbonIntensity(companyId, region);
         return ResponseEntity.ok(Map.of(
                 "region", region,
                 "carbonIntensity", intensity,
                 "unit", "gCO2/kWh"));
     }
+
+    @GetMapping("/companies/{companyId}/carbon/intensity-series")
+    public ResponseEntity<List<IntensitySeriesDTO>> getIntensitySeries(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(intensitySeriesService.getSeriesSummaries(companyId));
+    }
+
+    /**
+     * Import an hourly intensity series for a region and recalculate affected emissions.
+     */
+    @PostMapping("/companies/{companyId}/carbon/intensity-series/{region}")
+    public ResponseEntity<?> importIntensitySeries(
+            @PathVariable UUID companyId,
+            @PathVariable String region,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            IntensitySeriesDTO imported = intensitySeriesService.importFromCsv(companyId, region, file);
+            imported.setRecalculationJobId(
+                    carbonCalculationService.startRecalculationJob(companyId, region).getId());
+            return ResponseEntity.ok(imported);
+        } catch (IOException | CsvValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recalculate stored emissions in the background (optionally for one region only).
+     */
+    @PostMapping("/companies/{companyId}/carbon/recalculate")
+    public ResponseEntity<JobStatusDTO> recalculateEmissions(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) String region) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(carbonCalculationService.startRecalculationJob(companyId, region));
+    }
+
+    @GetMapping("/companies/{companyId}/carbon/market-instruments")
+    public ResponseEntity<List<MarketInstrumentDTO>> getMarketInstruments(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(marketInstrumentService.getInstrumentsByCompany(companyId));
+    }
+
+    /**
+     * Add a market-based instrument and recalculate affected emissions.
+     */
+    @PostMapping("/companies/{companyId}/carbon/market-instruments")
+    public ResponseEntity<MarketInstrumentDTO> createMarketInstrument(
+            @PathVariable UUID companyId,
+            @RequestBody MarketInstrumentDTO dto) {
+        MarketInstrumentDTO created = marketInstrumentService.createInstrument(companyId, dto);
+        created.setRecalculationJobId(
+                carbonCalculationService.startRecalculationJob(companyId, created.getRegion()).getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @DeleteMapping("/companies/{companyId}/carbon/market-instruments/{instrumentId}")
+    public ResponseEntity<JobStatusDTO> deleteMarketInstrument(
+            @PathVariable UUID companyId,
+            @PathVariable UUID instrumentId) {
+        MarketInstrumentDTO deleted = marketInstrumentService.deleteInstrument(companyId, instrumentId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(carbonCalculationService.startRecalculationJob(companyId, deleted.getRegion()));
+    }
+
+    @GetMapping("/companies/{companyId}/carbon/generation-profiles")
+    public ResponseEntity<List<GenerationProfileDTO>> getGenerationProfiles(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(cfeMatchingService.getGenerationProfiles(companyId));
+    }
+
+    /**
+     * Import an hourly PPA generation profile (CSV: timestamp,generationKwh) for a region.
+     */
+    @PostMapping("/companies/{companyId}/carbon/generation-profiles/{region}")
+    public ResponseEntity<?> importGenerationProfile(
+            @PathVariable UUID companyId,
+            @PathVariable String region,
+            @RequestParam String contractName,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(cfeMatchingService.importGenerationCsv(companyId, region, contractName, file));
+        } catch (IOException | CsvValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Hourly 24/7 carbon-free energy matching for a calendar year (defaults to the current year).
+     */
+    @GetMapping("/companies/{companyId}/carbon/cfe-matching")
+    public ResponseEntity<CfeMatchingDTO> getCfeMatching(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) Integer year) {
+        int reportYear = year != null ? year : LocalDate.now().getYear();
+        return ResponseEntity.ok(cfeMatchingService.matchYear(companyId, reportYear));
+    }
 }
@@ -4,9 +4,11 @@ import com.ecoai.dto.DashboardSummaryDTO;
 import com.ecoai.dto.DepartmentBreakdownDTO;
 import com.ecoai.service.DashboardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -42,8 +44,11 @@ public class DashboardController {
      * Get department breakdown for charts.
      */
     @GetMapping("/departments")
-    public ResponseEntity<List<DepartmentBreakdownDTO>> getDepartmentBreakdown(@PathVariable UUID companyId) {
-        return ResponseEntity.ok(dashboardService.getDepartmentBreakdown(companyId));
+    public ResponseEntity<List<DepartmentBreakdownDTO>> getDepartmentBreakdown(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(dashboardService.getDepartmentBreakdown(companyId, startDate, endDate));
     }
 
     /**
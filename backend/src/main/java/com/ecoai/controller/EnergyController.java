@@ -4,16 +4,18 @@ import com.ecoai.dto.EnergyUsageDTO;
 import com.ecoai.dto.TrendDataPointDTO;
 import com.ecoai.service.AnalyticsService;
 import com.ecoai.service.EnergyTrackingService;
-import com.opencsv.exceptions.CsvException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -38,7 +40,11 @@ public class EnergyController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
-    @PostMapping("/csv")
+    /**
+     * Multipart import returning the imported records; bounded by the multipart
+     * size limit, larger files go through the streamed import below.
+     */
+    @PostMapping(value = "/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, Object>> importFromCsv(
             @PathVariable UUID companyId,
             @RequestParam("file") MultipartFile file) {
@@ -48,7 +54,40 @@ public class EnergyController {
                     "success", true,
                     "recordsImported", imported.size(),
                     "records", imported));
-        } catch (IOException | CsvException e) {
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Streamed import: the request body is the CSV itself, optionally gzip or
+     * zstd compressed, parsed while it is received. Not subject to the multipart
+     * size limit; returns counts rather than the records.
+     */
+    @PostMapping(value = "/csv", consumes = { "text/csv", "application/gzip", "application/zstd",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<Map<String, Object>> importCsvStream(
+            @PathVariable UUID companyId,
+            HttpServletRequest request) {
+        try {
+            EnergyTrackingService.CsvImport result = energyTrackingService.importFromCsv(companyId,
+                    request.getInputStream());
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("success", result.error() == null);
+            if (result.error() != null) {
+                // Earlier slices were committed; the counts say how far the import got
+                body.put("error", result.error());
+            }
+            body.put("recordsImported", result.created() + result.updated());
+            body.put("rows", result.rows());
+            body.put("created", result.created());
+            body.put("updated", result.updated());
+            body.put("unchanged", result.unchanged());
+            body.put("rejected", result.rejected());
+            return result.error() == null ? ResponseEntity.ok(body) : ResponseEntity.badRequest().body(body);
+        } catch (IOException e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "error", e.getMessage()));
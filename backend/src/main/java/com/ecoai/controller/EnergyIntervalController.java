@@ -0,0 +1,72 @@
+package com.ecoai.controller;
+
+import com.ecoai.dto.EnergyIntervalDTO;
+import com.ecoai.dto.IntervalIngestDTO;
+import com.ecoai.dto.UsageRollupDTO;
+import com.ecoai.service.EnergyIntervalService;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST Controller for sub-daily smart-meter intervals.
+ */
+@RestController
+@RequestMapping("/api/companies/{companyId}/energy/intervals")
+@RequiredArgsConstructor
+@CrossOrigin
+public class EnergyIntervalController {
+
+    private final EnergyIntervalService energyIntervalService;
+
+    @PostMapping
+    public ResponseEntity<IntervalIngestDTO> ingest(
+            @PathVariable UUID companyId,
+            @RequestBody List<EnergyIntervalDTO> intervals) {
+        return ResponseEntity.ok(energyIntervalService.ingest(companyId, intervals));
+    }
+
+    @PostMapping("/csv")
+    public ResponseEntity<?> importFromCsv(
+            @PathVariable UUID companyId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "15") int intervalMinutes,
+            @RequestParam(defaultValue = "UTC") String timezone) {
+        try {
+            return ResponseEntity.ok(energyIntervalService.importFromCsv(companyId, file, intervalMinutes, timezone));
+        } catch (IOException | CsvValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Intervals starting in [from, to), both UTC.
+     */
+    @GetMapping
+    public ResponseEntity<List<EnergyIntervalDTO>> getIntervals(
+            @PathVariable UUID companyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(energyIntervalService.getIntervals(companyId, from, to));
+    }
+
+    /**
+     * Roll up pending intervals into daily usage records now instead of
+     * waiting for the scheduled run.
+     */
+    @PostMapping("/rollup")
+    public ResponseEntity<UsageRollupDTO> rollup(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(energyIntervalService.rollup(companyId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecoai.controller;
+
+import com.ecoai.dto.JobStatusDTO;
+import com.ecoai.service.BackgroundJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for background job progress.
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin
+public class JobController {
+
+    private final BackgroundJobService backgroundJobService;
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<JobStatusDTO> getJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(backgroundJobService.getJob(jobId));
+    }
+
+    @GetMapping("/companies/{companyId}/jobs")
+    public ResponseEntity<List<JobStatusDTO>> getCompanyJobs(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(backgroundJobService.getJobsForCompany(companyId));
+    }
+}
@@ -1,12 +1,26 @@
 package com.ecoai.controller;
 
+import com.ecoai.dto.CacheStatsDTO;
+import com.ecoai.dto.CustomSimulationDTO;
+import com.ecoai.dto.GoalSeekDTO;
+import com.ecoai.dto.MonteCarloDTO;
+import com.ecoai.dto.PathwayPlanDTO;
+import com.ecoai.dto.ProjectionDTO;
+import com.ecoai.dto.RegionMixDTO;
+import com.ecoai.dto.ScenarioComparisonDTO;
+import com.ecoai.dto.SensitivityDTO;
 import com.ecoai.dto.SimulationDTO;
+import com.ecoai.dto.SweepDTO;
+import com.ecoai.entity.SimulationScenario.SimulationType;
+import com.ecoai.service.SimulationCacheService;
 import com.ecoai.service.SimulationEngineService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,6 +35,7 @@ import java.util.UUID;
 public class SimulationController {
 
     private final SimulationEngineService simulationEngineService;
+    private final SimulationCacheService simulationCacheService;
 
     /**
      * Simulate AI usage growth scenario.
@@ -68,6 +83,94 @@ public class SimulationController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Monte Carlo simulation with uncertain growth, efficiency, intensity and price.
+     * Returns P5/P50/P95 for kWh, CO₂e and cost; reproducible from the seed.
+     */
+    @PostMapping("/monte-carlo")
+    public ResponseEntity<MonteCarloDTO> simulateMonteCarlo(
+            @PathVariable UUID companyId,
+            @RequestBody MonteCarloDTO request) {
+        return ResponseEntity.ok(simulationEngineService.simulateMonteCarlo(companyId, request));
+    }
+
+    /**
+     * Parameter sweep over growth × efficiency × target region, returned as
+     * compact matrices for heatmaps.
+     */
+    @PostMapping("/sweep")
+    public ResponseEntity<SweepDTO> simulateSweep(
+            @PathVariable UUID companyId,
+            @RequestBody SweepDTO request) {
+        return ResponseEntity.ok(simulationEngineService.simulateSweep(companyId, request));
+    }
+
+    /**
+     * Optimize the split of AI load across candidate regions for carbon or cost,
+     * within capacity, latency-group and cost-ceiling constraints.
+     */
+    @PostMapping("/region-mix")
+    public ResponseEntity<RegionMixDTO> optimizeRegionMix(
+            @PathVariable UUID companyId,
+            @RequestBody RegionMixDTO request) {
+        return ResponseEntity.ok(simulationEngineService.optimizeRegionMix(companyId, request));
+    }
+
+    /**
+     * Monthly projection series (kWh, CO₂e, cumulative CO₂e, cost) for one or
+     * more scenarios from a seasonal baseline.
+     */
+    @PostMapping("/projection")
+    public ResponseEntity<ProjectionDTO> simulateProjection(
+            @PathVariable UUID companyId,
+            @RequestBody ProjectionDTO request) {
+        return ResponseEntity.ok(simulationEngineService.simulateProjection(companyId, request));
+    }
+
+    /**
+     * CUSTOM simulation: chained GROWTH / MOVE_REGION / EFFICIENCY stages with
+     * department and region breakdowns.
+     */
+    @PostMapping("/custom")
+    public ResponseEntity<CustomSimulationDTO> simulateCustom(
+            @PathVariable UUID companyId,
+            @RequestBody CustomSimulationDTO request) {
+        return ResponseEntity.ok(simulationEngineService.simulateCustom(companyId, request));
+    }
+
+    /**
+     * Sensitivity (tornado) analysis: every input moved by ±swing, ranked by
+     * CO₂e impact.
+     */
+    @PostMapping("/sensitivity")
+    public ResponseEntity<SensitivityDTO> simulateSensitivity(
+            @PathVariable UUID companyId,
+            @RequestBody SensitivityDTO request) {
+        return ResponseEntity.ok(simulationEngineService.simulateSensitivity(companyId, request));
+    }
+
+    /**
+     * Goal seek: the efficiency gain, region share or growth cap that keeps
+     * CO₂e, cost or kWh over the horizon at or below a target.
+     */
+    @PostMapping("/goal-seek")
+    public ResponseEntity<GoalSeekDTO> simulateGoalSeek(
+            @PathVariable UUID companyId,
+            @RequestBody GoalSeekDTO request) {
+        return ResponseEntity.ok(simulationEngineService.simulateGoalSeek(companyId, request));
+    }
+
+    /**
+     * Net-zero pathway planner: candidate multi-year pathways ranked by
+     * cumulative CO₂e per unit of cost, optionally saved as PATHWAY scenarios.
+     */
+    @PostMapping("/pathways")
+    public ResponseEntity<PathwayPlanDTO> planPathways(
+            @PathVariable UUID companyId,
+            @RequestBody PathwayPlanDTO request) {
+        return ResponseEntity.ok(simulationEngineService.planPathways(companyId, request));
+    }
+
     /**
      * Save a simulation scenario for future reference.
      */
@@ -80,10 +183,45 @@ public class SimulationController {
     }
 
     /**
-     * Get all saved scenarios for a company.
+     * Get saved scenarios for a company, optionally filtered by type, creation
+     * date and CO₂e delta.
      */
     @GetMapping("/scenarios")
-    public ResponseEntity<List<SimulationDTO>> getSavedScenarios(@PathVariable UUID companyId) {
-        return ResponseEntity.ok(simulationEngineService.getSavedScenarios(companyId));
+    public ResponseEntity<List<SimulationDTO>> getSavedScenarios(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) SimulationType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BigDecimal minCarbonDelta,
+            @RequestParam(required = false) BigDecimal maxCarbonDelta,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(simulationEngineService.getSavedScenarios(
+                companyId, type, from, to, minCarbonDelta, maxCarbonDelta, sort, limit));
+    }
+
+    /**
+     * Compare saved scenarios against the first id given.
+     */
+    @GetMapping("/scenarios/compare")
+    public ResponseEntity<ScenarioComparisonDTO> compareScenarios(
+            @PathVariable UUID companyId,
+            @RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(simulationEngineService.compareScenarios(companyId, ids));
+    }
+
+    @GetMapping("/scenarios/{scenarioId}")
+    public ResponseEntity<SimulationDTO> getScenario(
+            @PathVariable UUID companyId,
+            @PathVariable UUID scenarioId) {
+        return ResponseEntity.ok(simulationEngineService.getScenario(companyId, scenarioId));
+    }
+
+    /**
+     * This company's simulation result cache metrics (hit ratio, entries).
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<CacheStatsDTO> getCacheStats(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(simulationCacheService.getStats(companyId));
     }
 }
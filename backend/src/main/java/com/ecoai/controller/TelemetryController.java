@@ -0,0 +1,71 @@
+package com.ecoai.controller;
+
+import com.ecoai.dto.TelemetryIngestDTO;
+import com.ecoai.dto.TelemetryModelUsageDTO;
+import com.ecoai.dto.TelemetryRecordDTO;
+import com.ecoai.dto.UsageRollupDTO;
+import com.ecoai.service.TelemetryService;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST Controller for per-model / per-job energy telemetry.
+ */
+@RestController
+@RequestMapping("/api/companies/{companyId}/telemetry")
+@RequiredArgsConstructor
+@CrossOrigin
+public class TelemetryController {
+
+    private final TelemetryService telemetryService;
+
+    /**
+     * Ingest a batch of telemetry readings.
+     */
+    @PostMapping
+    public ResponseEntity<TelemetryIngestDTO> ingest(
+            @PathVariable UUID companyId,
+            @RequestBody List<TelemetryRecordDTO> records) {
+        return ResponseEntity.ok(telemetryService.ingest(companyId, records));
+    }
+
+    @PostMapping("/csv")
+    public ResponseEntity<?> importFromCsv(
+            @PathVariable UUID companyId,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(telemetryService.importFromCsv(companyId, file));
+        } catch (IOException | CsvValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Roll up pending telemetry into daily usage records now instead of
+     * waiting for the scheduled run.
+     */
+    @PostMapping("/rollup")
+    public ResponseEntity<UsageRollupDTO> rollup(@PathVariable UUID companyId) {
+        return ResponseEntity.ok(telemetryService.rollup(companyId));
+    }
+
+    @GetMapping("/models")
+    public ResponseEntity<List<TelemetryModelUsageDTO>> getModelUsage(
+            @PathVariable UUID companyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(telemetryService.getModelUsage(companyId, startDate, endDate));
+    }
+}
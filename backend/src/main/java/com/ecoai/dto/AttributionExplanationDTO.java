@@ -0,0 +1,40 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One line of the attribution explanation stream: the factors stored with a
+ * usage record when its AI kWh and CO₂e were calculated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttributionExplanationDTO {
+    private UUID energyUsageId;
+    private LocalDate usageDate;
+    private Integer usageHour;
+    private String departmentName;
+    private String region;
+    private String workloadType;
+    private String cluster;
+
+    // AI_kWh = totalKwh × aiShare × departmentWeight
+    private BigDecimal totalKwh;
+    private BigDecimal aiShare;
+    private BigDecimal departmentWeight;
+    private UUID attributionRuleId; // Null when the default formula applied
+    private String attributionRuleName; // Null if the rule was since deleted
+    private BigDecimal aiAttributedKwh;
+    private String formula; // Null for records without stored factors
+
+    // CO₂e = AI_kWh × intensity
+    private BigDecimal carbonIntensityUsed; // gCO₂/kWh
+    private BigDecimal co2eKg;
+    private BigDecimal marketFactorUsed; // gCO₂/kWh
+    private String marketBasis;
+    private BigDecimal marketCo2eKg;
+}
@@ -0,0 +1,39 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for AttributionRule entity.
+ * Conditions left null match any record; overrides left null keep the default.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttributionRuleDTO {
+    private UUID id;
+    private UUID companyId;
+    private String name;
+    private Integer priority; // Higher wins, default 0
+    private Boolean enabled;
+
+    // Conditions
+    private String workloadType;
+    private String cluster;
+    private String product; // Department product
+    private UUID departmentId;
+    private String departmentName;
+    private String region;
+    private Integer hourFrom; // 0-23, with hourTo
+    private Integer hourTo; // 0-24, exclusive
+
+    // Overrides
+    private BigDecimal aiShare; // Replaces company baseAiPercentage (0-1)
+    private BigDecimal departmentWeight; // Replaces department aiUsageWeight (0-1)
+
+    private LocalDateTime createdAt;
+    private UUID reattributionJobId; // Set when the change triggered re-attribution
+}
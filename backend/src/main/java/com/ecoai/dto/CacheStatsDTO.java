@@ -0,0 +1,24 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for result-cache metrics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String cache;
+    private UUID companyId; // Counters below are this company's; max* are the shared bounds
+    private Long hits;
+    private Long misses;
+    private BigDecimal hitRatio; // 0-1
+    private Long invalidations; // Removed because company data changed
+    private Integer entries;
+    private Integer maxEntries;
+    private Long maxWeightBytes;
+}
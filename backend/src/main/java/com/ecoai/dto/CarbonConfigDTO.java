@@ -2,6 +2,7 @@ package com.ecoai.dto;
 
 import lombok.*;
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * DTO for carbon configuration and default intensities.
@@ -17,4 +18,5 @@ public class CarbonConfigDTO {
     private String unit;
     private Integer validYear;
     private Boolean isDefault; // True if using default value
+    private UUID recalculationJobId; // Set when a config change triggered a recalculation
 }
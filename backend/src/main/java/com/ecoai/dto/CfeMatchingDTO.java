@@ -0,0 +1,29 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a company's 24/7 carbon-free energy matching report.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CfeMatchingDTO {
+    private UUID companyId;
+    private Integer year;
+    private LocalDateTime periodStart; // UTC, inclusive
+    private LocalDateTime periodEnd; // UTC, exclusive
+    private Integer hours;
+    private BigDecimal consumptionKwh;
+    private BigDecimal matchedKwh;
+    private BigDecimal excessGenerationKwh;
+    private BigDecimal cfeScore;
+    private BigDecimal residualCo2eKg;
+    private BigDecimal avoidedCo2eKg;
+    private List<CfeRegionMatchDTO> regions;
+}
@@ -0,0 +1,26 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for hourly carbon-free energy matching results in one region.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CfeRegionMatchDTO {
+    private String region;
+    private BigDecimal consumptionKwh;
+    private BigDecimal generationKwh;
+    private BigDecimal matchedKwh; // Σ min(consumption, generation) per hour
+    private BigDecimal unmatchedKwh; // Grid-supplied consumption
+    private BigDecimal excessGenerationKwh; // Generation with no same-hour consumption
+    private BigDecimal cfeScore; // matched / consumption, 0-100%
+    private BigDecimal annualMatchPercent; // generation / consumption (volumetric), 0-100%+
+    private Integer fullyMatchedHours;
+    private Integer consumptionHours;
+    private BigDecimal residualCo2eKg; // Unmatched kWh × hourly grid intensity
+    private BigDecimal avoidedCo2eKg; // Matched kWh × hourly grid intensity
+}
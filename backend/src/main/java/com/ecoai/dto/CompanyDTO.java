@@ -20,4 +20,5 @@ public class CompanyDTO {
     private BigDecimal baseAiPercentage;
     private BigDecimal electricityCostPerKwh;
     private String currency;
+    private UUID reattributionJobId; // Set when an AI weight change triggered re-attribution
 }
@@ -0,0 +1,35 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for CUSTOM (chained pipeline) simulation requests and results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomSimulationDTO {
+    private UUID companyId;
+    private String name;
+
+    // Input parameters
+    private List<ScenarioStageDTO> stages;
+
+    // Company totals
+    private BigDecimal baselineAiKwh;
+    private BigDecimal baselineCo2eKg;
+    private BigDecimal baselineCost;
+    private BigDecimal projectedAiKwh;
+    private BigDecimal projectedCo2eKg;
+    private BigDecimal projectedCost;
+    private BigDecimal carbonDeltaKg;
+    private BigDecimal costDelta;
+
+    // Breakdowns
+    private List<SimulationBreakdownDTO> byDepartment;
+    private List<SimulationBreakdownDTO> byRegion;
+}
@@ -16,9 +16,10 @@ public class DashboardSummaryDTO {
     private BigDecimal aiEnergyKwh;
     private BigDecimal aiPercentage;
 
-    // Carbon metrics
+    // Carbon metrics (totalCo2eKg / aiCo2eKg are location-based Scope 2)
     private BigDecimal totalCo2eKg;
     private BigDecimal aiCo2eKg;
+    private BigDecimal marketBasedCo2eKg;
 
     // Cost metrics
     private BigDecimal totalCost;
@@ -28,6 +29,7 @@ public class DashboardSummaryDTO {
     // Trends (compared to previous period)
     private BigDecimal energyChangePercent;
     private BigDecimal carbonChangePercent;
+    private BigDecimal marketCarbonChangePercent;
     private BigDecimal costChangePercent;
 
     // Period info
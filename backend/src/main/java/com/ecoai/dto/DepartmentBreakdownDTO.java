@@ -2,6 +2,7 @@ package com.ecoai.dto;
 
 import lombok.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -20,4 +21,14 @@ public class DepartmentBreakdownDTO {
     private BigDecimal cost;
     private BigDecimal percentage; // % of total AI energy
     private BigDecimal aiUsageWeight;
+
+    // Period covered, and the equally long period right before it
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal previousAiEnergyKwh;
+    private BigDecimal previousCo2eKg;
+    private BigDecimal previousCost;
+    private BigDecimal energyChangePercent;
+    private BigDecimal carbonChangePercent;
+    private BigDecimal costChangePercent;
 }
@@ -20,4 +20,5 @@ public class DepartmentDTO {
     private String description;
     private BigDecimal aiUsageWeight;
     private Integer employeeCount;
+    private UUID reattributionJobId; // Set when an AI weight change triggered re-attribution
 }
@@ -0,0 +1,23 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO describing an uncertain simulation input.
+ * FIXED uses value; UNIFORM uses min/max; NORMAL uses mean/stdDev (optionally
+ * clamped to min/max); TRIANGULAR uses min/mode/max.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DistributionSpecDTO {
+    private String type; // FIXED, UNIFORM, NORMAL, TRIANGULAR
+    private BigDecimal value;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal mean;
+    private BigDecimal stdDev;
+    private BigDecimal mode;
+}
@@ -0,0 +1,27 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for a sub-daily meter reading.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnergyIntervalDTO {
+    private Long id;
+    private String timestamp; // Input: ISO-8601 interval start, local to timezone unless it has an offset
+    private LocalDateTime intervalStart; // UTC
+    private Integer intervalMinutes; // Default 15
+    private String timezone; // IANA id, default UTC
+    private LocalDate usageDate; // Local day the interval rolls up into
+    private UUID departmentId; // Or departmentName
+    private String departmentName;
+    private String region; // Defaults to the company region
+    private BigDecimal kwh;
+}
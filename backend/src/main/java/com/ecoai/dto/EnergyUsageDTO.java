@@ -24,10 +24,17 @@ public class EnergyUsageDTO {
     private String currency;
     private LocalDate usageDate;
     private PeriodType periodType;
+    private PeriodType sourcePeriodType; // WEEKLY / MONTHLY entry this daily slice was prorated from
+    private LocalDate sourcePeriodStart; // First day of that entry
+    private UUID periodGroupId; // Shared by the daily slices of one prorated entry
     private String region;
+    private String workloadType;
+    private String cluster;
+    private Integer usageHour; // 0-23, null for whole-day records
     private String dataSource;
 
     // Carbon emission data (if calculated)
     private BigDecimal co2eGrams;
     private BigDecimal co2eKg;
+    private BigDecimal marketCo2eKg;
 }
@@ -0,0 +1,21 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO summarising an imported hourly generation profile (one PPA contract in a region).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationProfileDTO {
+    private String region;
+    private String contractName;
+    private Long pointCount;
+    private LocalDateTime firstInterval; // UTC
+    private LocalDateTime lastInterval; // UTC
+    private BigDecimal totalGenerationKwh;
+}
@@ -0,0 +1,37 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for goal-seek requests and results: the value of one free parameter
+ * that keeps a horizon total at or below a target.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalSeekDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private String solveFor; // EFFICIENCY (min gain), REGION_SHARE (min share moved), GROWTH (max monthly %)
+    private String metric; // CO2E (kg, default), COST, KWH
+    private BigDecimal targetValue; // Ceiling for the horizon total of the metric
+    private Integer horizonMonths; // Default 12
+    private BigDecimal growthPercent; // Monthly growth %, fixed unless solving for GROWTH
+    private BigDecimal efficiencyPercent; // % reduction, fixed unless solving for EFFICIENCY
+    private BigDecimal regionSharePercent; // % of load in toRegion, fixed unless solving for REGION_SHARE
+    private String toRegion; // Target region for the region share, required for REGION_SHARE
+
+    // Result
+    private BigDecimal solvedPercent;
+    private Boolean feasible; // False when even the far end of the range misses the target
+    private Integer iterations;
+    private BigDecimal achievedValue; // Metric at the solved value
+    private BigDecimal totalAiKwh;
+    private BigDecimal totalCo2eKg;
+    private BigDecimal totalCost;
+    private BigDecimal carbonIntensity; // Blended gCO2/kWh at the solved value
+}
@@ -0,0 +1,24 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO summarising an hourly carbon intensity series for a region.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntensitySeriesDTO {
+    private String region;
+    private LocalDateTime firstInterval; // UTC
+    private LocalDateTime lastInterval; // UTC
+    private Integer pointCount;
+    private BigDecimal minIntensity; // gCO2/kWh
+    private BigDecimal maxIntensity;
+    private BigDecimal meanIntensity;
+    private UUID recalculationJobId; // Set when an import triggered a recalculation
+}
@@ -0,0 +1,21 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the outcome of a meter interval ingestion request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntervalIngestDTO {
+    private long recordsReceived;
+    private long recordsStored; // New readings
+    private long recordsUpdated; // Re-sent readings with a different kWh
+    private long recordsDuplicate; // Re-sent readings identical to the stored ones
+    private long recordsRejected;
+    private LocalDateTime firstIntervalStart; // UTC
+    private LocalDateTime lastIntervalStart;
+}
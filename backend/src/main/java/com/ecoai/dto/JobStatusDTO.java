@@ -0,0 +1,27 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for background job progress (recalculations, re-attribution, etc.).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobStatusDTO {
+    private UUID id;
+    private UUID companyId;
+    private String jobType; // EMISSION_RECALCULATION, ...
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private Integer totalSteps;
+    private Integer completedSteps;
+    private Long rowsUpdated;
+    private Integer percentComplete;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for a latency group: regions that together must carry a minimum share of the load.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatencyGroupDTO {
+    private String name;
+    private List<String> regions;
+    private BigDecimal minSharePercent;
+}
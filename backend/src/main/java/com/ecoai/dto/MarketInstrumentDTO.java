@@ -0,0 +1,27 @@
+package com.ecoai.dto;
+
+import com.ecoai.entity.MarketInstrument.InstrumentType;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO for market-based Scope 2 instruments (certificates, supplier contracts, residual mix).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketInstrumentDTO {
+    private UUID id;
+    private UUID companyId;
+    private String name;
+    private InstrumentType instrumentType;
+    private String region; // null = all regions
+    private BigDecimal emissionFactor; // gCO2/kWh
+    private BigDecimal coverageFraction; // 0.0 to 1.0
+    private LocalDate validFrom;
+    private LocalDate validTo;
+    private UUID recalculationJobId; // Set when a change triggered a recalculation
+}
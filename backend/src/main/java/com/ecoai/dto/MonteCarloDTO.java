@@ -0,0 +1,39 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for Monte Carlo simulation requests and results.
+ * Unset distributions default to the point-estimate inputs (no growth or
+ * efficiency change, current region intensity and electricity price).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonteCarloDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private Integer trials; // Default 100,000
+    private Long seed; // Same seed + trials = same result; generated if absent
+    private Integer monthsAhead; // Growth compounding period
+    private DistributionSpecDTO growthPercent; // Monthly growth %
+    private DistributionSpecDTO efficiencyPercent; // % reduction
+    private DistributionSpecDTO carbonIntensity; // gCO2/kWh
+    private DistributionSpecDTO pricePerKwh;
+
+    // Baseline values
+    private BigDecimal baselineAiKwh;
+    private BigDecimal baselineCo2eKg;
+    private BigDecimal baselineCost;
+
+    // Projected distributions
+    private PercentileSummaryDTO projectedAiKwh;
+    private PercentileSummaryDTO projectedCo2eKg;
+    private PercentileSummaryDTO projectedCost;
+
+    private Long elapsedMs;
+}
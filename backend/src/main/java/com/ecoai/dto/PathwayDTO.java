@@ -0,0 +1,44 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for one candidate pathway: its measures and, once evaluated, the
+ * yearly series aligned with PathwayPlanDTO.yearLabels.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PathwayDTO {
+    private String name;
+    private List<PathwayMeasureDTO> measures;
+
+    // Result
+    /**
+     * Abatement rank against business as usual: pathways that avoid CO₂e at no
+     * extra cost come first (most avoided first), then those that cost extra by
+     * costPerTonneAvoided (cheapest first), then those that avoid nothing.
+     */
+    private Integer rank;
+    private UUID scenarioId; // Saved SimulationScenario, if persisted
+    private double[] aiKwh;
+    private double[] co2eKg;
+    private double[] cost;
+    private double[] cumulativeCo2eKg;
+    private double[] cumulativeCost;
+
+    // Horizon totals
+    private BigDecimal totalAiKwh;
+    private BigDecimal totalCo2eKg;
+    private BigDecimal totalCost;
+
+    // Against business as usual (no measures)
+    private BigDecimal avoidedCo2eKg;
+    private BigDecimal extraCost; // Negative when the pathway saves money
+    private BigDecimal costPerTonneAvoided; // extraCost / avoided tonnes, null unless CO₂e is avoided
+    private BigDecimal finalYearReductionPercent; // CO₂e in the last year vs BAU
+}
@@ -0,0 +1,28 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for one measure of a net-zero pathway.
+ * EFFICIENCY and MOVE_REGION reach percent by endYear, spread over the ramp;
+ * GRID_DECLINE lowers intensity by percent every year of the ramp.
+ * Empty regions select every region.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PathwayMeasureDTO {
+    private String type; // EFFICIENCY, MOVE_REGION, GRID_DECLINE
+    private Integer startYear; // Calendar year, default first pathway year
+    private Integer endYear; // Calendar year, default startYear (GRID_DECLINE: last pathway year)
+    private BigDecimal percent;
+    private List<String> regions; // Regions the measure applies to
+    private String toRegion; // MOVE_REGION only
+
+    // Programme costs, added to energy cost
+    private BigDecimal oneOffCost; // Charged in startYear
+    private BigDecimal annualCost; // Charged every year from startYear
+}
@@ -0,0 +1,34 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for net-zero pathway planning requests and results.
+ * Pathways are returned ranked; businessAsUsual is the same horizon with no measures.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PathwayPlanDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private Integer startYear; // Default next calendar year
+    private Integer years; // Default 20
+    private BigDecimal growthPercent; // Annual AI demand growth %, default 0
+    private Boolean save; // Persist every pathway as a PATHWAY scenario, default false
+    private List<PathwayDTO> pathways;
+
+    // Starting point: last 30 days annualised
+    private BigDecimal baselineAiKwh;
+    private BigDecimal baselineCo2eKg;
+    private BigDecimal baselineCost;
+
+    private List<Integer> yearLabels;
+    private PathwayDTO businessAsUsual;
+    private Long elapsedMs;
+}
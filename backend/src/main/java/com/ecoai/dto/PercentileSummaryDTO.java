@@ -0,0 +1,21 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO summarising the distribution of one Monte Carlo output.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PercentileSummaryDTO {
+    private BigDecimal mean;
+    private BigDecimal stdDev;
+    private BigDecimal p5;
+    private BigDecimal p50;
+    private BigDecimal p95;
+    private BigDecimal min;
+    private BigDecimal max;
+}
@@ -0,0 +1,29 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for monthly projection requests and results across several scenarios.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private Integer horizonMonths; // Default 12, max 240
+    private List<ProjectionSeriesDTO> scenarios; // Default: a single no-change scenario
+
+    // Baseline values
+    private BigDecimal baselineMonthlyAiKwh; // De-seasonalised monthly level
+    private Integer historyMonths; // Months of history behind the seasonal index
+    private double[] seasonalIndex; // Jan..Dec
+
+    // Results
+    private List<String> months; // yyyy-MM
+}
@@ -0,0 +1,32 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for one scenario in a monthly projection (inputs and monthly series).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionSeriesDTO {
+    private String name;
+
+    // Input parameters
+    private BigDecimal growthPercent; // Monthly compounding growth %
+    private BigDecimal efficiencyPercent; // % reduction
+    private String region; // Defaults to company region
+
+    // Monthly series, aligned with ProjectionDTO.months
+    private BigDecimal carbonIntensity;
+    private double[] aiKwh;
+    private double[] co2eKg;
+    private double[] cost;
+    private double[] cumulativeCo2eKg;
+
+    // Horizon totals
+    private BigDecimal totalAiKwh;
+    private BigDecimal totalCo2eKg;
+    private BigDecimal totalCost;
+}
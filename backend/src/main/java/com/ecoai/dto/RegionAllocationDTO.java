@@ -0,0 +1,27 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for a candidate region in a region-mix optimization (input limits and allocated result).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegionAllocationDTO {
+    private String region;
+
+    // Input parameters
+    private BigDecimal maxKwh; // Capacity limit (optional)
+    private BigDecimal maxSharePercent; // Capacity as % of total (optional)
+    private BigDecimal carbonIntensity; // gCO2/kWh, defaults to company config / region default
+    private BigDecimal pricePerKwh; // Defaults to company electricity price
+
+    // Results
+    private BigDecimal allocatedKwh;
+    private BigDecimal sharePercent;
+    private BigDecimal co2eKg;
+    private BigDecimal cost;
+}
@@ -0,0 +1,38 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for region-mix optimization requests and results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegionMixDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private String objective; // CARBON (default) or COST
+    private BigDecimal totalAiKwh; // Defaults to the 30-day baseline
+    private BigDecimal costCeiling; // Optional
+    private List<RegionAllocationDTO> regions;
+    private List<LatencyGroupDTO> latencyGroups;
+
+    // Baseline values (all load in the company's home region)
+    private String baselineRegion;
+    private BigDecimal baselineCo2eKg;
+    private BigDecimal baselineCost;
+
+    // Results
+    private Boolean feasible;
+    private String message;
+    private BigDecimal totalCo2eKg;
+    private BigDecimal totalCost;
+    private BigDecimal carbonDeltaKg;
+    private BigDecimal costDelta;
+    private Long elapsedMicros;
+}
@@ -0,0 +1,22 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO comparing saved scenarios against a reference scenario (the first requested).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScenarioComparisonDTO {
+    private UUID companyId;
+    private UUID referenceScenarioId;
+    private UUID lowestCo2eScenarioId;
+    private UUID lowestCostScenarioId;
+    private List<SimulationDTO> scenarios; // In requested order
+    private List<ScenarioDiffDTO> diffs; // Each scenario minus the reference
+}
@@ -0,0 +1,21 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for one saved scenario's difference from the comparison reference.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScenarioDiffDTO {
+    private UUID scenarioId;
+    private String name;
+    private BigDecimal projectedAiKwhDiff;
+    private BigDecimal projectedCo2eKgDiff;
+    private BigDecimal projectedCostDiff;
+    private BigDecimal co2ePercentDiff; // vs reference projected CO2e
+}
@@ -0,0 +1,22 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for one stage of a CUSTOM simulation pipeline.
+ * GROWTH / EFFICIENCY scale the selected load by percent; MOVE_REGION moves
+ * percent of it to toRegion. Empty filters select everything.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScenarioStageDTO {
+    private String type; // GROWTH, EFFICIENCY, MOVE_REGION
+    private BigDecimal percent;
+    private String toRegion; // MOVE_REGION only
+    private List<String> departments; // Department names or teams
+    private List<String> regions;
+}
@@ -0,0 +1,35 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for sensitivity (tornado) requests and results.
+ * Growth and efficiency move by ±swing percentage points; price, region
+ * intensity and department aiUsageWeight move by ±swing percent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SensitivityDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private BigDecimal swingPercent; // Default 10
+    private BigDecimal growthPercent; // Monthly growth %, default 0
+    private BigDecimal efficiencyPercent; // % reduction, default 0
+    private Integer horizonMonths; // Default 12
+
+    // Monthly values at the horizon with every input at baseline
+    private BigDecimal baseAiKwh;
+    private BigDecimal baseCo2eKg;
+    private BigDecimal baseCost;
+
+    // Ranked by CO₂e swing, largest first
+    private List<SensitivityInputDTO> inputs;
+
+    private Long elapsedMs;
+}
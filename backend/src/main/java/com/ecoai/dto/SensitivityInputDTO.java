@@ -0,0 +1,31 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for one bar of a tornado chart: a single input moved down and up with
+ * everything else held at baseline.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SensitivityInputDTO {
+    private Integer rank;
+    private String input; // GROWTH, EFFICIENCY, PRICE, INTENSITY, WEIGHT
+    private String label; // Region or department name for INTENSITY / WEIGHT
+
+    private BigDecimal baseValue;
+    private BigDecimal lowValue;
+    private BigDecimal highValue;
+
+    private BigDecimal co2eKgLow;
+    private BigDecimal co2eKgHigh;
+    private BigDecimal costLow;
+    private BigDecimal costHigh;
+
+    // Absolute spread between low and high
+    private BigDecimal co2eSwingKg;
+    private BigDecimal costSwing;
+}
@@ -0,0 +1,22 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for a per-department or per-region line of a simulation result.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationBreakdownDTO {
+    private String dimension; // DEPARTMENT or REGION
+    private String key; // Department name or region code
+    private BigDecimal baselineAiKwh;
+    private BigDecimal projectedAiKwh;
+    private BigDecimal baselineCo2eKg;
+    private BigDecimal projectedCo2eKg;
+    private BigDecimal baselineCost;
+    private BigDecimal projectedCost;
+}
@@ -3,6 +3,7 @@ package com.ecoai.dto;
 import com.ecoai.entity.SimulationScenario.SimulationType;
 import lombok.*;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -41,4 +42,12 @@ public class SimulationDTO {
     private BigDecimal carbonDeltaKg;
     private BigDecimal costDelta;
     private BigDecimal percentChange;
+
+    // Month-by-month path (GROWTH), aligned with projectionMonths
+    private List<String> projectionMonths;
+    private ProjectionSeriesDTO monthlySeries;
+
+    // Year-by-year path (PATHWAY), aligned with pathwayYears
+    private List<Integer> pathwayYears;
+    private PathwayDTO pathway;
 }
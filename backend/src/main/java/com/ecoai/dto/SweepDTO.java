@@ -0,0 +1,40 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for parameter-sweep requests and results.
+ * Matrices are indexed [growth][efficiency]; CO₂e adds a leading region index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SweepDTO {
+    private UUID companyId;
+
+    // Input parameters
+    private SweepRangeDTO growthPercent; // Monthly growth %, default 0
+    private SweepRangeDTO efficiencyPercent; // % reduction, default 0
+    private List<String> regions; // Target regions, default company region
+    private Integer monthsAhead;
+
+    // Baseline values
+    private BigDecimal baselineAiKwh;
+    private BigDecimal baselineCo2eKg;
+    private BigDecimal baselineCost;
+
+    // Axes (as evaluated) and result matrices
+    private double[] growthValues;
+    private double[] efficiencyValues;
+    private double[] regionIntensities; // gCO2/kWh, aligned with regions
+    private double[][] aiKwh;
+    private double[][] cost;
+    private double[][][] co2eKg;
+
+    private Integer cells;
+    private Long elapsedMs;
+}
@@ -0,0 +1,19 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for one sweep axis: either explicit values or an inclusive from/to/step range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SweepRangeDTO {
+    private List<BigDecimal> values;
+    private BigDecimal from;
+    private BigDecimal to;
+    private BigDecimal step;
+}
@@ -0,0 +1,18 @@
+package com.ecoai.dto;
+
+import lombok.*;
+
+/**
+ * DTO for the outcome of a telemetry ingestion request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryIngestDTO {
+    private long recordsReceived;
+    private long recordsStored;
+    private long recordsRejected;
+    private int newModelKeys;
+    private int newJobKeys;
+}
@@ -0,0 +1,20 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * DTO for per-model telemetry totals over a date range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryModelUsageDTO {
+    private String modelId;
+    private long jobCount;
+    private long recordCount;
+    private BigDecimal gpuHours;
+    private BigDecimal kwh;
+    private BigDecimal percentage; // % of telemetry kWh in the range
+}
@@ -0,0 +1,23 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for one telemetry reading at ingestion.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryRecordDTO {
+    private String timestamp; // ISO-8601, UTC unless it has an offset
+    private String modelId;
+    private String jobId; // Optional
+    private UUID departmentId; // Or departmentName
+    private String departmentName;
+    private String region; // Defaults to the company region
+    private BigDecimal gpuHours;
+    private BigDecimal kwh;
+}
@@ -16,6 +16,7 @@ public class TrendDataPointDTO {
     private String period; // "Jan 2024", "Week 1", etc.
     private BigDecimal totalEnergyKwh;
     private BigDecimal aiEnergyKwh;
-    private BigDecimal co2eKg;
+    private BigDecimal co2eKg; // Location-based
+    private BigDecimal marketCo2eKg; // Market-based
     private BigDecimal cost;
 }
@@ -0,0 +1,19 @@
+package com.ecoai.dto;
+
+import lombok.*;
+import java.util.UUID;
+
+/**
+ * DTO for one rollup run of fine-grained readings into daily usage records.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageRollupDTO {
+    private UUID companyId;
+    private String dataSource; // Daily records' dataSource, e.g. TELEMETRY or METER
+    private int sourceRecords; // Raw rows rolled up
+    private int usageRecordsCreated;
+    private int usageRecordsUpdated;
+}
@@ -0,0 +1,83 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * AttributionRule entity - overrides the default attribution formula for
+ * usage records matching a set of tag conditions.
+ *
+ * AI_kWh = Total_kWh × (aiShare ?: Company_AI%) × (departmentWeight ?: Department_Weight)
+ *
+ * Null conditions match anything; among matching rules the highest priority wins.
+ */
+@Entity
+@Table(name = "attribution_rules", indexes = {
+        @Index(name = "idx_attribution_rule_company", columnList = "company_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttributionRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer priority = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean enabled = true;
+
+    // Conditions (null = any)
+    @Column(name = "workload_type", length = 50)
+    private String workloadType;
+
+    @Column(length = 50)
+    private String cluster;
+
+    @Column(length = 255)
+    private String product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id")
+    private Department department;
+
+    @Column(length = 50)
+    private String region;
+
+    /**
+     * Hour-of-day window [hourFrom, hourTo), wrapping past midnight when
+     * hourFrom > hourTo. Only hourly records can match a rule with a window.
+     */
+    @Column(name = "hour_from")
+    private Integer hourFrom;
+
+    @Column(name = "hour_to")
+    private Integer hourTo;
+
+    // Overrides (null = keep the default)
+    @Column(name = "ai_share", precision = 5, scale = 4)
+    private BigDecimal aiShare;
+
+    @Column(name = "department_weight", precision = 5, scale = 4)
+    private BigDecimal departmentWeight;
+
+    @Column(name = "created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
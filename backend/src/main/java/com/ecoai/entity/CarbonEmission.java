@@ -27,7 +27,7 @@ public class CarbonEmission {
     private EnergyUsage energyUsage;
 
     /**
-     * Total CO₂ equivalent emissions in grams.
+     * Location-based CO₂ equivalent emissions in grams.
      * Calculated: AI_kWh × carbonIntensity
      */
     @Column(name = "co2e_grams", precision = 15, scale = 4, nullable = false)
@@ -51,6 +51,25 @@ public class CarbonEmission {
     @Column(name = "region_used", length = 50)
     private String regionUsed;
 
+    /**
+     * Market-based CO₂e in kilograms (certificates, supplier contracts, residual mix).
+     */
+    @Column(name = "market_co2e_kg", precision = 15, scale = 4)
+    private BigDecimal marketCo2eKg;
+
+    /**
+     * Market-based emission factor used (gCO₂/kWh).
+     */
+    @Column(name = "market_factor_used", precision = 10, scale = 4)
+    private BigDecimal marketFactorUsed;
+
+    /**
+     * Basis of the market-based factor: CERTIFICATE, SUPPLIER_CONTRACT,
+     * RESIDUAL_MIX, LOCATION_FALLBACK, BLENDED
+     */
+    @Column(name = "market_basis", length = 30)
+    private String marketBasis;
+
     @Column(name = "calculated_at")
     @Builder.Default
     private LocalDateTime calculatedAt = LocalDateTime.now();
@@ -0,0 +1,53 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * CarbonIntensityInterval entity - time-resolved grid carbon intensity.
+ * One row per region and hour (UTC), imported from grid operator / data provider CSVs.
+ * When present, these override the flat CarbonConfig factor for the covered period.
+ */
+@Entity
+@Table(name = "carbon_intensity_intervals", indexes = {
+        @Index(name = "idx_intensity_company_region_start", columnList = "company_id, region, interval_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarbonIntensityInterval {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Column(nullable = false, length = 50)
+    private String region;
+
+    /**
+     * Start of the hour this factor applies to (UTC).
+     */
+    @Column(name = "interval_start", nullable = false)
+    private LocalDateTime intervalStart;
+
+    /**
+     * Carbon intensity for the hour in gCO₂/kWh.
+     */
+    @Column(name = "carbon_intensity", precision = 10, scale = 4, nullable = false)
+    private BigDecimal carbonIntensity;
+
+    /**
+     * Data source: CSV_IMPORT, API
+     */
+    @Column(length = 20)
+    @Builder.Default
+    private String source = "CSV_IMPORT";
+}
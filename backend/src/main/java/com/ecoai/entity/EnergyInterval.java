@@ -0,0 +1,92 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * EnergyInterval entity - sub-daily (e.g. 15-minute) smart-meter readings.
+ * Append-only and inserted in time order; rows are periodically rolled up into
+ * daily EnergyUsage records (dataSource METER) so analytics never scan this table.
+ *
+ * Kept narrow because there are many of them: a sequence id (time-ordered, as
+ * rows arrive in time order), the meter zone as a MeterZone id, and no stored
+ * key string - the natural key is enforced by uk_meter_interval on (company,
+ * start, length, department, region), created by SchemaMaintenanceService as
+ * NULLS NOT DISTINCT so readings without a department are unique too.
+ */
+@Entity
+@Table(name = "meter_intervals", indexes = {
+        @Index(name = "idx_meter_interval_rollup_company", columnList = "rollup_batch, company_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnergyInterval {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meter_interval_seq")
+    @SequenceGenerator(name = "meter_interval_seq", sequenceName = "meter_interval_seq", allocationSize = 500)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id")
+    private Department department;
+
+    @Column(length = 50)
+    private String region;
+
+    /**
+     * Start of the interval (UTC).
+     */
+    @Column(name = "interval_start", nullable = false)
+    private LocalDateTime intervalStart;
+
+    @Column(name = "interval_minutes", nullable = false)
+    private Short intervalMinutes;
+
+    /**
+     * MeterZone id of the meter's time zone; usageDate is the local day in it.
+     */
+    @Column(name = "zone_id", nullable = false)
+    private Short zoneId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(precision = 12, scale = 4, nullable = false)
+    private BigDecimal kwh;
+
+    /**
+     * Rollup run that claimed this row; null until rolled up.
+     */
+    @Column(name = "rollup_batch")
+    private UUID rollupBatch;
+
+    /**
+     * Natural key within the company; a re-sent reading updates the stored one
+     * instead of being counted twice.
+     */
+    public String naturalKey() {
+        return naturalKey(intervalStart, intervalMinutes, department != null ? department.getId() : null, region);
+    }
+
+    /**
+     * UTC start, length, department and region.
+     */
+    public static String naturalKey(LocalDateTime intervalStart, Short intervalMinutes, UUID departmentId,
+            String region) {
+        return intervalStart + "|" + intervalMinutes
+                + "|" + (departmentId != null ? departmentId : "")
+                + "|" + (region != null ? region.trim().toLowerCase(Locale.ROOT) : "");
+    }
+}
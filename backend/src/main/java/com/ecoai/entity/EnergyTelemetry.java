@@ -0,0 +1,70 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * EnergyTelemetry entity - raw per-model / per-job energy readings.
+ * Append-only; rows are periodically rolled up into daily EnergyUsage records
+ * (dataSource TELEMETRY) so analytics never scan this table.
+ */
+@Entity
+@Table(name = "energy_telemetry", indexes = {
+        @Index(name = "idx_telemetry_rollup_company", columnList = "rollup_batch, company_id"),
+        @Index(name = "idx_telemetry_company_date", columnList = "company_id, usage_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnergyTelemetry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id")
+    private Department department;
+
+    /**
+     * TelemetryKey ids of the model and (optional) job.
+     */
+    @Column(name = "model_key_id", nullable = false)
+    private Long modelKeyId;
+
+    @Column(name = "job_key_id")
+    private Long jobKeyId;
+
+    /**
+     * Reading timestamp (UTC) and its date, the rollup grain.
+     */
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(length = 50)
+    private String region;
+
+    @Column(name = "gpu_hours", precision = 15, scale = 4)
+    private BigDecimal gpuHours;
+
+    @Column(precision = 15, scale = 4, nullable = false)
+    private BigDecimal kwh;
+
+    /**
+     * Rollup run that claimed this row; null until rolled up.
+     */
+    @Column(name = "rollup_batch")
+    private UUID rollupBatch;
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -12,7 +13,11 @@ import java.util.UUID;
  * This is the core data that drives all calculations and analytics.
  */
 @Entity
-@Table(name = "energy_usage")
+@Table(name = "energy_usage", indexes = {
+        @Index(name = "idx_energy_usage_company_date", columnList = "company_id, usage_date"),
+        @Index(name = "idx_energy_usage_company_dept_date", columnList = "company_id, department_id, usage_date"),
+        @Index(name = "idx_energy_usage_period_group", columnList = "period_group_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,11 +45,46 @@ public class EnergyUsage {
     /**
      * AI-attributed electricity consumption in kWh.
      * Calculated using: totalKwh × company.baseAiPercentage ×
-     * department.aiUsageWeight
+     * department.aiUsageWeight, unless an AttributionRule overrides a factor
      */
     @Column(name = "ai_attributed_kwh", precision = 15, scale = 4)
     private BigDecimal aiAttributedKwh;
 
+    /**
+     * Factors applied when aiAttributedKwh was calculated, kept so the
+     * attribution can be explained later without recomputing it.
+     */
+    @Column(name = "ai_share_used", precision = 5, scale = 4)
+    private BigDecimal aiShareUsed;
+
+    @Column(name = "department_weight_used", precision = 5, scale = 4)
+    private BigDecimal departmentWeightUsed;
+
+    /**
+     * AttributionRule that supplied a factor, null for the default formula.
+     */
+    @Column(name = "attribution_rule_id")
+    private UUID attributionRuleId;
+
+    /**
+     * CO₂e in kg, denormalized from the linked CarbonEmission so carbon
+     * aggregates are single-table range scans. Kept in sync on recalculation.
+     */
+    @Column(name = "co2e_kg", precision = 15, scale = 4)
+    private BigDecimal co2eKg;
+
+    /**
+     * Carbon intensity (gCO₂/kWh) used for co2eKg.
+     */
+    @Column(name = "carbon_intensity_used", precision = 10, scale = 4)
+    private BigDecimal carbonIntensityUsed;
+
+    /**
+     * Market-based CO₂e in kg, denormalized alongside the location-based co2eKg.
+     */
+    @Column(name = "market_co2e_kg", precision = 15, scale = 4)
+    private BigDecimal marketCo2eKg;
+
     /**
      * Electricity cost for this usage period.
      */
@@ -69,6 +109,22 @@ public class EnergyUsage {
     @Builder.Default
     private PeriodType periodType = PeriodType.DAILY;
 
+    /**
+     * WEEKLY and MONTHLY entries are stored prorated into one DAILY record per
+     * covered day, so date-range aggregates stay plain sums. The slices keep the
+     * entered period and its first day here and share a periodGroupId; all three
+     * are null for daily input.
+     */
+    @Column(name = "source_period_type", length = 20)
+    @Enumerated(EnumType.STRING)
+    private PeriodType sourcePeriodType;
+
+    @Column(name = "source_period_start")
+    private LocalDate sourcePeriodStart;
+
+    @Column(name = "period_group_id")
+    private UUID periodGroupId;
+
     /**
      * Region/location of energy consumption (affects carbon calculations).
      */
@@ -76,12 +132,36 @@ public class EnergyUsage {
     private String region;
 
     /**
-     * Data source: MANUAL, CSV_IMPORT, API
+     * Optional tags used by attribution rules.
+     */
+    @Column(name = "workload_type", length = 50)
+    private String workloadType;
+
+    @Column(length = 50)
+    private String cluster;
+
+    /**
+     * Hour of day (0-23) for hourly records, null for whole-day records.
+     */
+    @Column(name = "usage_hour")
+    private Integer usageHour;
+
+    /**
+     * Data source: MANUAL, CSV_IMPORT, API, TELEMETRY / METER (daily rollups of
+     * EnergyTelemetry / EnergyInterval)
      */
     @Column(name = "data_source", length = 20)
     @Builder.Default
     private String dataSource = "MANUAL";
 
+    /**
+     * Natural key within the company (see naturalKey()); re-ingesting a record
+     * with the same key updates it instead of adding a duplicate. Unique per
+     * company through uk_energy_usage_ingest_key (see SchemaMaintenanceService).
+     */
+    @Column(name = "ingest_key")
+    private String ingestKey;
+
     @Column(name = "created_at")
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -89,6 +169,28 @@ public class EnergyUsage {
     @OneToOne(mappedBy = "energyUsage", cascade = CascadeType.ALL, orphanRemoval = true)
     private CarbonEmission carbonEmission;
 
+    @PrePersist
+    public void prePersist() {
+        this.ingestKey = naturalKey();
+    }
+
+    /**
+     * Date, hour, department, region, workload tags and data source; text parts
+     * are compared case-insensitively. Prorated slices add the entered period and
+     * its start, so they never match a daily record or a slice of another entry.
+     */
+    public String naturalKey() {
+        String key = usageDate + "|" + (usageHour != null ? usageHour : "")
+                + "|" + (department != null ? department.getId() : "")
+                + "|" + keyPart(region) + "|" + keyPart(workloadType) + "|" + keyPart(cluster)
+                + "|" + keyPart(dataSource);
+        return sourcePeriodType != null ? key + "|" + sourcePeriodType + "@" + sourcePeriodStart : key;
+    }
+
+    private static String keyPart(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
     public enum PeriodType {
         DAILY, WEEKLY, MONTHLY
     }
@@ -0,0 +1,49 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * GenerationInterval entity - hourly output of a contracted carbon-free source (PPA).
+ * One row per contract, region and hour (UTC), imported from developer / meter CSVs
+ * and matched hour by hour against consumption for 24/7 CFE reporting.
+ */
+@Entity
+@Table(name = "generation_intervals", indexes = {
+        @Index(name = "idx_generation_company_region_start", columnList = "company_id, region, interval_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationInterval {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Column(nullable = false, length = 50)
+    private String region;
+
+    /**
+     * Contract / asset the generation is attributed to, e.g. "Solar PPA 2024".
+     */
+    @Column(name = "contract_name", nullable = false, length = 100)
+    private String contractName;
+
+    /**
+     * Start of the hour (UTC).
+     */
+    @Column(name = "interval_start", nullable = false)
+    private LocalDateTime intervalStart;
+
+    @Column(name = "generation_kwh", precision = 14, scale = 4, nullable = false)
+    private BigDecimal generationKwh;
+}
@@ -0,0 +1,86 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * MarketInstrument entity - contractual instruments for market-based Scope 2 accounting.
+ * 
+ * Market-based factor for a region and day:
+ * Σ(coverage × instrument factor) + (1 − Σ coverage) × residual mix
+ * where the residual mix falls back to the location-based intensity if not configured.
+ */
+@Entity
+@Table(name = "market_instruments", indexes = {
+        @Index(name = "idx_market_instrument_company_region", columnList = "company_id, region")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketInstrument {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Column(nullable = false)
+    private String name;
+
+    /**
+     * Type: SUPPLIER_CONTRACT, ENERGY_ATTRIBUTE_CERTIFICATE, RESIDUAL_MIX
+     */
+    @Column(name = "instrument_type", length = 40, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private InstrumentType instrumentType;
+
+    /**
+     * Region this instrument applies to (null = all regions).
+     */
+    @Column(length = 50)
+    private String region;
+
+    /**
+     * Emission factor in gCO₂/kWh (0 for renewable certificates).
+     */
+    @Column(name = "emission_factor", precision = 10, scale = 4, nullable = false)
+    @Builder.Default
+    private BigDecimal emissionFactor = BigDecimal.ZERO;
+
+    /**
+     * Share of consumption covered by this instrument (0.0 to 1.0).
+     * Ignored for RESIDUAL_MIX, which always applies to the uncovered remainder.
+     */
+    @Column(name = "coverage_fraction", precision = 5, scale = 4)
+    @Builder.Default
+    private BigDecimal coverageFraction = BigDecimal.ONE;
+
+    @Column(name = "valid_from")
+    private LocalDate validFrom;
+
+    @Column(name = "valid_to")
+    private LocalDate validTo;
+
+    @Column(name = "created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public boolean isValidOn(LocalDate date) {
+        return (validFrom == null || !date.isBefore(validFrom))
+                && (validTo == null || !date.isAfter(validTo));
+    }
+
+    public enum InstrumentType {
+        ENERGY_ATTRIBUTE_CERTIFICATE, // RECs / GOs - applied first
+        SUPPLIER_CONTRACT, // Supplier-specific factor / PPA
+        RESIDUAL_MIX // Factor for consumption not covered by any instrument
+    }
+}
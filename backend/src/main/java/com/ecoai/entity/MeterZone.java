@@ -0,0 +1,26 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * MeterZone entity - dictionary of meter time zones (IANA ids).
+ * Meter intervals store the numeric id instead of repeating the zone string.
+ */
+@Entity
+@Table(name = "meter_zones", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_meter_zone", columnNames = "zone_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MeterZone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Column(name = "zone_id", nullable = false, length = 40)
+    private String zoneId;
+}
@@ -2,6 +2,7 @@ package com.ecoai.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -10,7 +11,11 @@ import java.util.UUID;
  * Allows companies to explore different scenarios for planning purposes.
  */
 @Entity
-@Table(name = "simulation_scenarios")
+@Table(name = "simulation_scenarios", indexes = {
+        @Index(name = "idx_scenario_company_created", columnList = "company_id, created_at"),
+        @Index(name = "idx_scenario_company_type_created", columnList = "company_id, simulation_type, created_at"),
+        @Index(name = "idx_scenario_company_carbon_delta", columnList = "company_id, carbon_delta_kg")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,29 +40,76 @@ public class SimulationScenario {
     private String description;
 
     /**
-     * Type of simulation: GROWTH, REGION_CHANGE, EFFICIENCY, CUSTOM
+     * Type of simulation: GROWTH, REGION_CHANGE, EFFICIENCY, CUSTOM, PATHWAY
      */
     @Column(name = "simulation_type", length = 30)
     @Enumerated(EnumType.STRING)
     private SimulationType simulationType;
 
+    // Input parameters
+    @Column(name = "growth_percent", precision = 10, scale = 4)
+    private BigDecimal growthPercent;
+
+    @Column(name = "from_region", length = 50)
+    private String fromRegion;
+
+    @Column(name = "to_region", length = 50)
+    private String toRegion;
+
+    @Column(name = "efficiency_percent", precision = 10, scale = 4)
+    private BigDecimal efficiencyPercent;
+
+    @Column(name = "months_ahead")
+    private Integer monthsAhead;
+
+    // Baseline values
+    @Column(name = "baseline_ai_kwh", precision = 19, scale = 4)
+    private BigDecimal baselineAiKwh;
+
+    @Column(name = "baseline_co2e_kg", precision = 19, scale = 4)
+    private BigDecimal baselineCo2eKg;
+
+    @Column(name = "baseline_cost", precision = 19, scale = 2)
+    private BigDecimal baselineCost;
+
+    // Projected results
+    @Column(name = "projected_ai_kwh", precision = 19, scale = 4)
+    private BigDecimal projectedAiKwh;
+
+    @Column(name = "projected_co2e_kg", precision = 19, scale = 4)
+    private BigDecimal projectedCo2eKg;
+
+    @Column(name = "projected_cost", precision = 19, scale = 2)
+    private BigDecimal projectedCost;
+
+    // Impact analysis
+    @Column(name = "energy_delta_kwh", precision = 19, scale = 4)
+    private BigDecimal energyDeltaKwh;
+
+    @Column(name = "carbon_delta_kg", precision = 19, scale = 4)
+    private BigDecimal carbonDeltaKg;
+
+    @Column(name = "cost_delta", precision = 19, scale = 2)
+    private BigDecimal costDelta;
+
+    @Column(name = "percent_change", precision = 10, scale = 4)
+    private BigDecimal percentChange;
+
     /**
-     * JSON-stored simulation parameters.
-     * Example: {"growthPercent": 20, "months": 12}
+     * JSON-stored extra parameters not covered by the columns above.
      */
     @Column(columnDefinition = "TEXT")
     private String parameters;
 
     /**
-     * JSON-stored simulation results.
-     * Example: {"projectedAiKwh": 15000, "projectedCo2eKg": 4500, "projectedCost":
-     * 1800}
+     * JSON-stored extra results not covered by the columns above, e.g. the
+     * monthly projection series.
      */
     @Column(columnDefinition = "TEXT")
     private String results;
 
     /**
-     * Baseline values before simulation.
+     * Legacy JSON baseline, only set on scenarios saved before the typed columns.
      */
     @Column(name = "baseline_values", columnDefinition = "TEXT")
     private String baselineValues;
@@ -70,6 +122,7 @@ public class SimulationScenario {
         GROWTH, // Simulate AI usage growth
         REGION_CHANGE, // Simulate moving workloads to different region
         EFFICIENCY, // Simulate efficiency improvements
-        CUSTOM // Custom simulation with multiple parameters
+        CUSTOM, // Custom simulation with multiple parameters
+        PATHWAY // Multi-year net-zero pathway
     }
 }
@@ -0,0 +1,43 @@
+package com.ecoai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * TelemetryKey entity - dictionary of model and job identifiers.
+ * Telemetry rows store the numeric id instead of repeating the identifier string.
+ */
+@Entity
+@Table(name = "telemetry_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_telemetry_key", columnNames = { "company_id", "kind", "key_value" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelemetryKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private KeyKind kind;
+
+    @Column(name = "key_value", nullable = false)
+    private String keyValue;
+
+    @Column(name = "created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum KeyKind {
+        MODEL, JOB
+    }
+}
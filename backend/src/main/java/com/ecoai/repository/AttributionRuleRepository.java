@@ -0,0 +1,22 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.AttributionRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AttributionRuleRepository extends JpaRepository<AttributionRule, UUID> {
+
+    @Query("SELECT r FROM AttributionRule r LEFT JOIN FETCH r.department WHERE r.company.id = :companyId " +
+            "ORDER BY r.priority DESC, r.createdAt")
+    List<AttributionRule> findByCompanyId(@Param("companyId") UUID companyId);
+
+    @Query("SELECT r FROM AttributionRule r LEFT JOIN FETCH r.department WHERE r.company.id = :companyId " +
+            "AND r.enabled = true ORDER BY r.priority DESC, r.createdAt")
+    List<AttributionRule> findEnabledByCompanyId(@Param("companyId") UUID companyId);
+}
@@ -2,6 +2,7 @@ package com.ecoai.repository;
 
 import com.ecoai.entity.CarbonEmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -26,6 +27,76 @@ public interface CarbonEmissionRepository extends JpaRepository<CarbonEmission,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT SUM(c.co2eKg), SUM(c.marketCo2eKg) FROM CarbonEmission c WHERE c.energyUsage.company.id = :companyId " +
+            "AND c.energyUsage.usageDate BETWEEN :startDate AND :endDate")
+    List<Object[]> sumScope2ByCompanyAndDateRange(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     @Query("SELECT c.regionUsed, SUM(c.co2eKg) FROM CarbonEmission c WHERE c.energyUsage.company.id = :companyId GROUP BY c.regionUsed")
     List<Object[]> sumCo2eByRegion(@Param("companyId") UUID companyId);
+
+    @Query("SELECT DISTINCT c.regionUsed FROM CarbonEmission c WHERE c.energyUsage.company.id = :companyId AND c.regionUsed IS NOT NULL")
+    List<String> findDistinctRegionsByCompanyId(@Param("companyId") UUID companyId);
+
+    /**
+     * Set-based recalculation of all emissions for one (company, region) within a date window.
+     * Merges the window's energy usage rows into their emissions, so each row's AI kWh is read
+     * once and the new intensity applied in a single statement. Hourly rows are
+     * left out unless includeHourly is set, for regions whose intensity varies by hour.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "MERGE INTO carbon_emissions c USING (" +
+            "SELECT e.id, ROUND(e.ai_attributed_kwh * :intensity, 4) AS grams, " +
+            "ROUND(e.ai_attributed_kwh * :marketFactor, 4) AS market_grams FROM energy_usage e " +
+            "WHERE e.company_id = :companyId AND e.usage_date BETWEEN :startDate AND :endDate " +
+            "AND (:includeHourly = TRUE OR e.usage_hour IS NULL)) u " +
+            "ON c.energy_usage_id = u.id " +
+            "WHEN MATCHED AND c.region_used = :region THEN UPDATE SET carbon_intensity_used = :intensity, " +
+            "co2e_grams = u.grams, co2e_kg = ROUND(u.grams / 1000, 4), " +
+            "market_factor_used = :marketFactor, market_basis = :marketBasis, " +
+            "market_co2e_kg = ROUND(u.market_grams / 1000, 4), calculated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int recalculateByCompanyRegionAndDateRange(@Param("companyId") UUID companyId,
+            @Param("region") String region,
+            @Param("intensity") BigDecimal intensity,
+            @Param("marketFactor") BigDecimal marketFactor,
+            @Param("marketBasis") String marketBasis,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("includeHourly") boolean includeHourly);
+
+    /**
+     * Re-derive emissions of one department's usage rows (the unassigned rows, or
+     * every row with allDepartments) in a date window from their current AI kWh,
+     * keeping the intensity and market factor each emission was calculated with.
+     * Each usage row's AI kWh is read once through the MERGE source, and only
+     * emissions whose CO₂e actually changes are written.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "MERGE INTO carbon_emissions c USING (" +
+            "SELECT e.id, e.ai_attributed_kwh AS kwh FROM energy_usage e " +
+            "WHERE e.company_id = :companyId AND e.usage_date BETWEEN :startDate AND :endDate " +
+            "AND (:allDepartments = TRUE OR e.department_id = :departmentId " +
+            "OR (:unassigned = TRUE AND e.department_id IS NULL))) u " +
+            "ON c.energy_usage_id = u.id " +
+            "WHEN MATCHED AND c.co2e_grams <> ROUND(u.kwh * c.carbon_intensity_used, 4) THEN UPDATE SET " +
+            "co2e_grams = ROUND(u.kwh * c.carbon_intensity_used, 4), " +
+            "co2e_kg = ROUND(ROUND(u.kwh * c.carbon_intensity_used, 4) / 1000, 4), " +
+            "market_co2e_kg = ROUND(ROUND(u.kwh * COALESCE(c.market_factor_used, c.carbon_intensity_used), 4) / 1000, 4), " +
+            "calculated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int reattributeByDepartmentAndDateRange(@Param("companyId") UUID companyId,
+            @Param("departmentId") UUID departmentId,
+            @Param("unassigned") boolean unassigned,
+            @Param("allDepartments") boolean allDepartments,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Emissions calculated before market-based accounting existed had no instruments,
+     * so their market-based figure equals the location-based one.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE carbon_emissions SET market_co2e_kg = co2e_kg, market_factor_used = carbon_intensity_used, " +
+            "market_basis = 'LOCATION_FALLBACK' WHERE market_co2e_kg IS NULL", nativeQuery = true)
+    int backfillMarketFromLocation();
 }
@@ -0,0 +1,35 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.CarbonIntensityInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CarbonIntensityIntervalRepository extends JpaRepository<CarbonIntensityInterval, UUID> {
+
+    @Query("SELECT i.intervalStart, i.carbonIntensity FROM CarbonIntensityInterval i " +
+            "WHERE i.company.id = :companyId AND i.region = :region ORDER BY i.intervalStart")
+    List<Object[]> findSeries(@Param("companyId") UUID companyId, @Param("region") String region);
+
+    @Query("SELECT MIN(i.intervalStart), MAX(i.intervalStart) FROM CarbonIntensityInterval i " +
+            "WHERE i.company.id = :companyId AND i.region = :region")
+    List<Object[]> findSpan(@Param("companyId") UUID companyId, @Param("region") String region);
+
+    @Query("SELECT DISTINCT i.region FROM CarbonIntensityInterval i WHERE i.company.id = :companyId")
+    List<String> findDistinctRegionsByCompanyId(@Param("companyId") UUID companyId);
+
+    @Modifying
+    @Query("DELETE FROM CarbonIntensityInterval i WHERE i.company.id = :companyId AND i.region = :region " +
+            "AND i.intervalStart BETWEEN :start AND :end")
+    int deleteByCompanyRegionAndRange(@Param("companyId") UUID companyId,
+            @Param("region") String region,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,70 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.EnergyInterval;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface EnergyIntervalRepository extends JpaRepository<EnergyInterval, Long> {
+
+    @Query("SELECT i FROM EnergyInterval i LEFT JOIN FETCH i.department WHERE i.company.id = :companyId " +
+            "AND i.intervalStart >= :from AND i.intervalStart < :to ORDER BY i.intervalStart")
+    List<EnergyInterval> findByCompanyIdAndRange(@Param("companyId") UUID companyId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    @Query("SELECT DISTINCT i.company.id FROM EnergyInterval i WHERE i.rollupBatch IS NULL")
+    List<UUID> findCompanyIdsWithPendingRollup();
+
+    /**
+     * Claim up to limit not-yet-rolled-up intervals of a company for one rollup batch.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE meter_intervals SET rollup_batch = :batch " +
+            "WHERE rollup_batch IS NULL AND company_id = :companyId FETCH FIRST :limit ROWS ONLY", nativeQuery = true)
+    int claimForRollup(@Param("companyId") UUID companyId, @Param("batch") UUID batch,
+            @Param("limit") int limit);
+
+    /**
+     * kWh of a claimed rollup run per department, local day and region.
+     * Rows: [0]departmentId, [1]usageDate, [2]region, [3]kwh.
+     */
+    @Query("SELECT i.department.id, i.usageDate, i.region, SUM(i.kwh) FROM EnergyInterval i " +
+            "WHERE i.company.id = :companyId AND i.rollupBatch = :batch " +
+            "GROUP BY i.department.id, i.usageDate, i.region")
+    List<Object[]> sumByRollupBatch(@Param("companyId") UUID companyId, @Param("batch") UUID batch);
+
+    /**
+     * Stored intervals starting at any of the given instants; the upsert matches
+     * them to incoming readings on the natural key.
+     */
+    @Query("SELECT i FROM EnergyInterval i LEFT JOIN FETCH i.department WHERE i.company.id = :companyId " +
+            "AND i.intervalStart IN :starts")
+    List<EnergyInterval> findByCompanyIdAndIntervalStartIn(@Param("companyId") UUID companyId,
+            @Param("starts") Collection<LocalDateTime> starts);
+
+    long countByCompanyId(UUID companyId);
+
+    /**
+     * Natural-key parts of a company's intervals.
+     * Rows: [0]intervalStart, [1]intervalMinutes, [2]departmentId, [3]region.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT i.intervalStart, i.intervalMinutes, i.department.id, i.region FROM EnergyInterval i " +
+            "WHERE i.company.id = :companyId")
+    Stream<Object[]> streamNaturalKeys(@Param("companyId") UUID companyId);
+}
@@ -0,0 +1,50 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.EnergyTelemetry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EnergyTelemetryRepository extends JpaRepository<EnergyTelemetry, UUID> {
+
+    @Query("SELECT DISTINCT t.company.id FROM EnergyTelemetry t WHERE t.rollupBatch IS NULL")
+    List<UUID> findCompanyIdsWithPendingRollup();
+
+    /**
+     * Claim up to limit not-yet-rolled-up rows of a company for one rollup batch.
+     * Rows committed after the claim are left for the next one.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE energy_telemetry SET rollup_batch = :batch " +
+            "WHERE rollup_batch IS NULL AND company_id = :companyId FETCH FIRST :limit ROWS ONLY", nativeQuery = true)
+    int claimForRollup(@Param("companyId") UUID companyId, @Param("batch") UUID batch,
+            @Param("limit") int limit);
+
+    /**
+     * kWh of a claimed rollup run per department, day and region.
+     * Rows: [0]departmentId, [1]usageDate, [2]region, [3]kwh.
+     */
+    @Query("SELECT t.department.id, t.usageDate, t.region, SUM(t.kwh) FROM EnergyTelemetry t " +
+            "WHERE t.company.id = :companyId AND t.rollupBatch = :batch " +
+            "GROUP BY t.department.id, t.usageDate, t.region")
+    List<Object[]> sumByRollupBatch(@Param("companyId") UUID companyId, @Param("batch") UUID batch);
+
+    /**
+     * Per-model totals in a date window, largest consumers first.
+     * Rows: [0]modelId, [1]distinct jobs, [2]records, [3]gpuHours, [4]kwh.
+     */
+    @Query("SELECT k.keyValue, COUNT(DISTINCT t.jobKeyId), COUNT(t), SUM(t.gpuHours), SUM(t.kwh) " +
+            "FROM EnergyTelemetry t JOIN TelemetryKey k ON k.id = t.modelKeyId " +
+            "WHERE t.company.id = :companyId AND t.usageDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY k.keyValue ORDER BY SUM(t.kwh) DESC")
+    List<Object[]> sumByModel(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -1,14 +1,21 @@
 package com.ecoai.repository;
 
 import com.ecoai.entity.EnergyUsage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnergyUsageRepository extends JpaRepository<EnergyUsage, UUID> {
@@ -19,8 +26,51 @@ public interface EnergyUsageRepository extends JpaRepository<EnergyUsage, UUID>
 
     List<EnergyUsage> findByCompanyIdAndRegion(UUID companyId, String region);
 
+    List<EnergyUsage> findByCompanyIdAndDataSourceAndUsageDateBetween(UUID companyId, String dataSource,
+            LocalDate startDate, LocalDate endDate);
+
     List<EnergyUsage> findByDepartmentId(UUID departmentId);
 
+    List<EnergyUsage> findByPeriodGroupId(UUID periodGroupId);
+
+    /**
+     * Prorated entries whose slices were keyed before the period start was kept:
+     * [0] periodGroupId, [1] first slice date.
+     */
+    @Query("SELECT e.periodGroupId, MIN(e.usageDate) FROM EnergyUsage e " +
+            "WHERE e.periodGroupId IS NOT NULL AND e.sourcePeriodStart IS NULL GROUP BY e.periodGroupId")
+    List<Object[]> findPeriodGroupsWithoutStart();
+
+    // Fetches the emission too; the inverse one-to-one would otherwise load it row by row
+    @Query("SELECT e FROM EnergyUsage e LEFT JOIN FETCH e.carbonEmission WHERE e.company.id = :companyId " +
+            "AND e.ingestKey IN :keys")
+    List<EnergyUsage> findByCompanyIdAndIngestKeyIn(@Param("companyId") UUID companyId,
+            @Param("keys") Collection<String> keys);
+
+    @Query("SELECT COUNT(e) FROM EnergyUsage e WHERE e.company.id = :companyId AND e.ingestKey IS NOT NULL")
+    long countIngestKeys(@Param("companyId") UUID companyId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT e.ingestKey FROM EnergyUsage e WHERE e.company.id = :companyId AND e.ingestKey IS NOT NULL")
+    Stream<String> streamIngestKeys(@Param("companyId") UUID companyId);
+
+    /**
+     * Records stored before natural keys were assigned on persist.
+     */
+    @Query("SELECT e FROM EnergyUsage e LEFT JOIN FETCH e.department WHERE e.ingestKey IS NULL")
+    List<EnergyUsage> findWithoutIngestKey(Pageable pageable);
+
+    /**
+     * WEEKLY / MONTHLY records stored before entries were prorated at write time.
+     */
+    @Query("SELECT e FROM EnergyUsage e JOIN FETCH e.company WHERE e.company.id = :companyId " +
+            "AND e.periodType <> :daily")
+    List<EnergyUsage> findUnproratedPeriods(@Param("companyId") UUID companyId,
+            @Param("daily") EnergyUsage.PeriodType daily, Pageable pageable);
+
+    @Query("SELECT DISTINCT e.company.id FROM EnergyUsage e WHERE e.periodType <> :daily")
+    List<UUID> findCompanyIdsWithUnproratedPeriods(@Param("daily") EnergyUsage.PeriodType daily);
+
     @Query("SELECT e FROM EnergyUsage e WHERE e.company.id = :companyId ORDER BY e.usageDate DESC")
     List<EnergyUsage> findByCompanyIdOrderByDateDesc(@Param("companyId") UUID companyId);
 
@@ -38,9 +88,200 @@ public interface EnergyUsageRepository extends JpaRepository<EnergyUsage, UUID>
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT e.department.id, SUM(e.aiAttributedKwh) FROM EnergyUsage e WHERE e.company.id = :companyId AND e.department IS NOT NULL GROUP BY e.department.id")
-    List<Object[]> sumAiKwhByDepartment(@Param("companyId") UUID companyId);
+    /**
+     * AI kWh, CO₂e and cost per department in a date window; served by
+     * idx_energy_usage_company_dept_date.
+     */
+    @Query("SELECT e.department.id, SUM(e.aiAttributedKwh), SUM(e.co2eKg), SUM(e.cost) FROM EnergyUsage e " +
+            "WHERE e.company.id = :companyId AND e.department IS NOT NULL " +
+            "AND e.usageDate BETWEEN :startDate AND :endDate GROUP BY e.department.id")
+    List<Object[]> sumByDepartmentAndDateRange(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT e.region, SUM(e.totalKwh), SUM(e.aiAttributedKwh) FROM EnergyUsage e WHERE e.company.id = :companyId GROUP BY e.region")
+    @Query("SELECT e.region, SUM(e.totalKwh), SUM(e.aiAttributedKwh), SUM(e.co2eKg), SUM(e.marketCo2eKg) FROM EnergyUsage e WHERE e.company.id = :companyId GROUP BY e.region")
     List<Object[]> sumKwhByRegion(@Param("companyId") UUID companyId);
+
+    @Query("SELECT MIN(e.usageDate) FROM EnergyUsage e WHERE e.company.id = :companyId")
+    LocalDate findMinUsageDate(@Param("companyId") UUID companyId);
+
+    @Query("SELECT MAX(e.usageDate) FROM EnergyUsage e WHERE e.company.id = :companyId")
+    LocalDate findMaxUsageDate(@Param("companyId") UUID companyId);
+
+    @Query("SELECT e FROM EnergyUsage e WHERE e.company.id = :companyId AND e.aiAttributedKwh IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM CarbonEmission c WHERE c.energyUsage = e)")
+    List<EnergyUsage> findWithoutEmission(@Param("companyId") UUID companyId, Pageable pageable);
+
+    @Query("SELECT SUM(e.co2eKg) FROM EnergyUsage e WHERE e.company.id = :companyId AND e.usageDate BETWEEN :startDate AND :endDate")
+    java.math.BigDecimal sumCo2eKgByCompanyAndDateRange(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT SUM(e.co2eKg), SUM(e.marketCo2eKg) FROM EnergyUsage e WHERE e.company.id = :companyId AND e.usageDate BETWEEN :startDate AND :endDate")
+    List<Object[]> sumScope2ByCompanyAndDateRange(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT YEAR(e.usageDate), MONTH(e.usageDate), SUM(e.totalKwh), SUM(e.aiAttributedKwh), SUM(e.cost), " +
+            "SUM(e.co2eKg), SUM(e.marketCo2eKg) " +
+            "FROM EnergyUsage e WHERE e.company.id = :companyId AND e.usageDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY YEAR(e.usageDate), MONTH(e.usageDate)")
+    List<Object[]> sumMonthlyByCompanyAndDateRange(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * AI kWh per department (null = unassigned) and effective region for a date range.
+     */
+    @Query("SELECT d.id, d.name, d.team, d.aiUsageWeight, COALESCE(e.region, c.region), SUM(e.aiAttributedKwh) " +
+            "FROM EnergyUsage e JOIN e.company c LEFT JOIN e.department d " +
+            "WHERE c.id = :companyId AND e.usageDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY d.id, d.name, d.team, d.aiUsageWeight, COALESCE(e.region, c.region)")
+    List<Object[]> sumAiKwhByDepartmentAndRegion(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Hourly usage rows whose emission was calculated for a region, in a date window.
+     */
+    @Query("SELECT e FROM EnergyUsage e JOIN FETCH e.carbonEmission c JOIN FETCH e.company " +
+            "WHERE e.company.id = :companyId AND c.regionUsed = :region AND e.usageHour IS NOT NULL " +
+            "AND e.usageDate BETWEEN :startDate AND :endDate")
+    List<EnergyUsage> findHourlyByCompanyRegionAndDateRange(@Param("companyId") UUID companyId,
+            @Param("region") String region,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * AI kWh per effective region (usage region, else company region), start date,
+     * period type and hour of day (null for whole-day records).
+     */
+    @Query("SELECT COALESCE(e.region, c.region), e.usageDate, e.periodType, SUM(e.aiAttributedKwh), e.usageHour " +
+            "FROM EnergyUsage e JOIN e.company c WHERE c.id = :companyId AND e.usageDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY COALESCE(e.region, c.region), e.usageDate, e.periodType, e.usageHour")
+    List<Object[]> sumAiKwhByRegionAndPeriod(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Copy CO₂e and intensity from carbon_emissions onto the usage rows of one
+     * (company, region) date window, after those emissions were recalculated.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE energy_usage SET " +
+            "co2e_kg = (SELECT c.co2e_kg FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id), " +
+            "carbon_intensity_used = (SELECT c.carbon_intensity_used FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id), "
+            +
+            "market_co2e_kg = (SELECT c.market_co2e_kg FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id) "
+            +
+            "WHERE company_id = :companyId AND usage_date BETWEEN :startDate AND :endDate " +
+            "AND id IN (SELECT c.energy_usage_id FROM carbon_emissions c WHERE c.region_used = :region)", nativeQuery = true)
+    int syncCarbonFromEmissions(@Param("companyId") UUID companyId,
+            @Param("region") String region,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Set-based re-attribution of one department's usage rows (or the unassigned
+     * rows) in a date window: AI kWh = total kWh × company AI share × department
+     * weight, recording the factors used. Rows already at the new value with the
+     * same factors are left untouched, and so are TELEMETRY rows, which are
+     * measured AI energy attributed in full.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE energy_usage SET ai_attributed_kwh = ROUND(total_kwh * :aiShare * :weight, 4), " +
+            "ai_share_used = :aiShare, department_weight_used = :weight, attribution_rule_id = NULL " +
+            "WHERE company_id = :companyId AND usage_date BETWEEN :startDate AND :endDate " +
+            "AND (department_id = :departmentId OR (:unassigned = TRUE AND department_id IS NULL)) " +
+            "AND (data_source IS NULL OR data_source <> 'TELEMETRY') " +
+            "AND (ai_attributed_kwh IS NULL OR ai_attributed_kwh <> ROUND(total_kwh * :aiShare * :weight, 4) " +
+            "OR ai_share_used IS DISTINCT FROM :aiShare OR department_weight_used IS DISTINCT FROM :weight " +
+            "OR attribution_rule_id IS NOT NULL)", nativeQuery = true)
+    int reattributeDepartment(@Param("companyId") UUID companyId,
+            @Param("departmentId") UUID departmentId,
+            @Param("unassigned") boolean unassigned,
+            @Param("aiShare") java.math.BigDecimal aiShare,
+            @Param("weight") java.math.BigDecimal weight,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Copy CO₂e from carbon_emissions onto one department's usage rows (or all
+     * rows with allDepartments) in a date window, only where the stored values differ.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE energy_usage SET " +
+            "co2e_kg = (SELECT c.co2e_kg FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id), " +
+            "market_co2e_kg = (SELECT c.market_co2e_kg FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id) "
+            +
+            "WHERE company_id = :companyId AND usage_date BETWEEN :startDate AND :endDate " +
+            "AND (:allDepartments = TRUE OR department_id = :departmentId " +
+            "OR (:unassigned = TRUE AND department_id IS NULL)) " +
+            "AND EXISTS (SELECT 1 FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id " +
+            "AND (c.co2e_kg IS DISTINCT FROM energy_usage.co2e_kg " +
+            "OR c.market_co2e_kg IS DISTINCT FROM energy_usage.market_co2e_kg))", nativeQuery = true)
+    int syncCarbonForDepartment(@Param("companyId") UUID companyId,
+            @Param("departmentId") UUID departmentId,
+            @Param("unassigned") boolean unassigned,
+            @Param("allDepartments") boolean allDepartments,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * One-off backfill for rows written before CO₂e was denormalized.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE energy_usage SET " +
+            "co2e_kg = (SELECT c.co2e_kg FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id), " +
+            "carbon_intensity_used = (SELECT c.carbon_intensity_used FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id), "
+            +
+            "market_co2e_kg = (SELECT c.market_co2e_kg FROM carbon_emissions c WHERE c.energy_usage_id = energy_usage.id) "
+            +
+            "WHERE (co2e_kg IS NULL OR market_co2e_kg IS NULL) AND id IN (SELECT c.energy_usage_id FROM carbon_emissions c)", nativeQuery = true)
+    int backfillCarbonFromEmissions();
+
+    /**
+     * One-off backfill of the attribution factors for rows written before they
+     * were stored. Only rows whose AI kWh the current company share and
+     * department weight reproduce are filled; the rest stay unexplained until
+     * they are re-attributed.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE energy_usage SET " +
+            "ai_share_used = (SELECT COALESCE(c.base_ai_percentage, 0.30) FROM companies c WHERE c.id = energy_usage.company_id), "
+            +
+            "department_weight_used = COALESCE((SELECT d.ai_usage_weight FROM departments d WHERE d.id = energy_usage.department_id), 1) "
+            +
+            "WHERE ai_share_used IS NULL AND ai_attributed_kwh = ROUND(total_kwh " +
+            "* (SELECT COALESCE(c.base_ai_percentage, 0.30) FROM companies c WHERE c.id = energy_usage.company_id) " +
+            "* COALESCE((SELECT d.ai_usage_weight FROM departments d WHERE d.id = energy_usage.department_id), 1), 4)", nativeQuery = true)
+    int backfillAttributionFactors();
+
+    /**
+     * Rows of a data source not attributed at share 1 × weight 1.
+     */
+    @Query("SELECT e FROM EnergyUsage e JOIN FETCH e.company WHERE e.dataSource = :dataSource " +
+            "AND (e.aiShareUsed IS NULL OR e.aiShareUsed <> 1 OR e.departmentWeightUsed IS NULL " +
+            "OR e.departmentWeightUsed <> 1 OR e.attributionRuleId IS NOT NULL)")
+    List<EnergyUsage> findNotFullyAttributed(@Param("dataSource") String dataSource);
+
+    /**
+     * Stored attribution and carbon factors of every record in a date window,
+     * streamed in date order. Rows: [0]id, [1]usageDate, [2]usageHour,
+     * [3]department, [4]region, [5]workloadType, [6]cluster, [7]totalKwh,
+     * [8]aiShareUsed, [9]departmentWeightUsed, [10]attributionRuleId,
+     * [11]rule name, [12]aiAttributedKwh, [13]carbonIntensityUsed, [14]co2eKg,
+     * [15]marketFactorUsed, [16]marketBasis, [17]marketCo2eKg.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id, e.usageDate, e.usageHour, d.name, e.region, e.workloadType, e.cluster, e.totalKwh, " +
+            "e.aiShareUsed, e.departmentWeightUsed, e.attributionRuleId, r.name, e.aiAttributedKwh, " +
+            "e.carbonIntensityUsed, e.co2eKg, c.marketFactorUsed, c.marketBasis, e.marketCo2eKg " +
+            "FROM EnergyUsage e LEFT JOIN e.department d LEFT JOIN e.carbonEmission c " +
+            "LEFT JOIN AttributionRule r ON r.id = e.attributionRuleId " +
+            "WHERE e.company.id = :companyId AND e.usageDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.usageDate, e.usageHour, e.id")
+    Stream<Object[]> streamAttributionFactors(@Param("companyId") UUID companyId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
 }
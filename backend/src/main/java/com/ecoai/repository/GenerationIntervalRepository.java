@@ -0,0 +1,43 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.GenerationInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GenerationIntervalRepository extends JpaRepository<GenerationInterval, UUID> {
+
+    /**
+     * Hourly generation summed across all contracts in a region, for [start, end).
+     */
+    @Query("SELECT g.intervalStart, SUM(g.generationKwh) FROM GenerationInterval g " +
+            "WHERE g.company.id = :companyId AND g.region = :region " +
+            "AND g.intervalStart >= :start AND g.intervalStart < :end GROUP BY g.intervalStart")
+    List<Object[]> sumHourlyByRegion(@Param("companyId") UUID companyId,
+            @Param("region") String region,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query("SELECT DISTINCT g.region FROM GenerationInterval g WHERE g.company.id = :companyId")
+    List<String> findDistinctRegionsByCompanyId(@Param("companyId") UUID companyId);
+
+    @Query("SELECT g.region, g.contractName, COUNT(g), MIN(g.intervalStart), MAX(g.intervalStart), SUM(g.generationKwh) " +
+            "FROM GenerationInterval g WHERE g.company.id = :companyId GROUP BY g.region, g.contractName")
+    List<Object[]> summarizeByCompanyId(@Param("companyId") UUID companyId);
+
+    @Modifying
+    @Query("DELETE FROM GenerationInterval g WHERE g.company.id = :companyId AND g.region = :region " +
+            "AND g.contractName = :contractName AND g.intervalStart BETWEEN :start AND :end")
+    int deleteByContractAndRange(@Param("companyId") UUID companyId,
+            @Param("region") String region,
+            @Param("contractName") String contractName,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,18 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.MarketInstrument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MarketInstrumentRepository extends JpaRepository<MarketInstrument, UUID> {
+    List<MarketInstrument> findByCompanyId(UUID companyId);
+
+    @Query("SELECT m FROM MarketInstrument m WHERE m.company.id = :companyId AND (m.region = :region OR m.region IS NULL)")
+    List<MarketInstrument> findApplicable(@Param("companyId") UUID companyId, @Param("region") String region);
+}
@@ -0,0 +1,13 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.MeterZone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MeterZoneRepository extends JpaRepository<MeterZone, Short> {
+
+    Optional<MeterZone> findByZoneId(String zoneId);
+}
@@ -1,9 +1,15 @@
 package com.ecoai.repository;
 
 import com.ecoai.entity.SimulationScenario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +20,30 @@ public interface SimulationScenarioRepository extends JpaRepository<SimulationSc
     List<SimulationScenario> findByCompanyIdAndSimulationType(UUID companyId, SimulationScenario.SimulationType type);
 
     List<SimulationScenario> findByCompanyIdOrderByCreatedAtDesc(UUID companyId);
+
+    /**
+     * Filter saved scenarios on the typed columns (served by the company/type/created
+     * and company/carbon-delta indexes). Sorting and limit come from the Pageable.
+     */
+    @Query("SELECT s FROM SimulationScenario s WHERE s.company.id = :companyId " +
+            "AND (:type IS NULL OR s.simulationType = :type) " +
+            "AND s.createdAt >= :createdFrom AND s.createdAt < :createdTo " +
+            "AND (:filterCarbonDelta = false OR s.carbonDeltaKg BETWEEN :minCarbonDelta AND :maxCarbonDelta)")
+    List<SimulationScenario> findFiltered(@Param("companyId") UUID companyId,
+            @Param("type") SimulationScenario.SimulationType type,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("filterCarbonDelta") boolean filterCarbonDelta,
+            @Param("minCarbonDelta") BigDecimal minCarbonDelta,
+            @Param("maxCarbonDelta") BigDecimal maxCarbonDelta,
+            Pageable pageable);
+
+    List<SimulationScenario> findByCompanyIdAndIdIn(UUID companyId, Collection<UUID> ids);
+
+    /**
+     * Scenarios saved before the typed columns existed. Only those carry the
+     * parameters or baseline JSON; newer ones may still have extra results.
+     */
+    @Query("SELECT s FROM SimulationScenario s WHERE s.parameters IS NOT NULL OR s.baselineValues IS NOT NULL")
+    List<SimulationScenario> findLegacyScenarios();
 }
@@ -0,0 +1,20 @@
+package com.ecoai.repository;
+
+import com.ecoai.entity.TelemetryKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TelemetryKeyRepository extends JpaRepository<TelemetryKey, Long> {
+
+    @Query("SELECT k FROM TelemetryKey k WHERE k.company.id = :companyId AND k.kind = :kind AND k.keyValue IN :values")
+    List<TelemetryKey> findByCompanyIdAndKindAndKeyValueIn(@Param("companyId") UUID companyId,
+            @Param("kind") TelemetryKey.KeyKind kind,
+            @Param("values") Collection<String> values);
+}
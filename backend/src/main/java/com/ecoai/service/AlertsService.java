@@ -6,7 +6,6 @@ import com.ecoai.entity.AlertThreshold;
 import com.ecoai.entity.AlertThreshold.MetricType;
 import com.ecoai.entity.Company;
 import com.ecoai.repository.AlertThresholdRepository;
-import com.ecoai.repository.CarbonEmissionRepository;
 import com.ecoai.repository.CompanyRepository;
 import com.ecoai.repository.EnergyUsageRepository;
 import lombok.RequiredArgsConstructor;
@@ -32,7 +31,7 @@ public class AlertsService {
 
     private final AlertThresholdRepository alertThresholdRepository;
     private final EnergyUsageRepository energyUsageRepository;
-    private final CarbonEmissionRepository carbonEmissionRepository;
+    private final CarbonCalculationService carbonCalculationService;
     private final CompanyRepository companyRepository;
 
     /**
@@ -215,7 +214,7 @@ public class AlertsService {
                     companyId, startDate, endDate);
             case TOTAL_ENERGY_KWH -> energyUsageRepository.sumTotalKwhByCompanyAndDateRange(
                     companyId, startDate, endDate);
-            case CARBON_EMISSION_KG -> carbonEmissionRepository.sumCo2eKgByCompanyAndDateRange(
+            case CARBON_EMISSION_KG -> carbonCalculationService.sumCo2eKg(
                     companyId, startDate, endDate);
             default -> null;
         };
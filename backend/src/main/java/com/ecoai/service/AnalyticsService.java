@@ -6,8 +6,10 @@ import com.ecoai.entity.EnergyUsage;
 import com.ecoai.repository.CarbonEmissionRepository;
 import com.ecoai.repository.CompanyRepository;
 import com.ecoai.repository.EnergyUsageRepository;
+import com.ecoai.util.PercentChange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,7 +18,6 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Analytics & Forecasting Service.
@@ -32,6 +33,11 @@ public class AnalyticsService {
     private final CarbonEmissionRepository carbonEmissionRepository;
     private final CompanyRepository companyRepository;
 
+    private static final DateTimeFormatter MONTH_KEY = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    @Value("${app.carbon.denormalized-aggregates:true}")
+    private boolean denormalizedAggregates;
+
     /**
      * Get historical trend data for charts.
      */
@@ -39,13 +45,10 @@ public class AnalyticsService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusMonths(months);
 
-        List<EnergyUsage> usages = energyUsageRepository.findByCompanyIdAndUsageDateBetween(
-                companyId, startDate, endDate);
-
-        // Group by month
-        Map<String, List<EnergyUsage>> byMonth = usages.stream()
-                .collect(Collectors.groupingBy(
-                        u -> u.getUsageDate().format(DateTimeFormatter.ofPattern("yyyy-MM"))));
+        // Monthly sums: [totalKwh, aiKwh, cost, co2eKg, marketCo2eKg]
+        Map<String, BigDecimal[]> byMonth = denormalizedAggregates
+                ? sumByMonth(companyId, startDate, endDate)
+                : sumByMonthFromEntities(companyId, startDate, endDate);
 
         List<TrendDataPointDTO> trends = new ArrayList<>();
         DateTimeFormatter displayFormat = DateTimeFormatter.ofPattern("MMM yyyy");
@@ -53,40 +56,67 @@ public class AnalyticsService {
         // Generate data points for each month
         for (int i = months - 1; i >= 0; i--) {
             LocalDate monthDate = endDate.minusMonths(i).withDayOfMonth(1);
-            String monthKey = monthDate.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-
-            List<EnergyUsage> monthUsages = byMonth.getOrDefault(monthKey, Collections.emptyList());
-
-            BigDecimal totalEnergy = monthUsages.stream()
-                    .map(EnergyUsage::getTotalKwh)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal aiEnergy = monthUsages.stream()
-                    .map(u -> u.getAiAttributedKwh() != null ? u.getAiAttributedKwh() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal totalCost = monthUsages.stream()
-                    .map(u -> u.getCost() != null ? u.getCost() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            String monthKey = monthDate.format(MONTH_KEY);
 
-            BigDecimal totalCo2e = monthUsages.stream()
-                    .filter(u -> u.getCarbonEmission() != null)
-                    .map(u -> u.getCarbonEmission().getCo2eKg())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal[] sums = byMonth.getOrDefault(monthKey, emptySums());
 
             trends.add(TrendDataPointDTO.builder()
                     .date(monthDate)
                     .period(monthDate.format(displayFormat))
-                    .totalEnergyKwh(totalEnergy)
-                    .aiEnergyKwh(aiEnergy)
-                    .co2eKg(totalCo2e)
-                    .cost(totalCost)
+                    .totalEnergyKwh(sums[0])
+                    .aiEnergyKwh(sums[1])
+                    .co2eKg(sums[3])
+                    .marketCo2eKg(sums[4])
+                    .cost(sums[2])
                     .build());
         }
 
         return trends;
     }
 
+    /**
+     * Monthly sums computed by the database from the denormalized usage columns.
+     */
+    private Map<String, BigDecimal[]> sumByMonth(UUID companyId, LocalDate startDate, LocalDate endDate) {
+        Map<String, BigDecimal[]> byMonth = new HashMap<>();
+        for (Object[] row : energyUsageRepository.sumMonthlyByCompanyAndDateRange(companyId, startDate, endDate)) {
+            String monthKey = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1)
+                    .format(MONTH_KEY);
+            byMonth.put(monthKey, new BigDecimal[] {
+                    nullToZero(row[2]), nullToZero(row[3]), nullToZero(row[4]), nullToZero(row[5]),
+                    nullToZero(row[6]) });
+        }
+        return byMonth;
+    }
+
+    /**
+     * Monthly sums from loaded entities, reading CO₂e through the emission records.
+     */
+    private Map<String, BigDecimal[]> sumByMonthFromEntities(UUID companyId, LocalDate startDate,
+            LocalDate endDate) {
+        Map<String, BigDecimal[]> byMonth = new HashMap<>();
+        for (EnergyUsage u : energyUsageRepository.findByCompanyIdAndUsageDateBetween(companyId, startDate, endDate)) {
+            BigDecimal[] sums = byMonth.computeIfAbsent(u.getUsageDate().format(MONTH_KEY), k -> emptySums());
+            sums[0] = sums[0].add(u.getTotalKwh());
+            sums[1] = sums[1].add(nullToZero(u.getAiAttributedKwh()));
+            sums[2] = sums[2].add(nullToZero(u.getCost()));
+            if (u.getCarbonEmission() != null) {
+                sums[3] = sums[3].add(nullToZero(u.getCarbonEmission().getCo2eKg()));
+                sums[4] = sums[4].add(nullToZero(u.getCarbonEmission().getMarketCo2eKg()));
+            }
+        }
+        return byMonth;
+    }
+
+    private static BigDecimal[] emptySums() {
+        return new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO };
+    }
+
+    private static BigDecimal nullToZero(Object value) {
+        return value != null ? (BigDecimal) value : BigDecimal.ZERO;
+    }
+
     /**
      * Simple linear forecasting for next N months.
      */
@@ -194,8 +224,8 @@ public class AnalyticsService {
                 companyId, lastYearStart, lastYearSamePeriodEnd);
 
         // Calculate changes
-        BigDecimal aiKwhChange = calculatePercentChange(lastYearAiKwh, thisYearAiKwh);
-        BigDecimal totalKwhChange = calculatePercentChange(lastYearTotalKwh, thisYearTotalKwh);
+        BigDecimal aiKwhChange = PercentChange.between(lastYearAiKwh, thisYearAiKwh, 2);
+        BigDecimal totalKwhChange = PercentChange.between(lastYearTotalKwh, thisYearTotalKwh, 2);
 
         Map<String, Object> comparison = new HashMap<>();
         comparison.put("thisYearAiKwh", thisYearAiKwh != null ? thisYearAiKwh : BigDecimal.ZERO);
@@ -208,19 +238,4 @@ public class AnalyticsService {
 
         return comparison;
     }
-
-    private BigDecimal calculatePercentChange(BigDecimal oldValue, BigDecimal newValue) {
-        if (oldValue == null || oldValue.compareTo(BigDecimal.ZERO) == 0) {
-            return newValue != null && newValue.compareTo(BigDecimal.ZERO) > 0
-                    ? new BigDecimal("100")
-                    : BigDecimal.ZERO;
-        }
-        if (newValue == null) {
-            return new BigDecimal("-100");
-        }
-        return newValue.subtract(oldValue)
-                .divide(oldValue, 4, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"))
-                .setScale(2, RoundingMode.HALF_UP);
-    }
 }
@@ -1,22 +1,51 @@
 package com.ecoai.service;
 
+import com.ecoai.dto.AttributionExplanationDTO;
+import com.ecoai.dto.AttributionRuleDTO;
 import com.ecoai.dto.DepartmentBreakdownDTO;
+import com.ecoai.dto.JobStatusDTO;
+import com.ecoai.entity.AttributionRule;
 import com.ecoai.entity.Company;
 import com.ecoai.entity.Department;
+import com.ecoai.entity.EnergyUsage;
+import com.ecoai.repository.AttributionRuleRepository;
+import com.ecoai.repository.CarbonEmissionRepository;
+import com.ecoai.repository.CompanyRepository;
 import com.ecoai.repository.DepartmentRepository;
 import com.ecoai.repository.EnergyUsageRepository;
+import com.ecoai.service.BackgroundJobService.JobProgress;
+import com.ecoai.util.AttributionRuleSet;
+import com.ecoai.util.PercentChange;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * AI Energy Attribution Engine Service.
@@ -25,6 +54,10 @@ import java.util.stream.Collectors;
  * 
  * Formula: AI_kWh = Total_kWh × Company_AI_Percentage × Department_Weight
  * 
+ * Attribution rules can override either factor for records matching tag
+ * conditions (workload type, cluster, product, department, region, hour of
+ * day); the formula above is the default when no rule matches.
+ * 
  * This is transparent, formula-based, and explainable - not guesswork.
  */
 @Service
@@ -35,6 +68,19 @@ public class AttributionEngineService {
 
     private final DepartmentRepository departmentRepository;
     private final EnergyUsageRepository energyUsageRepository;
+    private final CompanyRepository companyRepository;
+    private final CarbonEmissionRepository carbonEmissionRepository;
+    private final CarbonCalculationService carbonCalculationService;
+    private final BackgroundJobService backgroundJobService;
+    private final DataVersionService dataVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final AttributionRuleRepository attributionRuleRepository;
+    private final ObjectMapper objectMapper;
+
+    private static final UUID NO_DEPARTMENT = new UUID(0L, 0L);
+
+    // Enabled rules per company, compiled on first use
+    private final Map<UUID, CompiledRules> compiledRules = new ConcurrentHashMap<>();
 
     /**
      * Calculate AI-attributed energy usage.
@@ -50,17 +96,76 @@ public class AttributionEngineService {
         }
 
         // Company's base AI percentage (e.g., 0.30 = 30%)
-        BigDecimal companyAiPercentage = company.getBaseAiPercentage();
-        if (companyAiPercentage == null) {
-            companyAiPercentage = new BigDecimal("0.30"); // Default 30%
-        }
+        BigDecimal companyAiPercentage = companyAiPercentage(company);
 
         // Department's AI usage weight (e.g., 0.8 for ML team, 0.1 for HR)
-        BigDecimal departmentWeight = BigDecimal.ONE; // Default: 100%
-        if (department != null && department.getAiUsageWeight() != null) {
-            departmentWeight = department.getAiUsageWeight();
+        BigDecimal departmentWeight = departmentWeight(department);
+
+        return attribute(totalKwh, companyAiPercentage, departmentWeight);
+    }
+
+    /**
+     * Attribute a usage record, applying the highest-priority matching
+     * attribution rule of its company. TELEMETRY rows are measured AI energy
+     * and always get share 1 × weight 1. Sets aiAttributedKwh together with the
+     * factors used, so the result can be explained later without recomputing.
+     */
+    public void applyAttribution(EnergyUsage usage) {
+        applyAttribution(usage, rulesFor(usage.getCompany().getId()));
+    }
+
+    /**
+     * Attribute a batch of one company's records against a single compiled rule
+     * set.
+     * 
+     * @return number of records whose value or factors changed
+     */
+    public int attributeAll(UUID companyId, List<EnergyUsage> batch) {
+        CompiledRules rules = rulesFor(companyId);
+        int changed = 0;
+        for (EnergyUsage usage : batch) {
+            if (applyAttribution(usage, rules)) {
+                changed++;
+            }
         }
+        return changed;
+    }
 
+    private boolean applyAttribution(EnergyUsage usage, CompiledRules rules) {
+        if (usage.getTotalKwh() == null || usage.getCompany() == null) {
+            return false;
+        }
+        Company company = usage.getCompany();
+        Department department = usage.getDepartment();
+        // GPU telemetry measures AI energy directly, so it is attributed in full
+        boolean measured = TelemetryService.DATA_SOURCE.equals(usage.getDataSource());
+        int rule = !measured && rules.ruleSet() != null
+                ? rules.ruleSet().match(tags(usage), usage.getUsageHour())
+                : -1;
+
+        BigDecimal share = measured ? BigDecimal.ONE
+                : rule >= 0 && rules.aiShare()[rule] != null ? rules.aiShare()[rule]
+                : companyAiPercentage(company);
+        BigDecimal weight = measured ? BigDecimal.ONE
+                : rule >= 0 && rules.departmentWeight()[rule] != null ? rules.departmentWeight()[rule]
+                : departmentWeight(department);
+        UUID ruleId = rule >= 0 ? rules.ruleIds()[rule] : null;
+        BigDecimal aiKwh = attribute(usage.getTotalKwh(), share, weight);
+
+        if (usage.getAiAttributedKwh() != null && usage.getAiAttributedKwh().compareTo(aiKwh) == 0
+                && usage.getAiShareUsed() != null && usage.getAiShareUsed().compareTo(share) == 0
+                && usage.getDepartmentWeightUsed() != null && usage.getDepartmentWeightUsed().compareTo(weight) == 0
+                && Objects.equals(usage.getAttributionRuleId(), ruleId)) {
+            return false;
+        }
+        usage.setAiAttributedKwh(aiKwh);
+        usage.setAiShareUsed(share);
+        usage.setDepartmentWeightUsed(weight);
+        usage.setAttributionRuleId(ruleId);
+        return true;
+    }
+
+    private BigDecimal attribute(BigDecimal totalKwh, BigDecimal companyAiPercentage, BigDecimal departmentWeight) {
         // Formula: AI_kWh = Total_kWh × Company_AI% × Dept_Weight
         BigDecimal aiKwh = totalKwh
                 .multiply(companyAiPercentage)
@@ -73,39 +178,405 @@ public class AttributionEngineService {
         return aiKwh;
     }
 
+    private String[] tags(EnergyUsage usage) {
+        Department department = usage.getDepartment();
+        String[] values = new String[AttributionRuleSet.Dimension.values().length];
+        values[AttributionRuleSet.Dimension.WORKLOAD_TYPE.ordinal()] = usage.getWorkloadType();
+        values[AttributionRuleSet.Dimension.CLUSTER.ordinal()] = usage.getCluster();
+        values[AttributionRuleSet.Dimension.PRODUCT.ordinal()] = department != null ? department.getProduct() : null;
+        values[AttributionRuleSet.Dimension.DEPARTMENT.ordinal()] = department != null
+                ? department.getId().toString()
+                : null;
+        values[AttributionRuleSet.Dimension.REGION.ordinal()] = usage.getRegion() != null ? usage.getRegion()
+                : usage.getCompany().getRegion();
+        return values;
+    }
+
+    private BigDecimal companyAiPercentage(Company company) {
+        return company.getBaseAiPercentage() != null ? company.getBaseAiPercentage()
+                : new BigDecimal("0.30"); // Default 30%
+    }
+
+    private BigDecimal departmentWeight(Department department) {
+        return department != null && department.getAiUsageWeight() != null ? department.getAiUsageWeight()
+                : BigDecimal.ONE; // Default: 100%
+    }
+
+    /**
+     * Start a background job that re-attributes stored usage after an AI weight
+     * change, cascading to emissions and the denormalized CO₂e on usage rows.
+     * Serialized with the company's other emission rewrites, so a second job
+     * never interleaves its chunks with one that read older weights.
+     *
+     * @param departmentId Department whose weight changed, or null when the
+     *                     company AI percentage changed (every department)
+     */
+    public JobStatusDTO startReattributionJob(UUID companyId, UUID departmentId) {
+        return backgroundJobService.submitSerialized(companyId, "REATTRIBUTION",
+                progress -> reattribute(companyId, departmentId, progress));
+    }
+
     /**
-     * Get attribution breakdown by department.
+     * Re-attribute stored usage with set-based updates.
+     *
+     * Each (department, date chunk) pair is three statements in one transaction:
+     * AI kWh on the usage rows, then the emissions derived from them (keeping the
+     * intensity and market factor they were calculated with), then the CO₂e
+     * copied back onto the usage rows. Each statement skips rows already at the
+     * target value, so only records that depend on the changed weight are written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reattribute(UUID companyId, UUID departmentId, JobProgress progress) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+        BigDecimal companyAiPercentage = companyAiPercentage(company);
+
+        List<Department> departments = new ArrayList<>();
+        if (departmentId != null) {
+            departments.add(departmentRepository.findById(departmentId)
+                    .orElseThrow(() -> new RuntimeException("Department not found: " + departmentId)));
+        } else {
+            departments.addAll(departmentRepository.findByCompanyId(companyId));
+            departments.add(null); // Usage without a department
+        }
+        List<LocalDate[]> chunks = carbonCalculationService.buildDateChunks(companyId);
+        if (rulesFor(companyId).ruleSet() != null) {
+            return reattributeWithRules(companyId, departmentId, chunks, progress);
+        }
+        progress.setTotalSteps(departments.size() * chunks.size());
+        log.info("Re-attributing {} department(s) over {} chunk(s) for company {}", departments.size(),
+                chunks.size(), companyId);
+
+        for (Department department : departments) {
+            UUID key = department != null ? department.getId() : NO_DEPARTMENT;
+            boolean unassigned = department == null;
+            BigDecimal weight = departmentWeight(department);
+            progress.setMessage("Re-attributing " + (department != null ? department.getName() : "unassigned usage"));
+            for (LocalDate[] chunk : chunks) {
+                Integer updated = transactionTemplate.execute(status -> {
+                    int rows = energyUsageRepository.reattributeDepartment(companyId, key, unassigned,
+                            companyAiPercentage, weight, chunk[0], chunk[1]);
+                    if (rows > 0) {
+                        carbonEmissionRepository.reattributeByDepartmentAndDateRange(companyId, key, unassigned,
+                                false, chunk[0], chunk[1]);
+                        energyUsageRepository.syncCarbonForDepartment(companyId, key, unassigned, false,
+                                chunk[0], chunk[1]);
+                    }
+                    return rows;
+                });
+                progress.stepCompleted(updated != null ? updated : 0);
+            }
+        }
+        progress.setMessage(null);
+
+        dataVersionService.bumpAfterCommit(companyId);
+        log.info("Re-attributed {} usage records for company {}", progress.getRowsUpdated(), companyId);
+        return (int) progress.getRowsUpdated();
+    }
+
+    /**
+     * With attribution rules in place the factor is no longer one value per
+     * department, so each chunk's records are re-evaluated in bulk against the
+     * compiled rules; only records whose value changed are flushed, and the
+     * emission cascade is the same set-based pair as the formula path.
+     */
+    private int reattributeWithRules(UUID companyId, UUID departmentId, List<LocalDate[]> chunks,
+            JobProgress progress) {
+        progress.setTotalSteps(chunks.size());
+        progress.setMessage("Re-attributing with attribution rules");
+        UUID key = departmentId != null ? departmentId : NO_DEPARTMENT;
+        for (LocalDate[] chunk : chunks) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<EnergyUsage> batch = energyUsageRepository.findByCompanyIdAndUsageDateBetween(companyId,
+                        chunk[0], chunk[1]);
+                if (departmentId != null) {
+                    batch = batch.stream()
+                            .filter(u -> u.getDepartment() != null && departmentId.equals(u.getDepartment().getId()))
+                            .collect(Collectors.toList());
+                }
+                int rows = attributeAll(companyId, batch);
+                if (rows > 0) {
+                    energyUsageRepository.flush();
+                    carbonEmissionRepository.reattributeByDepartmentAndDateRange(companyId, key, false,
+                            departmentId == null, chunk[0], chunk[1]);
+                    energyUsageRepository.syncCarbonForDepartment(companyId, key, false, departmentId == null,
+                            chunk[0], chunk[1]);
+                }
+                return rows;
+            });
+            progress.stepCompleted(updated != null ? updated : 0);
+        }
+        progress.setMessage(null);
+
+        dataVersionService.bumpAfterCommit(companyId);
+        log.info("Re-attributed {} usage records for company {} using rules", progress.getRowsUpdated(),
+                companyId);
+        return (int) progress.getRowsUpdated();
+    }
+
+    /**
+     * Attribution rules of a company, highest priority first.
+     */
+    @Transactional(readOnly = true)
+    public List<AttributionRuleDTO> getRules(UUID companyId) {
+        return attributionRuleRepository.findByCompanyId(companyId).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Add a rule and re-attribute stored usage under the new rule set.
+     */
+    public AttributionRuleDTO createRule(UUID companyId, AttributionRuleDTO dto) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new RuntimeException("Rule name is required");
+        }
+
+        AttributionRule rule = AttributionRule.builder()
+                .company(company)
+                .name(dto.getName())
+                .priority(dto.getPriority() != null ? dto.getPriority() : 0)
+                .enabled(dto.getEnabled() != null ? dto.getEnabled() : true)
+                .workloadType(dto.getWorkloadType())
+                .cluster(dto.getCluster())
+                .product(dto.getProduct())
+                .department(dto.getDepartmentId() != null ? findDepartment(companyId, dto.getDepartmentId()) : null)
+                .region(dto.getRegion())
+                .hourFrom(dto.getHourFrom())
+                .hourTo(dto.getHourTo())
+                .aiShare(dto.getAiShare())
+                .departmentWeight(dto.getDepartmentWeight())
+                .build();
+        validateRule(rule);
+
+        return saveAndReattribute(companyId, rule);
+    }
+
+    public AttributionRuleDTO updateRule(UUID companyId, UUID ruleId, AttributionRuleDTO dto) {
+        AttributionRule rule = findRule(companyId, ruleId);
+
+        if (dto.getName() != null)
+            rule.setName(dto.getName());
+        if (dto.getPriority() != null)
+            rule.setPriority(dto.getPriority());
+        if (dto.getEnabled() != null)
+            rule.setEnabled(dto.getEnabled());
+        if (dto.getWorkloadType() != null)
+            rule.setWorkloadType(dto.getWorkloadType());
+        if (dto.getCluster() != null)
+            rule.setCluster(dto.getCluster());
+        if (dto.getProduct() != null)
+            rule.setProduct(dto.getProduct());
+        if (dto.getDepartmentId() != null)
+            rule.setDepartment(findDepartment(companyId, dto.getDepartmentId()));
+        if (dto.getRegion() != null)
+            rule.setRegion(dto.getRegion());
+        if (dto.getHourFrom() != null)
+            rule.setHourFrom(dto.getHourFrom());
+        if (dto.getHourTo() != null)
+            rule.setHourTo(dto.getHourTo());
+        if (dto.getAiShare() != null)
+            rule.setAiShare(dto.getAiShare());
+        if (dto.getDepartmentWeight() != null)
+            rule.setDepartmentWeight(dto.getDepartmentWeight());
+        validateRule(rule);
+
+        return saveAndReattribute(companyId, rule);
+    }
+
+    public JobStatusDTO deleteRule(UUID companyId, UUID ruleId) {
+        attributionRuleRepository.delete(findRule(companyId, ruleId));
+        invalidateRules(companyId);
+        return startReattributionJob(companyId, null);
+    }
+
+    private AttributionRuleDTO saveAndReattribute(UUID companyId, AttributionRule rule) {
+        AttributionRule saved = attributionRuleRepository.save(rule);
+        invalidateRules(companyId);
+        AttributionRuleDTO result = mapToDTO(saved);
+        result.setReattributionJobId(startReattributionJob(companyId, null).getId());
+        return result;
+    }
+
+    private void validateRule(AttributionRule rule) {
+        if (rule.getAiShare() == null && rule.getDepartmentWeight() == null) {
+            throw new RuntimeException("A rule needs an aiShare or departmentWeight override");
+        }
+        for (BigDecimal factor : new BigDecimal[] { rule.getAiShare(), rule.getDepartmentWeight() }) {
+            if (factor != null && (factor.signum() < 0 || factor.compareTo(BigDecimal.ONE) > 0)) {
+                throw new RuntimeException("Rule overrides must be between 0 and 1");
+            }
+        }
+        if ((rule.getHourFrom() == null) != (rule.getHourTo() == null)) {
+            throw new RuntimeException("hourFrom and hourTo must be set together");
+        }
+        if (rule.getHourFrom() != null && (rule.getHourFrom() < 0 || rule.getHourFrom() > 23
+                || rule.getHourTo() < 0 || rule.getHourTo() > 24 || rule.getHourFrom().equals(rule.getHourTo()))) {
+            throw new RuntimeException("Hour window must be hourFrom 0-23 and hourTo 0-24, not equal");
+        }
+    }
+
+    private AttributionRule findRule(UUID companyId, UUID ruleId) {
+        return attributionRuleRepository.findById(ruleId)
+                .filter(r -> r.getCompany().getId().equals(companyId))
+                .orElseThrow(() -> new RuntimeException("Attribution rule not found: " + ruleId));
+    }
+
+    private Department findDepartment(UUID companyId, UUID departmentId) {
+        return departmentRepository.findById(departmentId)
+                .filter(d -> d.getCompany().getId().equals(companyId))
+                .orElseThrow(() -> new RuntimeException("Department not found: " + departmentId));
+    }
+
+    private CompiledRules rulesFor(UUID companyId) {
+        return compiledRules.computeIfAbsent(companyId, this::compileRules);
+    }
+
+    private CompiledRules compileRules(UUID companyId) {
+        List<AttributionRule> rules = attributionRuleRepository.findEnabledByCompanyId(companyId);
+        if (rules.isEmpty()) {
+            return new CompiledRules(null, null, null, null);
+        }
+        List<AttributionRuleSet.Rule> specs = new ArrayList<>(rules.size());
+        BigDecimal[] aiShare = new BigDecimal[rules.size()];
+        BigDecimal[] departmentWeight = new BigDecimal[rules.size()];
+        UUID[] ruleIds = new UUID[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            AttributionRule rule = rules.get(i);
+            String[] values = new String[AttributionRuleSet.Dimension.values().length];
+            values[AttributionRuleSet.Dimension.WORKLOAD_TYPE.ordinal()] = rule.getWorkloadType();
+            values[AttributionRuleSet.Dimension.CLUSTER.ordinal()] = rule.getCluster();
+            values[AttributionRuleSet.Dimension.PRODUCT.ordinal()] = rule.getProduct();
+            values[AttributionRuleSet.Dimension.DEPARTMENT.ordinal()] = rule.getDepartment() != null
+                    ? rule.getDepartment().getId().toString()
+                    : null;
+            values[AttributionRuleSet.Dimension.REGION.ordinal()] = rule.getRegion();
+            specs.add(new AttributionRuleSet.Rule(rule.getPriority(), values,
+                    rule.getHourFrom() != null ? rule.getHourFrom() : -1,
+                    rule.getHourTo() != null ? rule.getHourTo() : -1));
+            aiShare[i] = rule.getAiShare();
+            departmentWeight[i] = rule.getDepartmentWeight();
+            ruleIds[i] = rule.getId();
+        }
+        log.debug("Compiled {} attribution rules for company {}", rules.size(), companyId);
+        return new CompiledRules(AttributionRuleSet.compile(specs), aiShare, departmentWeight, ruleIds);
+    }
+
+    /**
+     * Drop the compiled rules now and again after commit, so a compile racing the
+     * transaction cannot keep the old rule set.
+     */
+    private void invalidateRules(UUID companyId) {
+        compiledRules.remove(companyId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    compiledRules.remove(companyId);
+                }
+            });
+        }
+    }
+
+    private AttributionRuleDTO mapToDTO(AttributionRule rule) {
+        return AttributionRuleDTO.builder()
+                .id(rule.getId())
+                .companyId(rule.getCompany().getId())
+                .name(rule.getName())
+                .priority(rule.getPriority())
+                .enabled(rule.getEnabled())
+                .workloadType(rule.getWorkloadType())
+                .cluster(rule.getCluster())
+                .product(rule.getProduct())
+                .departmentId(rule.getDepartment() != null ? rule.getDepartment().getId() : null)
+                .departmentName(rule.getDepartment() != null ? rule.getDepartment().getName() : null)
+                .region(rule.getRegion())
+                .hourFrom(rule.getHourFrom())
+                .hourTo(rule.getHourTo())
+                .aiShare(rule.getAiShare())
+                .departmentWeight(rule.getDepartmentWeight())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Rule set plus per-rule overrides, indexed like the compiled rule list.
+     */
+    private record CompiledRules(AttributionRuleSet ruleSet, BigDecimal[] aiShare, BigDecimal[] departmentWeight,
+            UUID[] ruleIds) {
+    }
+
+    /**
+     * Get attribution breakdown by department over the company's whole history.
      */
     @Transactional(readOnly = true)
     public List<DepartmentBreakdownDTO> getAttributionByDepartment(UUID companyId) {
+        return getAttributionByDepartment(companyId, null, null);
+    }
+
+    /**
+     * Get attribution breakdown by department for a date range, with deltas
+     * against the equally long period right before it. A missing start or end
+     * defaults to the first or last recorded usage date.
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentBreakdownDTO> getAttributionByDepartment(UUID companyId, LocalDate startDate,
+            LocalDate endDate) {
         List<Department> departments = departmentRepository.findByCompanyId(companyId);
-        List<Object[]> aiKwhByDept = energyUsageRepository.sumAiKwhByDepartment(companyId);
+        LocalDate start = startDate != null ? startDate : energyUsageRepository.findMinUsageDate(companyId);
+        LocalDate end = endDate != null ? endDate : energyUsageRepository.findMaxUsageDate(companyId);
+        if (start == null || end == null) {
+            start = end = LocalDate.now();
+        }
+        if (end.isBefore(start)) {
+            throw new RuntimeException("endDate must not be before startDate");
+        }
 
-        // Map department ID to AI kWh
-        Map<UUID, BigDecimal> deptAiKwh = aiKwhByDept.stream()
-                .collect(Collectors.toMap(
-                        row -> (UUID) row[0],
-                        row -> row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO));
+        Map<UUID, BigDecimal[]> current = sumByDepartment(companyId, start, end);
+        boolean compare = startDate != null;
+        LocalDate previousEnd = start.minusDays(1);
+        LocalDate previousStart = previousEnd.minusDays(ChronoUnit.DAYS.between(start, end));
+        Map<UUID, BigDecimal[]> previous = compare ? sumByDepartment(companyId, previousStart, previousEnd)
+                : Map.of();
 
         // Calculate total AI kWh for percentage calculation
-        BigDecimal totalAiKwh = deptAiKwh.values().stream()
+        BigDecimal totalAiKwh = current.values().stream()
+                .map(sums -> sums[0])
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
+        BigDecimal[] none = { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO };
         List<DepartmentBreakdownDTO> breakdown = new ArrayList<>();
         for (Department dept : departments) {
-            BigDecimal aiKwh = deptAiKwh.getOrDefault(dept.getId(), BigDecimal.ZERO);
+            BigDecimal[] sums = current.getOrDefault(dept.getId(), none);
+            BigDecimal aiKwh = sums[0];
             BigDecimal percentage = totalAiKwh.compareTo(BigDecimal.ZERO) > 0
                     ? aiKwh.divide(totalAiKwh, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
                     : BigDecimal.ZERO;
 
-            breakdown.add(DepartmentBreakdownDTO.builder()
+            DepartmentBreakdownDTO dto = DepartmentBreakdownDTO.builder()
                     .departmentId(dept.getId())
                     .departmentName(dept.getName())
                     .team(dept.getTeam())
                     .aiEnergyKwh(aiKwh)
+                    .co2eKg(sums[1])
+                    .cost(sums[2])
                     .percentage(percentage)
                     .aiUsageWeight(dept.getAiUsageWeight())
-                    .build());
+                    .startDate(start)
+                    .endDate(end)
+                    .build();
+            if (compare) {
+                BigDecimal[] before = previous.getOrDefault(dept.getId(), none);
+                dto.setPreviousAiEnergyKwh(before[0]);
+                dto.setPreviousCo2eKg(before[1]);
+                dto.setPreviousCost(before[2]);
+                dto.setEnergyChangePercent(PercentChange.between(before[0], sums[0], 1));
+                dto.setCarbonChangePercent(PercentChange.between(before[1], sums[1], 1));
+                dto.setCostChangePercent(PercentChange.between(before[2], sums[2], 1));
+            }
+            breakdown.add(dto);
         }
 
         // Sort by AI energy descending
@@ -114,6 +585,99 @@ public class AttributionEngineService {
         return breakdown;
     }
 
+    private Map<UUID, BigDecimal[]> sumByDepartment(UUID companyId, LocalDate start, LocalDate end) {
+        Map<UUID, BigDecimal[]> sums = new HashMap<>();
+        for (Object[] row : energyUsageRepository.sumByDepartmentAndDateRange(companyId, start, end)) {
+            sums.put((UUID) row[0], new BigDecimal[] {
+                    row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO,
+                    row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO,
+                    row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO });
+        }
+        return sums;
+    }
+
+    /**
+     * Write one JSON explanation per usage record in the range (NDJSON), read
+     * from the factors stored at calculation time; nothing is recomputed.
+     * 
+     * @return number of records written
+     */
+    @Transactional(readOnly = true)
+    public long streamExplanations(UUID companyId, LocalDate startDate, LocalDate endDate, OutputStream out)
+            throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<Object[]> rows = energyUsageRepository.streamAttributionFactors(companyId, startDate, endDate);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                writer.writeValue(generator, mapToExplanation(row));
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        log.debug("Streamed {} attribution explanations for company {}", count, companyId);
+        return count;
+    }
+
+    /**
+     * Fill the stored attribution factors for rows written before they existed,
+     * and re-attribute telemetry rollups that were stored with the estimated
+     * company and department factors.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillAttributionFactors() {
+        int updated = energyUsageRepository.backfillAttributionFactors();
+        if (updated > 0) {
+            log.info("Backfilled attribution factors on {} energy usage rows", updated);
+        }
+        List<EnergyUsage> telemetry = energyUsageRepository.findNotFullyAttributed(TelemetryService.DATA_SOURCE);
+        if (telemetry.isEmpty()) {
+            return;
+        }
+        for (EnergyUsage usage : telemetry) {
+            applyAttribution(usage);
+        }
+        for (EnergyUsage saved : energyUsageRepository.saveAll(telemetry)) {
+            carbonCalculationService.calculateAndSaveEmission(saved);
+        }
+        telemetry.stream().map(usage -> usage.getCompany().getId()).distinct()
+                .forEach(dataVersionService::bumpAfterCommit);
+        log.info("Re-attributed {} telemetry usage rows in full", telemetry.size());
+    }
+
+    private AttributionExplanationDTO mapToExplanation(Object[] row) {
+        BigDecimal totalKwh = (BigDecimal) row[7];
+        BigDecimal aiShare = (BigDecimal) row[8];
+        BigDecimal weight = (BigDecimal) row[9];
+        BigDecimal aiKwh = (BigDecimal) row[12];
+        return AttributionExplanationDTO.builder()
+                .energyUsageId((UUID) row[0])
+                .usageDate((LocalDate) row[1])
+                .usageHour((Integer) row[2])
+                .departmentName((String) row[3])
+                .region((String) row[4])
+                .workloadType((String) row[5])
+                .cluster((String) row[6])
+                .totalKwh(totalKwh)
+                .aiShare(aiShare)
+                .departmentWeight(weight)
+                .attributionRuleId((UUID) row[10])
+                .attributionRuleName((String) row[11])
+                .aiAttributedKwh(aiKwh)
+                .formula(aiShare != null && weight != null
+                        ? totalKwh.toPlainString() + " × " + aiShare.toPlainString() + " × "
+                                + weight.toPlainString() + " = " + aiKwh.toPlainString()
+                        : null)
+                .carbonIntensityUsed((BigDecimal) row[13])
+                .co2eKg((BigDecimal) row[14])
+                .marketFactorUsed((BigDecimal) row[15])
+                .marketBasis((String) row[16])
+                .marketCo2eKg((BigDecimal) row[17])
+                .build();
+    }
+
     /**
      * Explain the attribution calculation for a specific record.
      */
@@ -0,0 +1,209 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.JobStatusDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs long-running jobs on the background executor and tracks their progress.
+ * 
+ * Jobs submitted from inside a transaction are started only after that
+ * transaction commits, so they always see the data that triggered them.
+ * Serialized jobs of one company run one after another in submission order.
+ */
+@Service
+@Slf4j
+public class BackgroundJobService {
+
+    private static final int MAX_RETAINED_JOBS = 200;
+
+    private final TaskExecutor jobExecutor;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Void>> serializedTails = new ConcurrentHashMap<>();
+
+    public BackgroundJobService(@Qualifier("jobExecutor") TaskExecutor jobExecutor) {
+        this.jobExecutor = jobExecutor;
+    }
+
+    /**
+     * Submit a job for background execution.
+     */
+    public JobStatusDTO submit(UUID companyId, String jobType, JobTask task) {
+        return submit(companyId, jobType, task, false);
+    }
+
+    /**
+     * Submit a job that must not overlap the company's other serialized jobs,
+     * e.g. two rewrites of the same stored emissions. It stays QUEUED until the
+     * previous one has finished, without holding an executor thread meanwhile.
+     */
+    public JobStatusDTO submitSerialized(UUID companyId, String jobType, JobTask task) {
+        return submit(companyId, jobType, task, true);
+    }
+
+    private JobStatusDTO submit(UUID companyId, String jobType, JobTask task, boolean serialized) {
+        Job job = new Job(UUID.randomUUID(), companyId, jobType);
+        jobs.put(job.id, job);
+        evictFinishedJobs();
+
+        Runnable start = serialized
+                ? () -> serializedTails.compute(companyId, (id, tail) ->
+                        (tail != null ? tail : CompletableFuture.<Void>completedFuture(null))
+                                .thenRunAsync(() -> run(job, task), jobExecutor))
+                : () -> jobExecutor.execute(() -> run(job, task));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    start.run();
+                }
+            });
+        } else {
+            start.run();
+        }
+
+        log.info("Submitted {} job {} for company {}", jobType, job.id, companyId);
+        return job.toDTO();
+    }
+
+    /**
+     * Get the current status of a job.
+     */
+    public JobStatusDTO getJob(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Job not found: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Get all retained jobs for a company, newest first.
+     */
+    public List<JobStatusDTO> getJobsForCompany(UUID companyId) {
+        return jobs.values().stream()
+                .filter(j -> companyId.equals(j.companyId))
+                .sorted(Comparator.comparing((Job j) -> j.submittedAt).reversed())
+                .map(Job::toDTO)
+                .toList();
+    }
+
+    private void run(Job job, JobTask task) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try {
+            task.run(job.progress);
+            job.status = "COMPLETED";
+            log.info("{} job {} completed: {} rows updated", job.jobType, job.id, job.progress.rowsUpdated.get());
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.progress.message = e.getMessage();
+            log.error("{} job {} failed", job.jobType, job.id, e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void evictFinishedJobs() {
+        if (jobs.size() <= MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(j -> j.finishedAt != null)
+                .sorted(Comparator.comparing((Job j) -> j.finishedAt))
+                .limit(jobs.size() - MAX_RETAINED_JOBS)
+                .forEach(j -> jobs.remove(j.id));
+    }
+
+    /**
+     * Unit of background work. Reports progress through the supplied handle.
+     */
+    @FunctionalInterface
+    public interface JobTask {
+        void run(JobProgress progress) throws Exception;
+    }
+
+    /**
+     * Progress handle passed to a running job.
+     */
+    public static class JobProgress {
+        private final AtomicInteger totalSteps = new AtomicInteger();
+        private final AtomicInteger completedSteps = new AtomicInteger();
+        private final AtomicLong rowsUpdated = new AtomicLong();
+        private volatile String message;
+
+        public void setTotalSteps(int steps) {
+            totalSteps.set(steps);
+        }
+
+        public void stepCompleted(long rows) {
+            completedSteps.incrementAndGet();
+            rowsUpdated.addAndGet(rows);
+        }
+
+        public void addRows(long rows) {
+            rowsUpdated.addAndGet(rows);
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public long getRowsUpdated() {
+            return rowsUpdated.get();
+        }
+    }
+
+    private static class Job {
+        private final UUID id;
+        private final UUID companyId;
+        private final String jobType;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final JobProgress progress = new JobProgress();
+        private volatile String status = "QUEUED";
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(UUID id, UUID companyId, String jobType) {
+            this.id = id;
+            this.companyId = companyId;
+            this.jobType = jobType;
+        }
+
+        private JobStatusDTO toDTO() {
+            int total = progress.totalSteps.get();
+            int completed = progress.completedSteps.get();
+            int percent = "COMPLETED".equals(status) ? 100
+                    : total > 0 ? (int) Math.min(99, completed * 100L / total) : 0;
+
+            return JobStatusDTO.builder()
+                    .id(id)
+                    .companyId(companyId)
+                    .jobType(jobType)
+                    .status(status)
+                    .totalSteps(total)
+                    .completedSteps(completed)
+                    .rowsUpdated(progress.rowsUpdated.get())
+                    .percentComplete(percent)
+                    .message(progress.message)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecoai.service;
 
 import com.ecoai.dto.CarbonConfigDTO;
+import com.ecoai.dto.JobStatusDTO;
 import com.ecoai.entity.CarbonConfig;
 import com.ecoai.entity.CarbonEmission;
 import com.ecoai.entity.Company;
@@ -8,16 +9,30 @@ import com.ecoai.entity.EnergyUsage;
 import com.ecoai.repository.CarbonConfigRepository;
 import com.ecoai.repository.CarbonEmissionRepository;
 import com.ecoai.repository.CompanyRepository;
+import com.ecoai.repository.EnergyUsageRepository;
+import com.ecoai.service.BackgroundJobService.JobProgress;
 import com.ecoai.util.CarbonIntensityDefaults;
+import com.ecoai.util.IntensityTimeSeries;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,6 +43,8 @@ import java.util.stream.Collectors;
  * Formula: CO2e_grams = AI_kWh × Carbon_Intensity_Factor
  * 
  * Region-based carbon intensities allow accurate ESG reporting.
+ * Both Scope 2 figures are produced in the same pass: location-based (grid
+ * intensity) and market-based (contractual instruments, see MarketInstrumentService).
  */
 @Service
 @RequiredArgsConstructor
@@ -38,6 +55,23 @@ public class CarbonCalculationService {
     private final CarbonConfigRepository carbonConfigRepository;
     private final CarbonEmissionRepository carbonEmissionRepository;
     private final CompanyRepository companyRepository;
+    private final EnergyUsageRepository energyUsageRepository;
+    private final BackgroundJobService backgroundJobService;
+    private final DataVersionService dataVersionService;
+    private final CarbonIntensitySeriesService intensitySeriesService;
+    private final MarketInstrumentService marketInstrumentService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_BATCH_CONFLICTS = 3;
+
+    @Value("${app.carbon.denormalized-aggregates:true}")
+    private boolean denormalizedAggregates;
+
+    @Value("${app.carbon.recalculation.chunk-days:90}")
+    private int recalculationChunkDays;
+
+    @Value("${app.carbon.recalculation.batch-size:500}")
+    private int recalculationBatchSize;
 
     /**
      * Calculate and save carbon emission for an energy usage record.
@@ -52,8 +86,8 @@ public class CarbonCalculationService {
                 ? energyUsage.getRegion()
                 : energyUsage.getCompany().getRegion();
 
-        BigDecimal carbonIntensity = getEffectiveCarbonIntensity(
-                energyUsage.getCompany().getId(), region);
+        BigDecimal carbonIntensity = getCarbonIntensityForHour(
+                energyUsage.getCompany().getId(), region, energyUsage.getUsageDate(), energyUsage.getUsageHour());
 
         // Calculate CO2e: AI_kWh × carbonIntensity (gCO2/kWh)
         BigDecimal co2eGrams = energyUsage.getAiAttributedKwh()
@@ -62,15 +96,71 @@ public class CarbonCalculationService {
 
         BigDecimal co2eKg = co2eGrams.divide(new BigDecimal("1000"), 4, RoundingMode.HALF_UP);
 
-        CarbonEmission emission = CarbonEmission.builder()
-                .energyUsage(energyUsage)
-                .co2eGrams(co2eGrams)
-                .co2eKg(co2eKg)
-                .carbonIntensityUsed(carbonIntensity)
-                .regionUsed(region)
-                .build();
+        // Market-based: same AI kWh × contractual factor
+        MarketInstrumentService.MarketFactor marketFactor = marketInstrumentService.resolveFactor(
+                energyUsage.getCompany().getId(), region, energyUsage.getUsageDate(), carbonIntensity);
+        BigDecimal marketCo2eKg = energyUsage.getAiAttributedKwh()
+                .multiply(marketFactor.factor())
+                .divide(new BigDecimal("1000"), 4, RoundingMode.HALF_UP);
+
+        // Recalculating a record (e.g. a telemetry rollup adding to it) updates its emission in place
+        CarbonEmission emission = energyUsage.getCarbonEmission() != null
+                ? energyUsage.getCarbonEmission()
+                : CarbonEmission.builder().energyUsage(energyUsage).build();
+        emission.setCo2eGrams(co2eGrams);
+        emission.setCo2eKg(co2eKg);
+        emission.setCarbonIntensityUsed(carbonIntensity);
+        emission.setRegionUsed(region);
+        emission.setMarketCo2eKg(marketCo2eKg);
+        emission.setMarketFactorUsed(marketFactor.factor());
+        emission.setMarketBasis(marketFactor.basis());
+        emission.setCalculatedAt(LocalDateTime.now());
+
+        // Denormalized copy for join-free aggregation; the emission is persisted via cascade
+        energyUsage.setCo2eKg(co2eKg);
+        energyUsage.setCarbonIntensityUsed(carbonIntensity);
+        energyUsage.setMarketCo2eKg(marketCo2eKg);
+        energyUsage.setCarbonEmission(emission);
+
+        return energyUsageRepository.save(energyUsage).getCarbonEmission();
+    }
 
-        return carbonEmissionRepository.save(emission);
+    /**
+     * Total CO₂e (kg) for a company over a date range.
+     * Reads the denormalized column on energy_usage unless disabled.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal sumCo2eKg(UUID companyId, LocalDate startDate, LocalDate endDate) {
+        return denormalizedAggregates
+                ? energyUsageRepository.sumCo2eKgByCompanyAndDateRange(companyId, startDate, endDate)
+                : carbonEmissionRepository.sumCo2eKgByCompanyAndDateRange(companyId, startDate, endDate);
+    }
+
+    /**
+     * Location-based and market-based CO₂e (kg) for a company over a date range,
+     * summed in a single query.
+     */
+    @Transactional(readOnly = true)
+    public Scope2Totals sumScope2(UUID companyId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = denormalizedAggregates
+                ? energyUsageRepository.sumScope2ByCompanyAndDateRange(companyId, startDate, endDate)
+                : carbonEmissionRepository.sumScope2ByCompanyAndDateRange(companyId, startDate, endDate);
+        Object[] row = rows.isEmpty() ? new Object[2] : rows.get(0);
+        return new Scope2Totals(
+                row[0] != null ? (BigDecimal) row[0] : BigDecimal.ZERO,
+                row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO);
+    }
+
+    /**
+     * Fill the denormalized CO₂e columns for rows written before they existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDenormalizedCarbon() {
+        carbonEmissionRepository.backfillMarketFromLocation();
+        int updated = energyUsageRepository.backfillCarbonFromEmissions();
+        if (updated > 0) {
+            log.info("Backfilled denormalized CO2e on {} energy usage rows", updated);
+        }
     }
 
     /**
@@ -84,6 +174,40 @@ public class CarbonCalculationService {
                 .orElseGet(() -> CarbonIntensityDefaults.getIntensity(region));
     }
 
+    /**
+     * Get carbon intensity for a region on a given day.
+     * Uses the mean of the hourly series when one covers that day, otherwise the flat factor.
+     */
+    public BigDecimal getCarbonIntensityForDate(UUID companyId, String region, LocalDate date) {
+        if (date != null) {
+            Optional<IntensityTimeSeries> series = intensitySeriesService.getSeries(companyId, region);
+            if (series.isPresent()) {
+                double dailyMean = series.get().dailyMean(date);
+                if (!Double.isNaN(dailyMean)) {
+                    return BigDecimal.valueOf(dailyMean).setScale(4, RoundingMode.HALF_UP);
+                }
+            }
+        }
+        return getEffectiveCarbonIntensity(companyId, region);
+    }
+
+    /**
+     * Get carbon intensity for one UTC hour of a day, or for the whole day when
+     * hour is null. Hours the series does not cover fall back to the day.
+     */
+    public BigDecimal getCarbonIntensityForHour(UUID companyId, String region, LocalDate date, Integer hour) {
+        if (date != null && hour != null) {
+            Optional<IntensityTimeSeries> series = intensitySeriesService.getSeries(companyId, region);
+            if (series.isPresent()) {
+                double hourly = series.get().intensityAtEpochHour(date.toEpochDay() * 24 + hour);
+                if (!Double.isNaN(hourly)) {
+                    return BigDecimal.valueOf(hourly).setScale(4, RoundingMode.HALF_UP);
+                }
+            }
+        }
+        return getCarbonIntensityForDate(companyId, region, date);
+    }
+
     /**
      * Configure custom carbon intensity for a company and region.
      */
@@ -99,8 +223,14 @@ public class CarbonCalculationService {
 
         config.setCarbonIntensity(intensity);
         CarbonConfig saved = carbonConfigRepository.save(config);
+        dataVersionService.bumpAfterCommit(companyId);
+
+        // Historical emissions for this region are now stale - recalculate in the background
+        JobStatusDTO job = startRecalculationJob(companyId, region);
 
-        return mapToDTO(saved, false);
+        CarbonConfigDTO dto = mapToDTO(saved, false);
+        dto.setRecalculationJobId(job.getId());
+        return dto;
     }
 
     /**
@@ -131,14 +261,174 @@ public class CarbonCalculationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Start a background job that recalculates stored emissions for a company.
+     * Runs after any earlier emission rewrite of the company has finished, so two
+     * jobs never apply factors to the same rows concurrently.
+     * 
+     * @param region Region to recalculate, or null for every region the company has emissions in
+     */
+    public JobStatusDTO startRecalculationJob(UUID companyId, String region) {
+        return backgroundJobService.submitSerialized(companyId, "EMISSION_RECALCULATION",
+                progress -> recalculateEmissions(companyId, region, progress));
+    }
+
     /**
      * Recalculate all carbon emissions for a company (useful after config changes).
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int recalculateEmissions(UUID companyId) {
-        // This would be implemented to recalculate all emissions
-        // after a carbon intensity configuration change
-        log.info("Recalculating emissions for company: {}", companyId);
-        return 0; // Return count of updated records
+        return recalculateEmissions(companyId, null, new JobProgress());
+    }
+
+    /**
+     * Recalculate stored emissions with set-based updates.
+     * 
+     * History is split into date chunks; each (region, chunk) pair is one UPDATE
+     * statement in its own transaction, so progress is visible and no single
+     * transaction holds locks on the whole table. Usage rows that have no emission
+     * record yet, and hourly rows of a region with an hourly series, are the only
+     * ones processed row by row.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int recalculateEmissions(UUID companyId, String region, JobProgress progress) {
+        log.info("Recalculating emissions for company: {} (region: {})", companyId,
+                region != null ? region : "ALL");
+
+        List<String> regions = region != null
+                ? List.of(region)
+                : carbonEmissionRepository.findDistinctRegionsByCompanyId(companyId);
+        List<LocalDate[]> chunks = buildDateChunks(companyId);
+
+        progress.setTotalSteps(regions.size() * chunks.size() + 1);
+
+        for (String r : regions) {
+            BigDecimal flatIntensity = getEffectiveCarbonIntensity(companyId, r);
+            Optional<IntensityTimeSeries> series = intensitySeriesService.getSeries(companyId, r);
+            for (LocalDate[] chunk : chunks) {
+                List<FactorSegment> segments = buildFactorSegments(companyId, r, chunk[0], chunk[1],
+                        flatIntensity, series);
+                Integer updated = transactionTemplate.execute(status -> {
+                    int rows = segments.stream()
+                            .mapToInt(seg -> carbonEmissionRepository.recalculateByCompanyRegionAndDateRange(
+                                    companyId, r, seg.intensity(), seg.marketFactor(), seg.marketBasis(),
+                                    seg.startDate(), seg.endDate(), series.isEmpty()))
+                            .sum();
+                    if (series.isPresent()) {
+                        // Hourly rows take the intensity of their own hour, not the daily mean
+                        List<EnergyUsage> hourly = energyUsageRepository.findHourlyByCompanyRegionAndDateRange(
+                                companyId, r, chunk[0], chunk[1]);
+                        hourly.forEach(this::calculateAndSaveEmission);
+                        rows += hourly.size();
+                    }
+                    energyUsageRepository.syncCarbonFromEmissions(companyId, r, chunk[0], chunk[1]);
+                    return rows;
+                });
+                progress.stepCompleted(updated != null ? updated : 0);
+            }
+        }
+
+        // Fallback: usage rows that never got an emission record
+        progress.stepCompleted(calculateMissingEmissions(companyId));
+
+        dataVersionService.bumpAfterCommit(companyId);
+        log.info("Recalculated {} emission records for company {}", progress.getRowsUpdated(), companyId);
+        return (int) progress.getRowsUpdated();
+    }
+
+    /**
+     * The company's usage history split into windows of the configured chunk size.
+     */
+    List<LocalDate[]> buildDateChunks(UUID companyId) {
+        List<LocalDate[]> chunks = new ArrayList<>();
+        LocalDate minDate = energyUsageRepository.findMinUsageDate(companyId);
+        LocalDate maxDate = energyUsageRepository.findMaxUsageDate(companyId);
+        if (minDate == null || maxDate == null) {
+            return chunks;
+        }
+
+        LocalDate chunkStart = minDate;
+        while (!chunkStart.isAfter(maxDate)) {
+            LocalDate chunkEnd = chunkStart.plusDays(recalculationChunkDays - 1L);
+            if (chunkEnd.isAfter(maxDate)) {
+                chunkEnd = maxDate;
+            }
+            chunks.add(new LocalDate[] { chunkStart, chunkEnd });
+            chunkStart = chunkEnd.plusDays(1);
+        }
+        return chunks;
+    }
+
+    /**
+     * Split a date chunk into runs of days that share the same location-based
+     * intensity and market-based factor. Days covered by an hourly series use its
+     * daily mean; market factors change at instrument validity boundaries.
+     * In the common case (no series, no dated instruments) this is one run.
+     */
+    private List<FactorSegment> buildFactorSegments(UUID companyId, String region, LocalDate start,
+            LocalDate end, BigDecimal flatIntensity, Optional<IntensityTimeSeries> series) {
+        List<FactorSegment> segments = new ArrayList<>();
+        FactorSegment run = null;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            double mean = series.isPresent() ? series.get().dailyMean(day) : Double.NaN;
+            BigDecimal intensity = Double.isNaN(mean)
+                    ? flatIntensity
+                    : BigDecimal.valueOf(mean).setScale(4, RoundingMode.HALF_UP);
+            MarketInstrumentService.MarketFactor market = marketInstrumentService.resolveFactor(
+                    companyId, region, day, intensity);
+
+            if (run != null && run.intensity().compareTo(intensity) == 0
+                    && run.marketFactor().compareTo(market.factor()) == 0
+                    && run.marketBasis().equals(market.basis())) {
+                run = new FactorSegment(run.startDate(), day, intensity, market.factor(), market.basis());
+            } else {
+                if (run != null) {
+                    segments.add(run);
+                }
+                run = new FactorSegment(day, day, intensity, market.factor(), market.basis());
+            }
+        }
+        if (run != null) {
+            segments.add(run);
+        }
+        return segments;
+    }
+
+    private record FactorSegment(LocalDate startDate, LocalDate endDate, BigDecimal intensity,
+            BigDecimal marketFactor, String marketBasis) {
+    }
+
+    /**
+     * Location-based and market-based Scope 2 totals in kg CO₂e.
+     */
+    public record Scope2Totals(BigDecimal locationBasedKg, BigDecimal marketBasedKg) {
+    }
+
+    private int calculateMissingEmissions(UUID companyId) {
+        int total = 0;
+        int conflicts = 0;
+        while (true) {
+            Integer created;
+            try {
+                created = transactionTemplate.execute(status -> {
+                    List<EnergyUsage> batch = energyUsageRepository.findWithoutEmission(
+                            companyId, PageRequest.of(0, recalculationBatchSize));
+                    batch.forEach(this::calculateAndSaveEmission);
+                    return batch.size();
+                });
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent ingestion created some of these emissions first - re-query and retry
+                if (++conflicts > MAX_BATCH_CONFLICTS) {
+                    throw e;
+                }
+                log.debug("Emission batch conflicted with concurrent ingestion, retrying");
+                continue;
+            }
+            if (created == null || created == 0) {
+                return total;
+            }
+            total += created;
+        }
     }
 
     private CarbonConfigDTO mapToDTO(CarbonConfig config, boolean isDefault) {
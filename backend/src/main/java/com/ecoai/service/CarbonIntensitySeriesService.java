@@ -0,0 +1,201 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.IntensitySeriesDTO;
+import com.ecoai.entity.CarbonIntensityInterval;
+import com.ecoai.entity.Company;
+import com.ecoai.repository.CarbonIntensityIntervalRepository;
+import com.ecoai.repository.CompanyRepository;
+import com.ecoai.util.IntensityTimeSeries;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Hourly Carbon Intensity Series Service.
+ * 
+ * Stores time-resolved grid intensity per region and serves lookups from an
+ * in-memory array-indexed series, loaded once per (company, region) and
+ * invalidated whenever the region is re-imported.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class CarbonIntensitySeriesService {
+
+    private static final int SAVE_BATCH_SIZE = 1000;
+
+    private final CarbonIntensityIntervalRepository intervalRepository;
+    private final CompanyRepository companyRepository;
+
+    private final Map<String, Optional<IntensityTimeSeries>> seriesCache = new ConcurrentHashMap<>();
+
+    @Value("${app.carbon.intensity-series.max-years:10}")
+    private int maxSeriesYears;
+
+    /**
+     * Import an hourly intensity series from CSV.
+     * Expected CSV format: timestamp,carbonIntensity (timestamp in UTC unless it has an offset)
+     * Existing points in the imported time span are replaced. Imports that would
+     * stretch the stored series beyond the configured number of years are rejected.
+     */
+    public IntensitySeriesDTO importFromCsv(UUID companyId, String region, MultipartFile file)
+            throws IOException, CsvValidationException {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+
+        List<CarbonIntensityInterval> points = new ArrayList<>();
+        LocalDateTime minStart = null;
+        LocalDateTime maxStart = null;
+
+        try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
+            reader.skip(1); // Header row
+            String[] row;
+            int line = 1;
+            while ((row = reader.readNext()) != null) {
+                line++;
+                if (row.length < 2)
+                    continue;
+
+                try {
+                    LocalDateTime start = IntensityTimeSeries.parseUtc(row[0].trim()).truncatedTo(ChronoUnit.HOURS);
+                    BigDecimal intensity = new BigDecimal(row[1].trim());
+
+                    points.add(CarbonIntensityInterval.builder()
+                            .company(company)
+                            .region(region)
+                            .intervalStart(start)
+                            .carbonIntensity(intensity)
+                            .build());
+
+                    minStart = minStart == null || start.isBefore(minStart) ? start : minStart;
+                    maxStart = maxStart == null || start.isAfter(maxStart) ? start : maxStart;
+                } catch (Exception e) {
+                    log.warn("Error parsing intensity row {}: {}", line, e.getMessage());
+                }
+            }
+        }
+
+        if (points.isEmpty()) {
+            throw new RuntimeException("No valid intensity rows found in file");
+        }
+
+        Object[] stored = intervalRepository.findSpan(companyId, region).get(0);
+        LocalDateTime first = stored[0] != null && ((LocalDateTime) stored[0]).isBefore(minStart)
+                ? (LocalDateTime) stored[0] : minStart;
+        LocalDateTime last = stored[1] != null && ((LocalDateTime) stored[1]).isAfter(maxStart)
+                ? (LocalDateTime) stored[1] : maxStart;
+        if (ChronoUnit.HOURS.between(first, last) + 1 > maxSpanHours()) {
+            throw new RuntimeException("Intensity series for region " + region + " would span " + first + " to "
+                    + last + ", more than the maximum of " + maxSeriesYears + " years");
+        }
+
+        intervalRepository.deleteByCompanyRegionAndRange(companyId, region, minStart, maxStart);
+        for (int i = 0; i < points.size(); i += SAVE_BATCH_SIZE) {
+            intervalRepository.saveAll(points.subList(i, Math.min(i + SAVE_BATCH_SIZE, points.size())));
+        }
+        invalidate(companyId, region);
+
+        log.info("Imported {} hourly intensity points for company {} region {} ({} to {})",
+                points.size(), companyId, region, minStart, maxStart);
+
+        return getSeries(companyId, region)
+                .map(series -> mapToDTO(region, series))
+                .orElseThrow(() -> new RuntimeException("Imported series could not be loaded"));
+    }
+
+    /**
+     * Get the cached hourly series for a region, if one has been imported.
+     */
+    @Transactional(readOnly = true)
+    public Optional<IntensityTimeSeries> getSeries(UUID companyId, String region) {
+        if (companyId == null || region == null) {
+            return Optional.empty();
+        }
+        return seriesCache.computeIfAbsent(cacheKey(companyId, region), key -> loadSeries(companyId, region));
+    }
+
+    /**
+     * Summaries of all hourly series configured for a company.
+     */
+    @Transactional(readOnly = true)
+    public List<IntensitySeriesDTO> getSeriesSummaries(UUID companyId) {
+        return intervalRepository.findDistinctRegionsByCompanyId(companyId).stream()
+                .map(region -> getSeries(companyId, region).map(series -> mapToDTO(region, series)))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drop the cached series now and again once the current transaction commits,
+     * so concurrent readers cannot re-cache the pre-import data.
+     */
+    public void invalidate(UUID companyId, String region) {
+        String key = cacheKey(companyId, region);
+        seriesCache.remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    seriesCache.remove(key);
+                }
+            });
+        }
+    }
+
+    private Optional<IntensityTimeSeries> loadSeries(UUID companyId, String region) {
+        List<Object[]> rows = intervalRepository.findSeries(companyId, region);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long[] hours = new long[rows.size()];
+        double[] values = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            hours[i] = IntensityTimeSeries.toEpochHour((LocalDateTime) rows.get(i)[0]);
+            values[i] = ((BigDecimal) rows.get(i)[1]).doubleValue();
+        }
+        return Optional.of(IntensityTimeSeries.of(hours, values, maxSpanHours()));
+    }
+
+    private long maxSpanHours() {
+        return 24L * 366 * maxSeriesYears;
+    }
+
+    private String cacheKey(UUID companyId, String region) {
+        return companyId + ":" + region;
+    }
+
+    private IntensitySeriesDTO mapToDTO(String region, IntensityTimeSeries series) {
+        return IntensitySeriesDTO.builder()
+                .region(region)
+                .firstInterval(series.getFirstInterval())
+                .lastInterval(series.getLastInterval())
+                .pointCount(series.getPointCount())
+                .minIntensity(BigDecimal.valueOf(series.getMin()).setScale(4, RoundingMode.HALF_UP))
+                .maxIntensity(BigDecimal.valueOf(series.getMax()).setScale(4, RoundingMode.HALF_UP))
+                .meanIntensity(BigDecimal.valueOf(series.getMean()).setScale(4, RoundingMode.HALF_UP))
+                .build();
+    }
+}
@@ -0,0 +1,319 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.CfeMatchingDTO;
+import com.ecoai.dto.CfeRegionMatchDTO;
+import com.ecoai.dto.GenerationProfileDTO;
+import com.ecoai.entity.Company;
+import com.ecoai.entity.EnergyUsage;
+import com.ecoai.entity.GenerationInterval;
+import com.ecoai.repository.CompanyRepository;
+import com.ecoai.repository.EnergyUsageRepository;
+import com.ecoai.repository.GenerationIntervalRepository;
+import com.ecoai.util.HourlyMatcher;
+import com.ecoai.util.IntensityTimeSeries;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 24/7 Carbon-Free Energy Matching Service.
+ * 
+ * Aligns every hour of consumption with every hour of contracted generation per
+ * region. Consumption, generation and grid intensity are first loaded into dense
+ * hourly arrays for the reporting year; matching is then a single pass per region
+ * (see {@link HourlyMatcher}), and regions are matched in parallel.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class CfeMatchingService {
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final int SAVE_BATCH_SIZE = 1000;
+
+    private final GenerationIntervalRepository generationRepository;
+    private final EnergyUsageRepository energyUsageRepository;
+    private final CompanyRepository companyRepository;
+    private final CarbonCalculationService carbonCalculationService;
+    private final CarbonIntensitySeriesService intensitySeriesService;
+
+    /**
+     * Import an hourly generation profile for one contract from CSV.
+     * Expected CSV format: timestamp,generationKwh (timestamp in UTC unless it has an offset)
+     * Existing points of the same contract in the imported time span are replaced.
+     */
+    public GenerationProfileDTO importGenerationCsv(UUID companyId, String region, String contractName,
+            MultipartFile file) throws IOException, CsvValidationException {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+
+        List<GenerationInterval> points = new ArrayList<>();
+        LocalDateTime minStart = null;
+        LocalDateTime maxStart = null;
+
+        try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
+            reader.skip(1); // Header row
+            String[] row;
+            int line = 1;
+            while ((row = reader.readNext()) != null) {
+                line++;
+                if (row.length < 2)
+                    continue;
+
+                try {
+                    LocalDateTime start = IntensityTimeSeries.parseUtc(row[0].trim()).truncatedTo(ChronoUnit.HOURS);
+                    BigDecimal kwh = new BigDecimal(row[1].trim());
+                    if (kwh.signum() < 0) {
+                        throw new IllegalArgumentException("Negative generation");
+                    }
+
+                    points.add(GenerationInterval.builder()
+                            .company(company)
+                            .region(region)
+                            .contractName(contractName)
+                            .intervalStart(start)
+                            .generationKwh(kwh)
+                            .build());
+
+                    minStart = minStart == null || start.isBefore(minStart) ? start : minStart;
+                    maxStart = maxStart == null || start.isAfter(maxStart) ? start : maxStart;
+                } catch (Exception e) {
+                    log.warn("Error parsing generation row {}: {}", line, e.getMessage());
+                }
+            }
+        }
+
+        if (points.isEmpty()) {
+            throw new RuntimeException("No valid generation rows found in file");
+        }
+
+        generationRepository.deleteByContractAndRange(companyId, region, contractName, minStart, maxStart);
+        for (int i = 0; i < points.size(); i += SAVE_BATCH_SIZE) {
+            generationRepository.saveAll(points.subList(i, Math.min(i + SAVE_BATCH_SIZE, points.size())));
+        }
+
+        log.info("Imported {} hourly generation points for company {} region {} contract '{}' ({} to {})",
+                points.size(), companyId, region, contractName, minStart, maxStart);
+
+        return getGenerationProfiles(companyId).stream()
+                .filter(p -> p.getRegion().equals(region) && p.getContractName().equals(contractName))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Imported profile could not be loaded"));
+    }
+
+    /**
+     * Summaries of all generation profiles imported for a company.
+     */
+    @Transactional(readOnly = true)
+    public List<GenerationProfileDTO> getGenerationProfiles(UUID companyId) {
+        return generationRepository.summarizeByCompanyId(companyId).stream()
+                .map(row -> GenerationProfileDTO.builder()
+                        .region((String) row[0])
+                        .contractName((String) row[1])
+                        .pointCount((Long) row[2])
+                        .firstInterval((LocalDateTime) row[3])
+                        .lastInterval((LocalDateTime) row[4])
+                        .totalGenerationKwh((BigDecimal) row[5])
+                        .build())
+                .sorted(Comparator.comparing(GenerationProfileDTO::getRegion)
+                        .thenComparing(GenerationProfileDTO::getContractName))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hourly CFE matching for a calendar year (UTC) across all regions with
+     * consumption or generation.
+     */
+    @Transactional(readOnly = true)
+    public CfeMatchingDTO matchYear(UUID companyId, int year) {
+        if (!companyRepository.existsById(companyId)) {
+            throw new RuntimeException("Company not found: " + companyId);
+        }
+
+        LocalDateTime periodStart = LocalDate.of(year, 1, 1).atStartOfDay();
+        LocalDateTime periodEnd = periodStart.plusYears(1);
+        long firstHour = IntensityTimeSeries.toEpochHour(periodStart);
+        int hours = (int) (IntensityTimeSeries.toEpochHour(periodEnd) - firstHour);
+
+        Map<String, double[]> consumption = loadConsumption(companyId, periodStart.toLocalDate(),
+                periodEnd.toLocalDate().minusDays(1), firstHour, hours);
+
+        TreeSet<String> regions = new TreeSet<>(consumption.keySet());
+        regions.addAll(generationRepository.findDistinctRegionsByCompanyId(companyId));
+
+        // Load everything inside the transaction, then match off the DB in parallel
+        List<RegionArrays> inputs = new ArrayList<>();
+        for (String region : regions) {
+            inputs.add(new RegionArrays(region,
+                    consumption.getOrDefault(region, new double[hours]),
+                    loadGeneration(companyId, region, periodStart, periodEnd, firstHour, hours),
+                    loadIntensity(companyId, region, firstHour, hours)));
+        }
+
+        List<RegionMatch> matches = inputs.parallelStream()
+                .map(in -> new RegionMatch(in.region(),
+                        HourlyMatcher.match(in.consumption(), in.generation(), in.intensity())))
+                .collect(Collectors.toList());
+
+        double load = 0, matched = 0, excess = 0, residual = 0, avoided = 0;
+        for (RegionMatch m : matches) {
+            load += m.result().consumptionKwh();
+            matched += m.result().matchedKwh();
+            excess += m.result().excessKwh();
+            residual += m.result().residualCo2eKg();
+            avoided += m.result().avoidedCo2eKg();
+        }
+
+        return CfeMatchingDTO.builder()
+                .companyId(companyId)
+                .year(year)
+                .periodStart(periodStart)
+                .periodEnd(periodEnd)
+                .hours(hours)
+                .consumptionKwh(scale(load))
+                .matchedKwh(scale(matched))
+                .excessGenerationKwh(scale(excess))
+                .cfeScore(percent(matched, load))
+                .residualCo2eKg(scale(residual))
+                .avoidedCo2eKg(scale(avoided))
+                .regions(matches.stream().map(this::mapToDTO).collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Spread AI kWh per region over the hours each record covers. Hourly records
+     * land in their own UTC hour; whole-day records carry no intra-day profile, so
+     * a DAILY record is flat across its 24 UTC hours.
+     * WEEKLY / MONTHLY entries are stored prorated into DAILY records; the
+     * period cases only cover rows written before that.
+     */
+    private Map<String, double[]> loadConsumption(UUID companyId, LocalDate startDate, LocalDate endDate,
+            long firstHour, int hours) {
+        // Include multi-day records that started before the year but overlap it
+        List<Object[]> rows = energyUsageRepository.sumAiKwhByRegionAndPeriod(companyId,
+                startDate.minusMonths(1), endDate);
+
+        Map<String, double[]> byRegion = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] == null || row[3] == null)
+                continue;
+            LocalDate date = (LocalDate) row[1];
+            EnergyUsage.PeriodType type = row[2] != null ? (EnergyUsage.PeriodType) row[2]
+                    : EnergyUsage.PeriodType.DAILY;
+            int days = switch (type) {
+                case WEEKLY -> 7;
+                case MONTHLY -> date.lengthOfMonth();
+                default -> 1;
+            };
+
+            Integer hour = (Integer) row[4];
+            long from = IntensityTimeSeries.toEpochHour(date.atStartOfDay()) - firstHour
+                    + (hour != null ? hour : 0);
+            int span = hour != null ? 1 : days * HOURS_PER_DAY;
+            double perHour = ((BigDecimal) row[3]).doubleValue() / span;
+
+            int lo = (int) Math.max(0, from);
+            int hi = (int) Math.min(hours, from + span);
+            if (lo >= hi)
+                continue;
+            double[] series = byRegion.computeIfAbsent((String) row[0], r -> new double[hours]);
+            for (int h = lo; h < hi; h++) {
+                series[h] += perHour;
+            }
+        }
+        return byRegion;
+    }
+
+    private double[] loadGeneration(UUID companyId, String region, LocalDateTime start, LocalDateTime end,
+            long firstHour, int hours) {
+        double[] generation = new double[hours];
+        for (Object[] row : generationRepository.sumHourlyByRegion(companyId, region, start, end)) {
+            int h = (int) (IntensityTimeSeries.toEpochHour((LocalDateTime) row[0]) - firstHour);
+            generation[h] += ((BigDecimal) row[1]).doubleValue();
+        }
+        return generation;
+    }
+
+    /**
+     * Hourly grid intensity, with hours not covered by an imported series filled
+     * from the flat region factor.
+     */
+    private double[] loadIntensity(UUID companyId, String region, long firstHour, int hours) {
+        double flat = carbonCalculationService.getEffectiveCarbonIntensity(companyId, region).doubleValue();
+        double[] intensity = new double[hours];
+        Optional<IntensityTimeSeries> series = intensitySeriesService.getSeries(companyId, region);
+        if (series.isEmpty()) {
+            Arrays.fill(intensity, flat);
+            return intensity;
+        }
+
+        long[] grid = new long[hours];
+        for (int h = 0; h < hours; h++) {
+            grid[h] = firstHour + h;
+        }
+        series.get().lookup(grid, intensity);
+        for (int h = 0; h < hours; h++) {
+            if (Double.isNaN(intensity[h])) {
+                intensity[h] = flat;
+            }
+        }
+        return intensity;
+    }
+
+    private CfeRegionMatchDTO mapToDTO(RegionMatch match) {
+        HourlyMatcher.Result r = match.result();
+        return CfeRegionMatchDTO.builder()
+                .region(match.region())
+                .consumptionKwh(scale(r.consumptionKwh()))
+                .generationKwh(scale(r.generationKwh()))
+                .matchedKwh(scale(r.matchedKwh()))
+                .unmatchedKwh(scale(r.unmatchedKwh()))
+                .excessGenerationKwh(scale(r.excessKwh()))
+                .cfeScore(percent(r.matchedKwh(), r.consumptionKwh()))
+                .annualMatchPercent(percent(r.generationKwh(), r.consumptionKwh()))
+                .fullyMatchedHours(r.fullyMatchedHours())
+                .consumptionHours(r.consumptionHours())
+                .residualCo2eKg(scale(r.residualCo2eKg()))
+                .avoidedCo2eKg(scale(r.avoidedCo2eKg()))
+                .build();
+    }
+
+    private BigDecimal scale(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal percent(double part, double whole) {
+        return whole > 0
+                ? BigDecimal.valueOf(part * 100.0 / whole).setScale(2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
+    private record RegionArrays(String region, double[] consumption, double[] generation, double[] intensity) {
+    }
+
+    private record RegionMatch(String region, HourlyMatcher.Result result) {
+    }
+}
@@ -20,6 +20,8 @@ import java.util.stream.Collectors;
 public class CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final DataVersionService dataVersionService;
+    private final AttributionEngineService attributionEngineService;
 
     public CompanyDTO createCompany(CompanyDTO dto) {
         Company company = Company.builder()
@@ -62,6 +64,8 @@ public class CompanyService {
             company.setCountry(dto.getCountry());
         if (dto.getRegion() != null)
             company.setRegion(dto.getRegion());
+        boolean aiShareChanged = dto.getBaseAiPercentage() != null && (company.getBaseAiPercentage() == null
+                || dto.getBaseAiPercentage().compareTo(company.getBaseAiPercentage()) != 0);
         if (dto.getBaseAiPercentage() != null)
             company.setBaseAiPercentage(dto.getBaseAiPercentage());
         if (dto.getElectricityCostPerKwh() != null)
@@ -70,7 +74,13 @@ public class CompanyService {
             company.setCurrency(dto.getCurrency());
 
         Company saved = companyRepository.save(company);
-        return mapToDTO(saved);
+        dataVersionService.bumpAfterCommit(id); // Region and price feed simulation baselines
+        CompanyDTO result = mapToDTO(saved);
+        if (aiShareChanged) {
+            // Stored AI kWh and emissions were attributed with the old share
+            result.setReattributionJobId(attributionEngineService.startReattributionJob(id, null).getId());
+        }
+        return result;
     }
 
     public void deleteCompany(UUID id) {
@@ -3,6 +3,7 @@ package com.ecoai.service;
 import com.ecoai.dto.*;
 import com.ecoai.entity.Company;
 import com.ecoai.repository.*;
+import com.ecoai.util.PercentChange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,7 +29,7 @@ public class DashboardService {
     private final CompanyRepository companyRepository;
     private final DepartmentRepository departmentRepository;
     private final EnergyUsageRepository energyUsageRepository;
-    private final CarbonEmissionRepository carbonEmissionRepository;
+    private final CarbonCalculationService carbonCalculationService;
     private final AttributionEngineService attributionEngineService;
     private final AnalyticsService analyticsService;
     private final AlertsService alertsService;
@@ -49,7 +50,7 @@ public class DashboardService {
                 companyId, thirtyDaysAgo, now);
         BigDecimal aiEnergyKwh = energyUsageRepository.sumAiKwhByCompanyAndDateRange(
                 companyId, thirtyDaysAgo, now);
-        BigDecimal totalCo2eKg = carbonEmissionRepository.sumCo2eKgByCompanyAndDateRange(
+        CarbonCalculationService.Scope2Totals co2e = carbonCalculationService.sumScope2(
                 companyId, thirtyDaysAgo, now);
 
         // Previous period (30-60 days ago) for comparison
@@ -57,13 +58,14 @@ public class DashboardService {
                 companyId, sixtyDaysAgo, thirtyDaysAgo);
         BigDecimal prevAiEnergyKwh = energyUsageRepository.sumAiKwhByCompanyAndDateRange(
                 companyId, sixtyDaysAgo, thirtyDaysAgo);
-        BigDecimal prevCo2eKg = carbonEmissionRepository.sumCo2eKgByCompanyAndDateRange(
+        CarbonCalculationService.Scope2Totals prevCo2e = carbonCalculationService.sumScope2(
                 companyId, sixtyDaysAgo, thirtyDaysAgo);
 
         // Handle nulls
         totalEnergyKwh = totalEnergyKwh != null ? totalEnergyKwh : BigDecimal.ZERO;
         aiEnergyKwh = aiEnergyKwh != null ? aiEnergyKwh : BigDecimal.ZERO;
-        totalCo2eKg = totalCo2eKg != null ? totalCo2eKg : BigDecimal.ZERO;
+        BigDecimal totalCo2eKg = co2e.locationBasedKg();
+        BigDecimal marketCo2eKg = co2e.marketBasedKg();
 
         // Calculate AI percentage
         BigDecimal aiPercentage = totalEnergyKwh.compareTo(BigDecimal.ZERO) > 0
@@ -78,12 +80,13 @@ public class DashboardService {
                 .setScale(2, RoundingMode.HALF_UP);
 
         // Calculate changes
-        BigDecimal energyChange = calculatePercentChange(prevTotalEnergyKwh, totalEnergyKwh);
-        BigDecimal carbonChange = calculatePercentChange(prevCo2eKg, totalCo2eKg);
+        BigDecimal energyChange = PercentChange.between(prevTotalEnergyKwh, totalEnergyKwh, 1);
+        BigDecimal carbonChange = PercentChange.between(prevCo2e.locationBasedKg(), totalCo2eKg, 1);
+        BigDecimal marketCarbonChange = PercentChange.between(prevCo2e.marketBasedKg(), marketCo2eKg, 1);
         BigDecimal prevCost = prevTotalEnergyKwh != null
                 ? prevTotalEnergyKwh.multiply(company.getElectricityCostPerKwh())
                 : BigDecimal.ZERO;
-        BigDecimal costChange = calculatePercentChange(prevCost, totalCost);
+        BigDecimal costChange = PercentChange.between(prevCost, totalCost, 1);
 
         // Get department count
         int departmentCount = departmentRepository.findByCompanyId(companyId).size();
@@ -96,11 +99,13 @@ public class DashboardService {
                 .aiPercentage(aiPercentage)
                 .totalCo2eKg(totalCo2eKg)
                 .aiCo2eKg(totalCo2eKg) // All carbon is from AI in this model
+                .marketBasedCo2eKg(marketCo2eKg)
                 .totalCost(totalCost)
                 .aiCost(aiCost)
                 .currency(company.getCurrency())
                 .energyChangePercent(energyChange)
                 .carbonChangePercent(carbonChange)
+                .marketCarbonChangePercent(marketCarbonChange)
                 .costChangePercent(costChange)
                 .periodType("LAST_30_DAYS")
                 .departmentCount(departmentCount)
@@ -115,6 +120,14 @@ public class DashboardService {
         return attributionEngineService.getAttributionByDepartment(companyId);
     }
 
+    /**
+     * Get department breakdown for a date range, with previous-period deltas.
+     */
+    public List<DepartmentBreakdownDTO> getDepartmentBreakdown(UUID companyId, LocalDate startDate,
+            LocalDate endDate) {
+        return attributionEngineService.getAttributionByDepartment(companyId, startDate, endDate);
+    }
+
     /**
      * Get all dashboard data in one call.
      */
@@ -157,24 +170,11 @@ public class DashboardService {
             regionInfo.put("region", row[0]);
             regionInfo.put("totalKwh", row[1] != null ? row[1] : BigDecimal.ZERO);
             regionInfo.put("aiKwh", row[2] != null ? row[2] : BigDecimal.ZERO);
+            regionInfo.put("co2eKg", row[3] != null ? row[3] : BigDecimal.ZERO);
+            regionInfo.put("marketCo2eKg", row[4] != null ? row[4] : BigDecimal.ZERO);
             breakdown.add(regionInfo);
         }
 
         return breakdown;
     }
-
-    private BigDecimal calculatePercentChange(BigDecimal oldValue, BigDecimal newValue) {
-        if (oldValue == null || oldValue.compareTo(BigDecimal.ZERO) == 0) {
-            return newValue != null && newValue.compareTo(BigDecimal.ZERO) > 0
-                    ? new BigDecimal("100")
-                    : BigDecimal.ZERO;
-        }
-        if (newValue == null) {
-            return new BigDecimal("-100");
-        }
-        return newValue.subtract(oldValue)
-                .divide(oldValue, 4, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"))
-                .setScale(1, RoundingMode.HALF_UP);
-    }
 }
@@ -0,0 +1,57 @@
+package com.ecoai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a per-company data version.
+ * 
+ * Any write that changes stored energy or emission figures bumps the version,
+ * so cached results keyed by (company, version) become stale automatically.
+ */
+@Service
+@Slf4j
+public class DataVersionService {
+
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Current data version for a company (0 until the first change).
+     */
+    public long currentVersion(UUID companyId) {
+        AtomicLong version = versions.get(companyId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Mark a company's data as changed and return the new version.
+     */
+    public long bump(UUID companyId) {
+        long next = versions.computeIfAbsent(companyId, id -> new AtomicLong()).incrementAndGet();
+        log.debug("Data version for company {} bumped to {}", companyId, next);
+        return next;
+    }
+
+    /**
+     * Bump now and again once the current transaction commits, so results
+     * computed from pre-commit reads cannot be cached under the new version.
+     */
+    public void bumpAfterCommit(UUID companyId) {
+        bump(companyId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(companyId);
+                }
+            });
+        }
+    }
+}
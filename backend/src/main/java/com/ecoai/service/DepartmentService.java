@@ -23,6 +23,7 @@ public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
     private final CompanyRepository companyRepository;
+    private final AttributionEngineService attributionEngineService;
 
     public DepartmentDTO createDepartment(UUID companyId, DepartmentDTO dto) {
         Company company = companyRepository.findById(companyId)
@@ -68,13 +69,21 @@ public class DepartmentService {
             department.setProduct(dto.getProduct());
         if (dto.getDescription() != null)
             department.setDescription(dto.getDescription());
+        boolean weightChanged = dto.getAiUsageWeight() != null && (department.getAiUsageWeight() == null
+                || dto.getAiUsageWeight().compareTo(department.getAiUsageWeight()) != 0);
         if (dto.getAiUsageWeight() != null)
             department.setAiUsageWeight(dto.getAiUsageWeight());
         if (dto.getEmployeeCount() != null)
             department.setEmployeeCount(dto.getEmployeeCount());
 
         Department saved = departmentRepository.save(department);
-        return mapToDTO(saved);
+        DepartmentDTO result = mapToDTO(saved);
+        if (weightChanged) {
+            // Stored AI kWh and emissions of this department used the old weight
+            result.setReattributionJobId(attributionEngineService
+                    .startReattributionJob(saved.getCompany().getId(), saved.getId()).getId());
+        }
+        return result;
     }
 
     public void deleteDepartment(UUID id) {
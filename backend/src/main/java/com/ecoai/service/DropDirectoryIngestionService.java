@@ -0,0 +1,316 @@
+package com.ecoai.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Ingests energy usage CSV files that on-prem meter gateways drop into a shared
+ * directory, in the same format and through the same upsert pipeline as the
+ * /energy/csv upload.
+ *
+ * Layout under app.energy.drop-dir.path: gateways write each company's files
+ * to {@code <companyId>/}, under a temporary name, and rename them to *.csv
+ * (or *.csv.gz / *.csv.zst) once complete. A WatchService picks them up and claims each one by an atomic
+ * rename into {@code .processing/<companyId>/}, so a file is only ever ingested
+ * by one worker. It is then moved to {@code .archive/<companyId>/} on success,
+ * or to {@code .quarantine/<companyId>/} together with a .error note on failure.
+ * Files of different companies are processed in parallel, while each company's
+ * files are processed one at a time in the order they were claimed. Files
+ * still in .processing after a crash are processed again at startup; the upsert
+ * makes that safe.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DropDirectoryIngestionService {
+
+    private static final String PROCESSING = ".processing";
+    private static final String ARCHIVE = ".archive";
+    private static final String QUARANTINE = ".quarantine";
+    private static final int READ_BUFFER_BYTES = 256 * 1024;
+
+    private final EnergyTrackingService energyTrackingService;
+
+    @Value("${app.energy.drop-dir.path:}")
+    private String path;
+
+    @Value("${app.energy.drop-dir.threads:4}")
+    private int threads;
+
+    private final Map<UUID, CompletableFuture<Void>> companyQueues = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    private Path root;
+    private WatchService watchService;
+    private ThreadPoolTaskExecutor executor;
+    private Thread watcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (path == null || path.isBlank()) {
+            return;
+        }
+        root = Paths.get(path.trim()).toAbsolutePath();
+        Files.createDirectories(root.resolve(PROCESSING));
+        Files.createDirectories(root.resolve(ARCHIVE));
+        Files.createDirectories(root.resolve(QUARANTINE));
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("ecoai-drop-dir-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        watchService = root.getFileSystem().newWatchService();
+        watchedDirectories.put(root.register(watchService, ENTRY_CREATE), root);
+        requeueInterrupted();
+        scanAll();
+
+        watcher = new Thread(this::watch, "ecoai-drop-dir-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching drop directory {} with {} workers", root, threads);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService == null) {
+            return;
+        }
+        watchService.close();
+        watcher.interrupt();
+        executor.shutdown();
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    scanAll(); // Events were lost
+                    continue;
+                }
+                if (directory == null) {
+                    continue;
+                }
+                Path child = directory.resolve((Path) event.context());
+                if (directory.equals(root)) {
+                    UUID companyId = companyIdOf(child);
+                    if (companyId != null) {
+                        watchCompany(companyId, child);
+                    }
+                } else if (isCandidate(child)) {
+                    claim(companyIdOf(directory), child);
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    private void scanAll() {
+        try (Stream<Path> children = Files.list(root)) {
+            for (Path child : children.toList()) {
+                UUID companyId = companyIdOf(child);
+                if (companyId != null) {
+                    watchCompany(companyId, child);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan drop directory {}: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * Watch a company directory, then claim the files already in it. Files
+     * arriving in between are seen twice; the second claim finds them gone.
+     */
+    private void watchCompany(UUID companyId, Path directory) {
+        try {
+            if (!watchedDirectories.containsValue(directory)) {
+                watchedDirectories.put(directory.register(watchService, ENTRY_CREATE), directory);
+            }
+            for (Path file : oldestFirst(directory)) {
+                claim(companyId, file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not watch drop directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void requeueInterrupted() throws IOException {
+        try (Stream<Path> directories = Files.list(root.resolve(PROCESSING))) {
+            for (Path directory : directories.toList()) {
+                UUID companyId = companyIdOf(directory);
+                if (companyId == null) {
+                    continue;
+                }
+                List<Path> files;
+                try (Stream<Path> children = Files.list(directory)) {
+                    // Claim names start with the claim time, so name order is claim order
+                    files = children.filter(DropDirectoryIngestionService::isCandidate).sorted().toList();
+                }
+                for (Path file : files) {
+                    log.info("Resuming interrupted drop file {}", file);
+                    enqueue(companyId, file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Move a dropped file into .processing; whoever renames it first owns it.
+     */
+    private void claim(UUID companyId, Path file) {
+        String name = file.getFileName().toString();
+        try {
+            Path processing = Files.createDirectories(root.resolve(PROCESSING).resolve(companyId.toString()));
+            // Claim names start with the claim time, so same-named drops never collide
+            Path claimed = Files.move(file, processing.resolve(System.currentTimeMillis() + "-" + name),
+                    StandardCopyOption.ATOMIC_MOVE);
+            enqueue(companyId, claimed);
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            // Claimed by another worker or instance
+        } catch (IOException e) {
+            log.warn("Could not claim drop file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Chain the file behind the company's previous one; companies run in parallel.
+     */
+    private void enqueue(UUID companyId, Path file) {
+        companyQueues.compute(companyId, (id, tail) -> (tail != null ? tail : CompletableFuture.<Void>completedFuture(null))
+                .thenRunAsync(() -> process(companyId, file), executor));
+    }
+
+    private void process(UUID companyId, Path file) {
+        long started = System.currentTimeMillis();
+        EnergyTrackingService.CsvImport result;
+        try (InputStream in = new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), READ_BUFFER_BYTES)) {
+            result = energyTrackingService.importFromCsv(companyId, in);
+        } catch (Exception e) {
+            quarantine(companyId, file, e.toString());
+            return;
+        }
+        if (result.error() != null) {
+            // Records before the failure stay imported; dropping the fixed file again upserts over them
+            quarantine(companyId, file, result.error() + " (" + (result.created() + result.updated())
+                    + " records imported before the failure were kept)");
+            return;
+        }
+        try {
+            moveTo(ARCHIVE, companyId, file);
+        } catch (IOException e) {
+            quarantine(companyId, file, e.toString());
+            return;
+        }
+        log.info("Ingested drop file {} for company {} in {} ms ({} rows, {} created, {} updated, {} unchanged, {} rejected)",
+                file.getFileName(), companyId, System.currentTimeMillis() - started, result.rows(),
+                result.created(), result.updated(), result.unchanged(), result.rejected());
+    }
+
+    private void quarantine(UUID companyId, Path file, String error) {
+        log.warn("Quarantining drop file {} for company {}: {}", file.getFileName(), companyId, error);
+        try {
+            Path quarantined = moveTo(QUARANTINE, companyId, file);
+            Files.writeString(quarantined.resolveSibling(quarantined.getFileName() + ".error"),
+                    error + System.lineSeparator(), StandardCharsets.UTF_8);
+        } catch (IOException moveFailure) {
+            log.error("Could not quarantine drop file {}: {}", file, moveFailure.getMessage());
+        }
+    }
+
+    private Path moveTo(String area, UUID companyId, Path file) throws IOException {
+        Path directory = Files.createDirectories(root.resolve(area).resolve(companyId.toString()));
+        return Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static List<Path> oldestFirst(Path directory) throws IOException {
+        Map<Path, FileTime> modified = new HashMap<>();
+        try (Stream<Path> children = Files.list(directory)) {
+            for (Path file : children.filter(DropDirectoryIngestionService::isCandidate).toList()) {
+                try {
+                    modified.put(file, Files.getLastModifiedTime(file));
+                } catch (NoSuchFileException e) {
+                    // Claimed meanwhile
+                }
+            }
+        }
+        List<Path> files = new ArrayList<>(modified.keySet());
+        files.sort(Comparator.comparing((Path file) -> modified.get(file)).thenComparing(Path::getFileName));
+        return files;
+    }
+
+    private static boolean isCandidate(Path file) {
+        String name = file.getFileName().toString();
+        String lower = name.toLowerCase(Locale.ROOT);
+        return !name.startsWith(".")
+                && (lower.endsWith(".csv") || lower.endsWith(".csv.gz") || lower.endsWith(".csv.zst"))
+                && Files.isRegularFile(file);
+    }
+
+    /**
+     * Company id of a per-company directory, null for anything else.
+     */
+    private static UUID companyIdOf(Path directory) {
+        String name = directory.getFileName().toString();
+        if (name.startsWith(".") || !Files.isDirectory(directory)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(name);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring drop directory {}: not a company id", directory);
+            return null;
+        }
+    }
+}
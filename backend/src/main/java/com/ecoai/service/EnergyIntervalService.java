@@ -0,0 +1,446 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.EnergyIntervalDTO;
+import com.ecoai.dto.IntervalIngestDTO;
+import com.ecoai.dto.UsageRollupDTO;
+import com.ecoai.entity.Company;
+import com.ecoai.entity.Department;
+import com.ecoai.entity.EnergyInterval;
+import com.ecoai.entity.MeterZone;
+import com.ecoai.repository.CompanyRepository;
+import com.ecoai.repository.DepartmentRepository;
+import com.ecoai.repository.EnergyIntervalRepository;
+import com.ecoai.repository.MeterZoneRepository;
+import com.ecoai.util.CompressedInput;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sub-daily (hourly / 15-minute) smart-meter readings.
+ *
+ * Intervals are stored with their UTC start, length and the meter's time zone
+ * (a MeterZone id), and appended in time order in batches. A scheduled rollup
+ * folds them into daily EnergyUsage records (dataSource METER) per department,
+ * local day and region, the level AnalyticsService and DashboardService query.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class EnergyIntervalService {
+
+    public static final String DATA_SOURCE = "METER";
+
+    private static final int SAVE_BATCH_SIZE = 5000;
+    private static final int MAX_INTERVALS_PER_REQUEST = 10_000;
+    private static final int KEY_LOOKUP_BATCH_SIZE = 1000;
+    private static final int ROLLUP_BATCH_SIZE = 50_000;
+    private static final Set<Integer> INTERVAL_MINUTES = Set.of(5, 10, 15, 30, 60);
+
+    private final EnergyIntervalRepository intervalRepository;
+    private final MeterZoneRepository meterZoneRepository;
+    private final CompanyRepository companyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UsageRollupService usageRollupService;
+    private final IngestDeduplicationService ingestDeduplicationService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, Object> rollupLocks = new ConcurrentHashMap<>();
+    private final Map<String, Short> zoneKeys = new ConcurrentHashMap<>();
+    private final Map<Short, String> zoneNames = new ConcurrentHashMap<>();
+
+    /**
+     * Ingest a batch of intervals; invalid readings are counted and skipped, and
+     * re-sent readings update the stored ones instead of adding to them.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IntervalIngestDTO ingest(UUID companyId, List<EnergyIntervalDTO> intervals) {
+        IngestContext context = newContext(companyId);
+        for (int i = 0; i < intervals.size(); i += SAVE_BATCH_SIZE) {
+            writeBatch(context, intervals.subList(i, Math.min(i + SAVE_BATCH_SIZE, intervals.size())));
+        }
+        return context.result();
+    }
+
+    /**
+     * Import intervals from CSV, streaming the file in slices.
+     * Expected CSV format: timestamp,kwh[,departmentName,region]
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IntervalIngestDTO importFromCsv(UUID companyId, MultipartFile file, int intervalMinutes, String timezone)
+            throws IOException, CsvValidationException {
+        zoneOf(timezone); // Fail fast on an unknown zone
+        IngestContext context = newContext(companyId);
+        List<EnergyIntervalDTO> batch = new ArrayList<>(SAVE_BATCH_SIZE);
+
+        try (CSVReader reader = new CSVReader(new InputStreamReader(CompressedInput.decompressing(file.getInputStream()),
+                StandardCharsets.UTF_8))) {
+            reader.skip(1); // Header row
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                if (row.length < 2) {
+                    context.received++;
+                    context.rejected++;
+                    continue;
+                }
+                try {
+                    batch.add(EnergyIntervalDTO.builder()
+                            .timestamp(row[0].trim())
+                            .kwh(new BigDecimal(row[1].trim()))
+                            .departmentName(row.length > 2 && !row[2].isBlank() ? row[2].trim() : null)
+                            .region(row.length > 3 && !row[3].isBlank() ? row[3].trim() : null)
+                            .intervalMinutes(intervalMinutes)
+                            .timezone(timezone)
+                            .build());
+                } catch (NumberFormatException e) {
+                    context.received++;
+                    context.rejected++;
+                }
+                if (batch.size() == SAVE_BATCH_SIZE) {
+                    writeBatch(context, batch);
+                    batch.clear();
+                }
+            }
+        }
+        writeBatch(context, batch);
+
+        log.info("Imported {} meter intervals for company {} ({} updated, {} duplicate, {} rejected)",
+                context.stored, companyId, context.updated, context.duplicates, context.rejected);
+        return context.result();
+    }
+
+    /**
+     * Intervals starting in [from, to) (UTC), oldest first, at most
+     * MAX_INTERVALS_PER_REQUEST rows.
+     */
+    @Transactional(readOnly = true)
+    public List<EnergyIntervalDTO> getIntervals(UUID companyId, LocalDateTime from, LocalDateTime to) {
+        return intervalRepository.findByCompanyIdAndRange(companyId, from, to,
+                PageRequest.of(0, MAX_INTERVALS_PER_REQUEST)).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Roll up every company's pending intervals.
+     */
+    @Scheduled(fixedDelayString = "${app.energy.intervals.rollup-interval-ms:60000}",
+            initialDelayString = "${app.energy.intervals.rollup-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledRollup() {
+        for (UUID companyId : intervalRepository.findCompanyIdsWithPendingRollup()) {
+            try {
+                rollup(companyId);
+            } catch (RuntimeException e) {
+                log.warn("Meter interval rollup failed for company {}: {}", companyId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fold a company's not-yet-rolled-up intervals into daily EnergyUsage
+     * records, ROLLUP_BATCH_SIZE rows at a time, claiming and merging each batch
+     * in one transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UsageRollupDTO rollup(UUID companyId) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+
+        synchronized (rollupLocks.computeIfAbsent(companyId, id -> new Object())) {
+            UsageRollupDTO result = UsageRollupDTO.builder().companyId(companyId).dataSource(DATA_SOURCE).build();
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> {
+                    UUID batch = UUID.randomUUID();
+                    int rows = intervalRepository.claimForRollup(companyId, batch, ROLLUP_BATCH_SIZE);
+                    if (rows == 0) {
+                        return 0;
+                    }
+                    UsageRollupService.DailyMerge merge = usageRollupService.addToDaily(company, DATA_SOURCE,
+                            intervalRepository.sumByRollupBatch(companyId, batch));
+                    result.setSourceRecords(result.getSourceRecords() + rows);
+                    result.setUsageRecordsCreated(result.getUsageRecordsCreated() + merge.created());
+                    result.setUsageRecordsUpdated(result.getUsageRecordsUpdated() + merge.updated());
+                    return rows;
+                });
+            } while (claimed != null && claimed == ROLLUP_BATCH_SIZE);
+
+            if (result.getSourceRecords() > 0) {
+                log.info("Rolled up {} meter intervals for company {} ({} usage records created, {} updated)",
+                        result.getSourceRecords(), companyId, result.getUsageRecordsCreated(),
+                        result.getUsageRecordsUpdated());
+            }
+            return result;
+        }
+    }
+
+    private IngestContext newContext(UUID companyId) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+        Map<UUID, Department> byId = new HashMap<>();
+        Map<String, Department> byName = new HashMap<>();
+        for (Department department : departmentRepository.findByCompanyId(companyId)) {
+            byId.put(department.getId(), department);
+            byName.putIfAbsent(department.getName().toLowerCase(Locale.ROOT), department);
+        }
+        return new IngestContext(company, byId, byName);
+    }
+
+    /**
+     * Upsert a batch on the readings' natural key (EnergyInterval.naturalKey()).
+     * Re-sent readings with the same kWh are skipped; a changed reading is updated
+     * in place and, if it was already rolled up, the difference is merged into the
+     * daily records. Runs under the company's rollup lock so corrections and
+     * concurrent re-sends of the same reading cannot interleave with a rollup.
+     */
+    private void writeBatch(IngestContext context, List<EnergyIntervalDTO> intervals) {
+        context.received += intervals.size();
+        Map<String, EnergyInterval> byKey = new LinkedHashMap<>();
+        for (EnergyIntervalDTO dto : intervals) {
+            EnergyInterval row = toEntity(context, dto);
+            if (row == null) {
+                context.rejected++;
+            } else if (byKey.put(row.naturalKey(), row) != null) {
+                context.duplicates++; // Superseded by a later reading in the same request
+            }
+        }
+        if (byKey.isEmpty()) {
+            return;
+        }
+
+        UUID companyId = context.company.getId();
+        List<EnergyInterval> written = new ArrayList<>(byKey.size());
+        synchronized (rollupLocks.computeIfAbsent(companyId, id -> new Object())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, EnergyInterval> existing = new HashMap<>();
+                List<LocalDateTime> candidates = ingestDeduplicationService.mightExist(
+                        IngestDeduplicationService.Scope.INTERVAL, companyId, byKey.keySet()).stream()
+                        .map(key -> byKey.get(key).getIntervalStart())
+                        .distinct()
+                        .toList();
+                for (int i = 0; i < candidates.size(); i += KEY_LOOKUP_BATCH_SIZE) {
+                    for (EnergyInterval stored : intervalRepository.findByCompanyIdAndIntervalStartIn(companyId,
+                            candidates.subList(i, Math.min(i + KEY_LOOKUP_BATCH_SIZE, candidates.size())))) {
+                        existing.putIfAbsent(stored.naturalKey(), stored);
+                    }
+                }
+
+                List<EnergyInterval> created = new ArrayList<>();
+                Map<String, Object[]> corrections = new LinkedHashMap<>();
+                for (Map.Entry<String, EnergyInterval> entry : byKey.entrySet()) {
+                    EnergyInterval incoming = entry.getValue();
+                    EnergyInterval stored = existing.get(entry.getKey());
+                    if (stored == null) {
+                        created.add(incoming);
+                        continue;
+                    }
+                    BigDecimal delta = incoming.getKwh().setScale(4, RoundingMode.HALF_UP).subtract(stored.getKwh());
+                    if (delta.signum() == 0) {
+                        context.duplicates++;
+                        continue;
+                    }
+                    stored.setKwh(incoming.getKwh());
+                    if (stored.getRollupBatch() != null) {
+                        UUID departmentId = stored.getDepartment() != null ? stored.getDepartment().getId() : null;
+                        corrections.merge(departmentId + "|" + stored.getUsageDate() + "|" + stored.getRegion(),
+                                new Object[] { departmentId, stored.getUsageDate(), stored.getRegion(), delta },
+                                (a, b) -> new Object[] { a[0], a[1], a[2], ((BigDecimal) a[3]).add(delta) });
+                    }
+                    written.add(stored);
+                    context.updated++;
+                }
+
+                ingestDeduplicationService.record(IngestDeduplicationService.Scope.INTERVAL, companyId,
+                        created.stream().map(EnergyInterval::naturalKey).toList());
+                // Time-ordered inserts keep the sequence ids and the natural-key index append-mostly
+                created.sort(Comparator.comparing(EnergyInterval::getIntervalStart));
+                intervalRepository.saveAll(created);
+                if (!corrections.isEmpty()) {
+                    usageRollupService.addToDaily(context.company, DATA_SOURCE, new ArrayList<>(corrections.values()));
+                }
+                written.addAll(created);
+                context.stored += created.size();
+            });
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime first = written.stream().map(EnergyInterval::getIntervalStart).min(LocalDateTime::compareTo)
+                .orElseThrow();
+        LocalDateTime last = written.stream().map(EnergyInterval::getIntervalStart).max(LocalDateTime::compareTo)
+                .orElseThrow();
+        context.first = context.first == null || first.isBefore(context.first) ? first : context.first;
+        context.last = context.last == null || last.isAfter(context.last) ? last : context.last;
+    }
+
+    private EnergyInterval toEntity(IngestContext context, EnergyIntervalDTO dto) {
+        int minutes = dto.getIntervalMinutes() != null ? dto.getIntervalMinutes() : 15;
+        if (dto.getTimestamp() == null || dto.getKwh() == null || dto.getKwh().signum() < 0
+                || !INTERVAL_MINUTES.contains(minutes)) {
+            return null;
+        }
+        if (dto.getDepartmentId() != null && !context.departmentsById.containsKey(dto.getDepartmentId())) {
+            return null;
+        }
+        try {
+            ZoneId zone = zoneOf(dto.getTimezone());
+            LocalDateTime start = toUtc(dto.getTimestamp().trim(), zone);
+            LocalDateTime local = start.atOffset(ZoneOffset.UTC).atZoneSameInstant(zone).toLocalDateTime();
+            if (local.getSecond() != 0 || local.getNano() != 0 || local.getMinute() % minutes != 0) {
+                return null; // Not aligned to the meter's local interval grid
+            }
+            Department department = dto.getDepartmentId() != null
+                    ? context.departmentsById.get(dto.getDepartmentId())
+                    : dto.getDepartmentName() != null
+                            ? context.departmentsByName.get(dto.getDepartmentName().toLowerCase(Locale.ROOT))
+                            : null;
+            return EnergyInterval.builder()
+                    .company(context.company)
+                    .department(department)
+                    .region(dto.getRegion() != null ? dto.getRegion() : context.company.getRegion())
+                    .intervalStart(start)
+                    .intervalMinutes((short) minutes)
+                    .zoneId(zoneKey(zone))
+                    .usageDate(local.toLocalDate())
+                    .kwh(dto.getKwh())
+                    .build();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Interval start in UTC: timestamps with an offset are absolute, others are
+     * local time in the meter's zone. A local time that falls in a DST overlap
+     * (two instants) or gap (none) is ambiguous and rejected; such readings must
+     * carry an offset.
+     */
+    private static LocalDateTime toUtc(String value, ZoneId zone) {
+        try {
+            return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            // No offset - local to the meter
+        }
+        LocalDateTime local = LocalDateTime.parse(value.replace(' ', 'T'));
+        List<ZoneOffset> offsets = zone.getRules().getValidOffsets(local);
+        if (offsets.size() != 1) {
+            throw new DateTimeException("Local time " + local + " is ambiguous in " + zone + "; add an offset");
+        }
+        return local.atOffset(offsets.get(0)).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    /**
+     * MeterZone id of a zone, registering the zone on first use.
+     */
+    private Short zoneKey(ZoneId zone) {
+        Short key = zoneKeys.get(zone.getId());
+        if (key != null) {
+            return key;
+        }
+        synchronized (zoneKeys) {
+            return zoneKeys.computeIfAbsent(zone.getId(), id -> {
+                MeterZone stored = meterZoneRepository.findByZoneId(id)
+                        .orElseGet(() -> meterZoneRepository.save(MeterZone.builder().zoneId(id).build()));
+                zoneNames.put(stored.getId(), id);
+                return stored.getId();
+            });
+        }
+    }
+
+    private String zoneName(Short key) {
+        return zoneNames.computeIfAbsent(key, id -> meterZoneRepository.findById(id)
+                .map(MeterZone::getZoneId)
+                .orElseThrow(() -> new RuntimeException("Meter zone not found: " + id)));
+    }
+
+    private static ZoneId zoneOf(String timezone) {
+        try {
+            return timezone != null && !timezone.isBlank() ? ZoneId.of(timezone.trim()) : ZoneOffset.UTC;
+        } catch (DateTimeException e) {
+            throw new RuntimeException("Unknown timezone: " + timezone);
+        }
+    }
+
+    private EnergyIntervalDTO mapToDTO(EnergyInterval interval) {
+        return EnergyIntervalDTO.builder()
+                .id(interval.getId())
+                .intervalStart(interval.getIntervalStart())
+                .intervalMinutes((int) interval.getIntervalMinutes())
+                .timezone(zoneName(interval.getZoneId()))
+                .usageDate(interval.getUsageDate())
+                .departmentId(interval.getDepartment() != null ? interval.getDepartment().getId() : null)
+                .departmentName(interval.getDepartment() != null ? interval.getDepartment().getName() : null)
+                .region(interval.getRegion())
+                .kwh(interval.getKwh())
+                .build();
+    }
+
+    /**
+     * Company, department lookups and running counters of one ingestion request.
+     */
+    private static final class IngestContext {
+        private final Company company;
+        private final Map<UUID, Department> departmentsById;
+        private final Map<String, Department> departmentsByName;
+        private long received;
+        private long stored;
+        private long updated;
+        private long duplicates;
+        private long rejected;
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        private IngestContext(Company company, Map<UUID, Department> departmentsById,
+                Map<String, Department> departmentsByName) {
+            this.company = company;
+            this.departmentsById = departmentsById;
+            this.departmentsByName = departmentsByName;
+        }
+
+        private IntervalIngestDTO result() {
+            return IntervalIngestDTO.builder()
+                    .recordsReceived(received)
+                    .recordsStored(stored)
+                    .recordsUpdated(updated)
+                    .recordsDuplicate(duplicates)
+                    .recordsRejected(rejected)
+                    .firstIntervalStart(first)
+                    .lastIntervalStart(last)
+                    .build();
+        }
+    }
+}
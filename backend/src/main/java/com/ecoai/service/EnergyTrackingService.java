@@ -1,28 +1,55 @@
 package com.ecoai.service;
 
 import com.ecoai.dto.EnergyUsageDTO;
+import com.ecoai.entity.CarbonEmission;
 import com.ecoai.entity.Company;
 import com.ecoai.entity.Department;
 import com.ecoai.entity.EnergyUsage;
 import com.ecoai.repository.CompanyRepository;
 import com.ecoai.repository.DepartmentRepository;
 import com.ecoai.repository.EnergyUsageRepository;
+import com.ecoai.util.CompressedInput;
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -35,72 +62,125 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EnergyTrackingService {
 
+    private static final int KEY_LOOKUP_BATCH_SIZE = 1000;
+    private static final int CSV_BATCH_SIZE = 5000;
+    private static final int PRORATE_PAGE_SIZE = 200; // Up to 31 slices each
+
     private final EnergyUsageRepository energyUsageRepository;
     private final CompanyRepository companyRepository;
     private final DepartmentRepository departmentRepository;
     private final AttributionEngineService attributionEngineService;
     private final CarbonCalculationService carbonCalculationService;
+    private final DataVersionService dataVersionService;
+    private final IngestDeduplicationService ingestDeduplicationService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    private final Map<UUID, Object> upsertLocks = new ConcurrentHashMap<>();
 
     /**
-     * Record a new energy usage entry.
+     * Record an energy usage entry, updating the stored record with the same
+     * natural key if there is one.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EnergyUsageDTO recordEnergyUsage(UUID companyId, EnergyUsageDTO dto) {
-        Company company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+        return upsertExclusively(companyId, status -> {
+            Company company = companyRepository.findById(companyId)
+                    .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
 
-        Department department = null;
-        if (dto.getDepartmentId() != null) {
-            department = departmentRepository.findById(dto.getDepartmentId())
-                    .orElse(null);
-        }
-
-        EnergyUsage energyUsage = EnergyUsage.builder()
-                .company(company)
-                .department(department)
-                .totalKwh(dto.getTotalKwh())
-                .usageDate(dto.getUsageDate())
-                .periodType(dto.getPeriodType() != null ? dto.getPeriodType() : EnergyUsage.PeriodType.DAILY)
-                .region(dto.getRegion() != null ? dto.getRegion() : company.getRegion())
-                .currency(dto.getCurrency() != null ? dto.getCurrency() : company.getCurrency())
-                .dataSource("MANUAL")
-                .build();
+            Department department = null;
+            if (dto.getDepartmentId() != null) {
+                department = departmentRepository.findById(dto.getDepartmentId())
+                        .orElse(null);
+            }
 
-        // Calculate AI attribution
-        BigDecimal aiKwh = attributionEngineService.calculateAiAttribution(
-                dto.getTotalKwh(), company, department);
-        energyUsage.setAiAttributedKwh(aiKwh);
+            EnergyUsage energyUsage = EnergyUsage.builder()
+                    .company(company)
+                    .department(department)
+                    .totalKwh(dto.getTotalKwh())
+                    .usageDate(dto.getUsageDate())
+                    .periodType(dto.getPeriodType() != null ? dto.getPeriodType() : EnergyUsage.PeriodType.DAILY)
+                    .region(dto.getRegion() != null ? dto.getRegion() : company.getRegion())
+                    .currency(dto.getCurrency() != null ? dto.getCurrency() : company.getCurrency())
+                    .workloadType(dto.getWorkloadType())
+                    .cluster(dto.getCluster())
+                    .usageHour(parseHour(dto.getUsageHour()))
+                    .dataSource("MANUAL")
+                    .build();
 
-        // Calculate cost
-        BigDecimal cost = dto.getTotalKwh().multiply(company.getElectricityCostPerKwh());
-        energyUsage.setCost(cost);
+            // Calculate cost
+            BigDecimal cost = dto.getTotalKwh().multiply(company.getElectricityCostPerKwh());
+            energyUsage.setCost(cost);
 
-        EnergyUsage saved = energyUsageRepository.save(energyUsage);
+            // WEEKLY / MONTHLY entries are stored as daily slices; re-posting an entry updates it
+            boolean daily = energyUsage.getPeriodType() == EnergyUsage.PeriodType.DAILY;
+            Upsert upsert = upsert(companyId, daily ? List.of(energyUsage) : prorate(energyUsage));
+            return daily ? mapToDTO(upsert.records().get(0)) : mapToPeriodDTO(upsert.records());
+        });
+    }
 
-        // Calculate and save carbon emissions
-        carbonCalculationService.calculateAndSaveEmission(saved);
+    /**
+     * Import energy data from CSV file. Re-importing a file is idempotent: rows
+     * matching a stored record's natural key update it, unchanged rows are skipped
+     * and only created or updated records are returned.
+     * Expected CSV format: date,totalKwh,departmentName,region[,workloadType,cluster,hour]
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<EnergyUsageDTO> importFromCsv(UUID companyId, MultipartFile file) throws IOException {
+        List<EnergyUsageDTO> imported = new ArrayList<>();
+        CsvImport result;
+        try (InputStream in = file.getInputStream()) {
+            result = importCsv(companyId, in, changed -> changed.forEach(usage -> imported.add(mapToDTO(usage))));
+        }
+        if (result.error() != null) {
+            throw new IOException(result.error() + " (" + imported.size()
+                    + " records imported before the failure were kept)");
+        }
+        return imported;
+    }
 
-        return mapToDTO(saved);
+    /**
+     * Import a CSV stream in the same format without collecting the records, for
+     * files too large to return (streamed uploads, the drop directory). Failures
+     * are reported in CsvImport.error along with the counts committed so far.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CsvImport importFromCsv(UUID companyId, InputStream in) {
+        return importCsv(companyId, in, changed -> {
+        });
     }
 
     /**
-     * Import energy data from CSV file.
-     * Expected CSV format: date,totalKwh,departmentName,region
+     * Read the CSV row by row, decompressing gzip / zstd input on the fly, and
+     * upsert it in slices of CSV_BATCH_SIZE records, one transaction per slice so
+     * file size is not bounded by the persistence context. A read or write failure
+     * ends the import without undoing the slices already committed.
      */
-    public List<EnergyUsageDTO> importFromCsv(UUID companyId, MultipartFile file) throws IOException, CsvException {
+    private CsvImport importCsv(UUID companyId, InputStream in, Consumer<List<EnergyUsage>> onChanged) {
         Company company = companyRepository.findById(companyId)
                 .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
 
-        List<EnergyUsageDTO> imported = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        Map<String, Department> departments = new HashMap<>();
+        for (Department department : departmentRepository.findByCompanyId(companyId)) {
+            departments.putIfAbsent(department.getName().toLowerCase(Locale.ROOT), department);
+        }
+        List<EnergyUsage> parsed = new ArrayList<>(CSV_BATCH_SIZE);
+        long rows = 0;
+        long rejected = 0;
+        long[] counts = new long[3]; // created, updated, unchanged
+        String error = null;
 
-        try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
-            List<String[]> rows = reader.readAll();
-
-            // Skip header row
-            for (int i = 1; i < rows.size(); i++) {
-                String[] row = rows.get(i);
-                if (row.length < 2)
+        try (CSVReader reader = new CSVReader(new InputStreamReader(CompressedInput.decompressing(in),
+                StandardCharsets.UTF_8))) {
+            reader.skip(1); // Header row
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                rows++;
+                if (row.length < 2) {
+                    rejected++;
                     continue;
+                }
 
                 try {
                     LocalDate date = LocalDate.parse(row[0].trim(), formatter);
@@ -109,13 +189,9 @@ public class EnergyTrackingService {
                     String region = row.length > 3 ? row[3].trim() : company.getRegion();
 
                     // Find department by name
-                    Department department = null;
-                    if (departmentName != null && !departmentName.isEmpty()) {
-                        department = departmentRepository.findByCompanyId(companyId).stream()
-                                .filter(d -> d.getName().equalsIgnoreCase(departmentName))
-                                .findFirst()
-                                .orElse(null);
-                    }
+                    Department department = departmentName != null && !departmentName.isEmpty()
+                            ? departments.get(departmentName.toLowerCase(Locale.ROOT))
+                            : null;
 
                     EnergyUsage energyUsage = EnergyUsage.builder()
                             .company(company)
@@ -125,30 +201,70 @@ public class EnergyTrackingService {
                             .periodType(EnergyUsage.PeriodType.DAILY)
                             .region(region)
                             .currency(company.getCurrency())
+                            .workloadType(optionalColumn(row, 4))
+                            .cluster(optionalColumn(row, 5))
+                            .usageHour(parseHour(optionalColumn(row, 6) != null
+                                    ? Integer.valueOf(optionalColumn(row, 6))
+                                    : null))
                             .dataSource("CSV_IMPORT")
                             .build();
 
-                    // Calculate AI attribution
-                    BigDecimal aiKwh = attributionEngineService.calculateAiAttribution(
-                            totalKwh, company, department);
-                    energyUsage.setAiAttributedKwh(aiKwh);
-
                     // Calculate cost
                     BigDecimal cost = totalKwh.multiply(company.getElectricityCostPerKwh());
                     energyUsage.setCost(cost);
 
-                    EnergyUsage saved = energyUsageRepository.save(energyUsage);
-                    carbonCalculationService.calculateAndSaveEmission(saved);
-
-                    imported.add(mapToDTO(saved));
+                    parsed.add(energyUsage);
                 } catch (Exception e) {
-                    log.warn("Error parsing row {}: {}", i, e.getMessage());
+                    rejected++;
+                    log.warn("Error parsing row {}: {}", rows, e.getMessage());
                 }
+
+                if (parsed.size() == CSV_BATCH_SIZE) {
+                    importSlice(companyId, parsed, onChanged, counts);
+                    parsed.clear();
+                }
+            }
+            if (!parsed.isEmpty()) {
+                importSlice(companyId, parsed, onChanged, counts);
             }
+        } catch (IOException | CsvException | RuntimeException e) {
+            // Slices imported so far stay committed; report them with the error
+            error = e.getMessage() != null ? e.getMessage() : e.toString();
+            log.warn("CSV import for company {} stopped after row {}: {}", companyId, rows, error);
         }
 
-        log.info("Imported {} energy records from CSV for company {}", imported.size(), companyId);
-        return imported;
+        log.info("Imported {} energy records from CSV for company {} ({} created, {} updated, {} unchanged, {} rejected)",
+                counts[0] + counts[1], companyId, counts[0], counts[1], counts[2], rejected);
+        return new CsvImport(rows, counts[0], counts[1], counts[2], rejected, error);
+    }
+
+    private void importSlice(UUID companyId, List<EnergyUsage> slice, Consumer<List<EnergyUsage>> onChanged,
+            long[] counts) {
+        upsertExclusively(companyId, status -> {
+            // The slice never reads back its own pending writes, so the emission factor
+            // lookups made per record need not flush the session first
+            entityManager.setFlushMode(FlushModeType.COMMIT);
+            Upsert upsert = upsert(companyId, slice);
+            onChanged.accept(upsert.changed());
+            counts[0] += upsert.created();
+            counts[1] += upsert.changed().size() - upsert.created();
+            counts[2] += upsert.records().size() - upsert.changed().size();
+            return null;
+        });
+        // With open-in-view an upload request keeps one session across its slices;
+        // detach the committed slice so only the current one is held in memory
+        entityManager.clear();
+    }
+
+    /**
+     * Run an upsert in its own transaction under the company's upsert lock. The
+     * lock is released only after the transaction committed, so two requests can
+     * never both miss a key and insert it twice.
+     */
+    private <T> T upsertExclusively(UUID companyId, TransactionCallback<T> upsert) {
+        synchronized (upsertLocks.computeIfAbsent(companyId, id -> new Object())) {
+            return transactionTemplate.execute(upsert);
+        }
     }
 
     /**
@@ -188,7 +304,215 @@ public class EnergyTrackingService {
      * Delete an energy usage record.
      */
     public void deleteEnergyUsage(UUID id) {
-        energyUsageRepository.deleteById(id);
+        energyUsageRepository.findById(id).ifPresent(usage -> {
+            UUID companyId = usage.getCompany().getId();
+            // A prorated WEEKLY / MONTHLY entry is deleted as a whole
+            if (usage.getPeriodGroupId() != null) {
+                energyUsageRepository.deleteAll(energyUsageRepository.findByPeriodGroupId(usage.getPeriodGroupId()));
+            } else {
+                energyUsageRepository.delete(usage);
+            }
+            dataVersionService.bumpAfterCommit(companyId);
+        });
+    }
+
+    /**
+     * Insert records or update the stored ones with the same natural key
+     * (EnergyUsage.naturalKey()); within the batch the last record for a key wins.
+     * Only keys the company's bloom filter may contain are looked up, then the
+     * created and changed records are attributed, saved and their emissions
+     * calculated together. Runs inside upsertExclusively.
+     */
+    private Upsert upsert(UUID companyId, List<EnergyUsage> entries) {
+        Map<String, EnergyUsage> byKey = new LinkedHashMap<>();
+        for (EnergyUsage entry : entries) {
+            byKey.put(entry.naturalKey(), entry);
+        }
+
+        Map<String, EnergyUsage> existing = new HashMap<>();
+        List<String> candidates = new ArrayList<>(ingestDeduplicationService.mightExist(
+                IngestDeduplicationService.Scope.USAGE, companyId, byKey.keySet()));
+        for (int i = 0; i < candidates.size(); i += KEY_LOOKUP_BATCH_SIZE) {
+            for (EnergyUsage usage : energyUsageRepository.findByCompanyIdAndIngestKeyIn(companyId,
+                    candidates.subList(i, Math.min(i + KEY_LOOKUP_BATCH_SIZE, candidates.size())))) {
+                existing.putIfAbsent(usage.getIngestKey(), usage);
+            }
+        }
+
+        List<EnergyUsage> records = new ArrayList<>(byKey.size());
+        List<EnergyUsage> changed = new ArrayList<>();
+        List<String> newKeys = new ArrayList<>();
+        for (Map.Entry<String, EnergyUsage> entry : byKey.entrySet()) {
+            EnergyUsage stored = existing.get(entry.getKey());
+            EnergyUsage incoming = entry.getValue();
+            if (stored == null) {
+                newKeys.add(entry.getKey());
+                changed.add(incoming);
+                records.add(incoming);
+                continue;
+            }
+            if (differs(stored.getTotalKwh(), incoming.getTotalKwh(), 4)
+                    || differs(stored.getCost(), incoming.getCost(), 2)) {
+                stored.setTotalKwh(incoming.getTotalKwh());
+                stored.setCost(incoming.getCost());
+                changed.add(stored);
+            }
+            records.add(stored);
+        }
+        if (changed.isEmpty()) {
+            return new Upsert(records, changed, 0);
+        }
+
+        ingestDeduplicationService.record(IngestDeduplicationService.Scope.USAGE, companyId, newKeys);
+        // Calculate AI attribution for the whole batch against one compiled rule set
+        attributionEngineService.attributeAll(companyId, changed);
+        for (EnergyUsage saved : energyUsageRepository.saveAll(changed)) {
+            carbonCalculationService.calculateAndSaveEmission(saved);
+        }
+        dataVersionService.bumpAfterCommit(companyId);
+        return new Upsert(records, changed, newKeys.size());
+    }
+
+    // Compared at the column scale, so a value read back from the database equals the one sent
+    private static boolean differs(BigDecimal stored, BigDecimal incoming, int scale) {
+        if (stored == null || incoming == null) {
+            return stored != incoming;
+        }
+        return stored.setScale(scale, RoundingMode.HALF_UP).compareTo(incoming.setScale(scale, RoundingMode.HALF_UP)) != 0;
+    }
+
+    /**
+     * Row counts of one CSV import; rows repeating a key within the file count once.
+     * error is set when the import stopped early, in which case the created and
+     * updated records are those committed before the failure.
+     */
+    public record CsvImport(long rows, long created, long updated, long unchanged, long rejected, String error) {
+    }
+
+    /**
+     * Outcome of an upsert: the stored record for every distinct key, the
+     * created or updated ones among them and how many were created.
+     */
+    private record Upsert(List<EnergyUsage> records, List<EnergyUsage> changed, int created) {
+    }
+
+    /**
+     * Split WEEKLY / MONTHLY records stored before write-time proration into
+     * daily slices, so existing data gets the same treatment as new entries.
+     * Works through each company's records PRORATE_PAGE_SIZE at a time, storing
+     * the slices with upsert under the company's lock, one transaction per page.
+     * Runs after IngestDeduplicationService has keyed the stored rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void prorateStoredPeriods() {
+        long prorated = 0;
+        for (UUID companyId : energyUsageRepository.findCompanyIdsWithUnproratedPeriods(EnergyUsage.PeriodType.DAILY)) {
+            Integer page;
+            do {
+                page = upsertExclusively(companyId, status -> {
+                    List<EnergyUsage> stored = energyUsageRepository.findUnproratedPeriods(companyId,
+                            EnergyUsage.PeriodType.DAILY, PageRequest.of(0, PRORATE_PAGE_SIZE));
+                    List<EnergyUsage> slices = new ArrayList<>();
+                    for (EnergyUsage usage : stored) {
+                        if (usage.getCost() == null) {
+                            usage.setCost(usage.getTotalKwh().multiply(usage.getCompany().getElectricityCostPerKwh()));
+                        }
+                        slices.addAll(prorate(usage));
+                        energyUsageRepository.delete(usage);
+                    }
+                    if (!slices.isEmpty()) {
+                        upsert(companyId, slices);
+                    }
+                    return stored.size();
+                });
+                prorated += page != null ? page : 0;
+            } while (page != null && page == PRORATE_PAGE_SIZE);
+        }
+        if (prorated > 0) {
+            log.info("Prorated {} weekly/monthly energy records into daily slices", prorated);
+        }
+    }
+
+    /**
+     * Spread a WEEKLY (7 days from usageDate) or MONTHLY (usageDate up to the same
+     * day next month) record evenly over the days it covers. Each slice is a DAILY
+     * record; rounding remainders go to the last day so slices sum to the entry.
+     */
+    private static List<EnergyUsage> prorate(EnergyUsage entry) {
+        LocalDate start = entry.getUsageDate();
+        LocalDate end = entry.getPeriodType() == EnergyUsage.PeriodType.WEEKLY
+                ? start.plusWeeks(1)
+                : start.plusMonths(1);
+        int days = (int) ChronoUnit.DAYS.between(start, end);
+        BigDecimal[] kwh = split(entry.getTotalKwh(), days, 4);
+        BigDecimal[] cost = entry.getCost() != null ? split(entry.getCost(), days, 2) : null;
+
+        UUID groupId = UUID.randomUUID();
+        List<EnergyUsage> slices = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            slices.add(EnergyUsage.builder()
+                    .company(entry.getCompany())
+                    .department(entry.getDepartment())
+                    .totalKwh(kwh[i])
+                    .cost(cost != null ? cost[i] : null)
+                    .currency(entry.getCurrency())
+                    .usageDate(start.plusDays(i))
+                    .periodType(EnergyUsage.PeriodType.DAILY)
+                    .sourcePeriodType(entry.getPeriodType())
+                    .sourcePeriodStart(start)
+                    .periodGroupId(groupId)
+                    .region(entry.getRegion())
+                    .workloadType(entry.getWorkloadType())
+                    .cluster(entry.getCluster())
+                    .dataSource(entry.getDataSource())
+                    .build());
+        }
+        return slices;
+    }
+
+    private static BigDecimal[] split(BigDecimal total, int parts, int scale) {
+        BigDecimal share = total.divide(BigDecimal.valueOf(parts), scale, RoundingMode.DOWN);
+        BigDecimal[] result = new BigDecimal[parts];
+        Arrays.fill(result, share);
+        result[parts - 1] = total.subtract(share.multiply(BigDecimal.valueOf(parts - 1))).setScale(scale, RoundingMode.HALF_UP);
+        return result;
+    }
+
+    private static Integer parseHour(Integer hour) {
+        if (hour != null && (hour < 0 || hour > 23)) {
+            throw new RuntimeException("usageHour must be between 0 and 23: " + hour);
+        }
+        return hour;
+    }
+
+    private static String optionalColumn(String[] row, int index) {
+        return row.length > index && !row[index].isBlank() ? row[index].trim() : null;
+    }
+
+    /**
+     * One DTO for a prorated entry: the first slice's identity with the period totals.
+     */
+    private EnergyUsageDTO mapToPeriodDTO(List<EnergyUsage> slices) {
+        EnergyUsage first = slices.get(0);
+        EnergyUsageDTO dto = mapToDTO(first);
+        dto.setPeriodType(first.getSourcePeriodType());
+        dto.setTotalKwh(sum(slices, EnergyUsage::getTotalKwh));
+        dto.setAiAttributedKwh(sum(slices, EnergyUsage::getAiAttributedKwh));
+        dto.setCost(sum(slices, EnergyUsage::getCost));
+        dto.setCo2eKg(sum(slices, EnergyUsage::getCo2eKg));
+        dto.setMarketCo2eKg(sum(slices, EnergyUsage::getMarketCo2eKg));
+        dto.setCo2eGrams(slices.stream()
+                .map(EnergyUsage::getCarbonEmission)
+                .filter(Objects::nonNull)
+                .map(CarbonEmission::getCo2eGrams)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return dto;
+    }
+
+    private static BigDecimal sum(List<EnergyUsage> slices, Function<EnergyUsage, BigDecimal> field) {
+        return slices.stream().map(field).filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     private EnergyUsageDTO mapToDTO(EnergyUsage usage) {
@@ -203,7 +527,13 @@ public class EnergyTrackingService {
                 .currency(usage.getCurrency())
                 .usageDate(usage.getUsageDate())
                 .periodType(usage.getPeriodType())
+                .sourcePeriodType(usage.getSourcePeriodType())
+                .sourcePeriodStart(usage.getSourcePeriodStart())
+                .periodGroupId(usage.getPeriodGroupId())
                 .region(usage.getRegion())
+                .workloadType(usage.getWorkloadType())
+                .cluster(usage.getCluster())
+                .usageHour(usage.getUsageHour())
                 .dataSource(usage.getDataSource())
                 .build();
 
@@ -211,6 +541,7 @@ public class EnergyTrackingService {
         if (usage.getCarbonEmission() != null) {
             dto.setCo2eGrams(usage.getCarbonEmission().getCo2eGrams());
             dto.setCo2eKg(usage.getCarbonEmission().getCo2eKg());
+            dto.setMarketCo2eKg(usage.getCarbonEmission().getMarketCo2eKg());
         }
 
         return dto;
@@ -0,0 +1,182 @@
+package com.ecoai.service;
+
+import com.ecoai.entity.EnergyInterval;
+import com.ecoai.entity.EnergyUsage;
+import com.ecoai.repository.EnergyIntervalRepository;
+import com.ecoai.repository.EnergyUsageRepository;
+import com.ecoai.util.LayeredBloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Natural-key bookkeeping for idempotent ingestion.
+ *
+ * Each company has an in-memory bloom filter per table holding the natural keys
+ * stored so far. Ingestion only looks up keys the filter reports as possibly
+ * present, so the common case of new rows needs no database existence check.
+ * Every writer records keys before inserting their rows, so a rolled-back insert
+ * only leaves a false positive behind. Filters are built only once stored rows
+ * all have keys; until then every key is looked up. The unique constraints on
+ * the natural keys (see SchemaMaintenanceService) back this up in the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class IngestDeduplicationService {
+
+    private static final long MIN_EXPECTED_KEYS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+
+    private final EnergyUsageRepository energyUsageRepository;
+    private final EnergyIntervalRepository energyIntervalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, LayeredBloomFilter> filters = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private volatile boolean keysBackfilled;
+
+    public enum Scope {
+        USAGE, INTERVAL
+    }
+
+    /**
+     * The subset of keys that may already be stored; every other key is new.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> mightExist(Scope scope, UUID companyId, Collection<String> keys) {
+        if (!keysBackfilled) {
+            return new HashSet<>(keys);
+        }
+        LayeredBloomFilter filter = filterFor(scope, companyId);
+        Set<String> candidates = new HashSet<>();
+        for (String key : keys) {
+            if (filter.mightContain(key)) {
+                candidates.add(key);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Register keys about to be inserted.
+     */
+    @Transactional(readOnly = true)
+    public void record(Scope scope, UUID companyId, Collection<String> keys) {
+        if (!keysBackfilled) {
+            return; // Filters built later read these rows from the database
+        }
+        LayeredBloomFilter filter = filterFor(scope, companyId);
+        keys.forEach(filter::put);
+    }
+
+    /**
+     * Assign natural keys to usage rows stored before keys were set on persist,
+     * and re-key prorated slices stored before their key included the entered
+     * period, one page per transaction. Runs right after SchemaMaintenanceService.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillIngestKeys() {
+        long usages = 0;
+        Integer page;
+        do {
+            page = transactionTemplate.execute(status -> {
+                List<EnergyUsage> rows = energyUsageRepository.findWithoutIngestKey(
+                        PageRequest.of(0, BACKFILL_PAGE_SIZE));
+                assignKeys(rows);
+                energyUsageRepository.saveAll(rows);
+                return rows.size();
+            });
+            usages += page != null ? page : 0;
+        } while (page != null && page == BACKFILL_PAGE_SIZE);
+        for (Object[] group : energyUsageRepository.findPeriodGroupsWithoutStart()) {
+            usages += transactionTemplate.execute(status -> {
+                List<EnergyUsage> slices = energyUsageRepository.findByPeriodGroupId((UUID) group[0]);
+                slices.forEach(slice -> slice.setSourcePeriodStart((LocalDate) group[1]));
+                assignKeys(slices);
+                energyUsageRepository.saveAll(slices);
+                return slices.size();
+            });
+        }
+        keysBackfilled = true;
+        if (usages > 0) {
+            log.info("Backfilled ingest keys on {} energy usage rows", usages);
+        }
+    }
+
+    /**
+     * Set each row's natural key. Rows whose key another row already has keep
+     * the key made unique with their id: they were stored twice before keys
+     * existed, and the unique constraint only admits one of them.
+     */
+    private void assignKeys(List<EnergyUsage> rows) {
+        Map<UUID, List<EnergyUsage>> byCompany = rows.stream()
+                .collect(Collectors.groupingBy(row -> row.getCompany().getId()));
+        byCompany.forEach((companyId, companyRows) -> {
+            Set<String> taken = new HashSet<>();
+            energyUsageRepository.findByCompanyIdAndIngestKeyIn(companyId,
+                    companyRows.stream().map(EnergyUsage::naturalKey).collect(Collectors.toSet()))
+                    .forEach(stored -> taken.add(stored.getIngestKey()));
+            for (EnergyUsage row : companyRows) {
+                String key = row.naturalKey();
+                row.setIngestKey(taken.add(key) ? key : key + "|#" + row.getId());
+            }
+        });
+    }
+
+    private LayeredBloomFilter filterFor(Scope scope, UUID companyId) {
+        String id = scope + ":" + companyId;
+        LayeredBloomFilter filter = filters.get(id);
+        if (filter != null) {
+            return filter;
+        }
+        synchronized (loadLocks.computeIfAbsent(id, k -> new Object())) {
+            filter = filters.get(id);
+            if (filter == null) {
+                filter = load(scope, companyId);
+                filters.put(id, filter);
+            }
+            return filter;
+        }
+    }
+
+    private LayeredBloomFilter load(Scope scope, UUID companyId) {
+        long count = scope == Scope.USAGE
+                ? energyUsageRepository.countIngestKeys(companyId)
+                : energyIntervalRepository.countByCompanyId(companyId);
+        LayeredBloomFilter filter = new LayeredBloomFilter(Math.max(MIN_EXPECTED_KEYS, count * 2), FALSE_POSITIVE_RATE);
+        try (Stream<String> stored = scope == Scope.USAGE
+                ? energyUsageRepository.streamIngestKeys(companyId)
+                : energyIntervalRepository.streamNaturalKeys(companyId)
+                        .map(row -> EnergyInterval.naturalKey((LocalDateTime) row[0], (Short) row[1],
+                                (UUID) row[2], (String) row[3]))) {
+            stored.forEach(filter::put);
+        }
+        log.debug("Loaded {} {} ingest keys for company {}", count, scope, companyId);
+        return filter;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.MarketInstrumentDTO;
+import com.ecoai.entity.Company;
+import com.ecoai.entity.MarketInstrument;
+import com.ecoai.entity.MarketInstrument.InstrumentType;
+import com.ecoai.repository.CompanyRepository;
+import com.ecoai.repository.MarketInstrumentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Market-Based Scope 2 Instrument Service.
+ * 
+ * Resolves the market-based emission factor for a (company, region, day):
+ * certificates are applied first, then supplier contracts, and whatever share
+ * of consumption is left uncovered gets the residual mix (or the
+ * location-based intensity when no residual mix is configured).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class MarketInstrumentService {
+
+    public static final String BASIS_CERTIFICATE = "CERTIFICATE";
+    public static final String BASIS_SUPPLIER = "SUPPLIER_CONTRACT";
+    public static final String BASIS_RESIDUAL_MIX = "RESIDUAL_MIX";
+    public static final String BASIS_LOCATION_FALLBACK = "LOCATION_FALLBACK";
+    public static final String BASIS_BLENDED = "BLENDED";
+
+    private final MarketInstrumentRepository instrumentRepository;
+    private final CompanyRepository companyRepository;
+
+    private final Map<String, List<MarketInstrument>> instrumentCache = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve the market-based factor for one day.
+     * 
+     * @param locationFactor Location-based intensity for the same region and day (gCO₂/kWh)
+     */
+    @Transactional(readOnly = true)
+    public MarketFactor resolveFactor(UUID companyId, String region, LocalDate date, BigDecimal locationFactor) {
+        List<MarketInstrument> instruments = getInstruments(companyId, region);
+        if (instruments.isEmpty()) {
+            return new MarketFactor(locationFactor, BASIS_LOCATION_FALLBACK);
+        }
+
+        BigDecimal remaining = BigDecimal.ONE;
+        BigDecimal factor = BigDecimal.ZERO;
+        boolean usedCertificate = false;
+        boolean usedSupplier = false;
+        MarketInstrument residualMix = null;
+
+        for (MarketInstrument instrument : instruments) {
+            if (date != null && !instrument.isValidOn(date)) {
+                continue;
+            }
+            if (instrument.getInstrumentType() == InstrumentType.RESIDUAL_MIX) {
+                // Region-specific residual mix wins over a company-wide one
+                if (residualMix == null || (residualMix.getRegion() == null && instrument.getRegion() != null)) {
+                    residualMix = instrument;
+                }
+                continue;
+            }
+            if (remaining.signum() <= 0) {
+                continue;
+            }
+
+            BigDecimal coverage = instrument.getCoverageFraction() != null
+                    ? instrument.getCoverageFraction().min(remaining)
+                    : remaining;
+            factor = factor.add(coverage.multiply(instrument.getEmissionFactor()));
+            remaining = remaining.subtract(coverage);
+            usedCertificate |= instrument.getInstrumentType() == InstrumentType.ENERGY_ATTRIBUTE_CERTIFICATE;
+            usedSupplier |= instrument.getInstrumentType() == InstrumentType.SUPPLIER_CONTRACT;
+        }
+
+        BigDecimal remainderFactor = residualMix != null ? residualMix.getEmissionFactor() : locationFactor;
+        factor = factor.add(remaining.multiply(remainderFactor)).setScale(4, RoundingMode.HALF_UP);
+
+        String basis;
+        if (remaining.compareTo(BigDecimal.ONE) == 0) {
+            basis = residualMix != null ? BASIS_RESIDUAL_MIX : BASIS_LOCATION_FALLBACK;
+        } else if (remaining.signum() == 0 && usedCertificate != usedSupplier) {
+            basis = usedCertificate ? BASIS_CERTIFICATE : BASIS_SUPPLIER;
+        } else {
+            basis = BASIS_BLENDED;
+        }
+        return new MarketFactor(factor, basis);
+    }
+
+    /**
+     * Add a market instrument for a company.
+     */
+    public MarketInstrumentDTO createInstrument(UUID companyId, MarketInstrumentDTO dto) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+
+        if (dto.getInstrumentType() == null) {
+            throw new RuntimeException("instrumentType is required");
+        }
+        if (dto.getCoverageFraction() != null && (dto.getCoverageFraction().signum() < 0
+                || dto.getCoverageFraction().compareTo(BigDecimal.ONE) > 0)) {
+            throw new RuntimeException("coverageFraction must be between 0 and 1: " + dto.getCoverageFraction());
+        }
+
+        MarketInstrument instrument = MarketInstrument.builder()
+                .company(company)
+                .name(dto.getName())
+                .instrumentType(dto.getInstrumentType())
+                .region(dto.getRegion())
+                .emissionFactor(dto.getEmissionFactor() != null ? dto.getEmissionFactor() : BigDecimal.ZERO)
+                .coverageFraction(dto.getCoverageFraction() != null ? dto.getCoverageFraction() : BigDecimal.ONE)
+                .validFrom(dto.getValidFrom())
+                .validTo(dto.getValidTo())
+                .build();
+
+        MarketInstrument saved = instrumentRepository.save(instrument);
+        invalidate(companyId);
+        return mapToDTO(saved);
+    }
+
+    /**
+     * Get all market instruments for a company.
+     */
+    @Transactional(readOnly = true)
+    public List<MarketInstrumentDTO> getInstrumentsByCompany(UUID companyId) {
+        return instrumentRepository.findByCompanyId(companyId).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Delete a market instrument. Returns the deleted instrument.
+     */
+    public MarketInstrumentDTO deleteInstrument(UUID companyId, UUID instrumentId) {
+        MarketInstrument instrument = instrumentRepository.findById(instrumentId)
+                .filter(i -> i.getCompany().getId().equals(companyId))
+                .orElseThrow(() -> new RuntimeException("Market instrument not found: " + instrumentId));
+
+        instrumentRepository.delete(instrument);
+        invalidate(companyId);
+        return mapToDTO(instrument);
+    }
+
+    private List<MarketInstrument> getInstruments(UUID companyId, String region) {
+        return instrumentCache.computeIfAbsent(companyId + ":" + region, key -> instrumentRepository
+                .findApplicable(companyId, region).stream()
+                .sorted(Comparator.comparing(MarketInstrument::getInstrumentType))
+                .toList());
+    }
+
+    private void invalidate(UUID companyId) {
+        String prefix = companyId + ":";
+        instrumentCache.keySet().removeIf(key -> key.startsWith(prefix));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    instrumentCache.keySet().removeIf(key -> key.startsWith(prefix));
+                }
+            });
+        }
+    }
+
+    private MarketInstrumentDTO mapToDTO(MarketInstrument instrument) {
+        return MarketInstrumentDTO.builder()
+                .id(instrument.getId())
+                .companyId(instrument.getCompany().getId())
+                .name(instrument.getName())
+                .instrumentType(instrument.getInstrumentType())
+                .region(instrument.getRegion())
+                .emissionFactor(instrument.getEmissionFactor())
+                .coverageFraction(instrument.getCoverageFraction())
+                .validFrom(instrument.getValidFrom())
+                .validTo(instrument.getValidTo())
+                .build();
+    }
+
+    /**
+     * Resolved market-based factor (gCO₂/kWh) and the basis it came from.
+     */
+    public record MarketFactor(BigDecimal factor, String basis) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecoai.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Schema changes that ddl-auto=update does not make on its own.
+ *
+ * Hibernate only ever adds tables and indexes, so an index replaced by one with
+ * a different name or column order stays behind (and is maintained on every
+ * write) until it is dropped here, and data in a replaced table has to be
+ * copied over here. Unique constraints that need data fixed up first, or
+ * NULLS NOT DISTINCT, are added here too. Runs before the other startup work.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class SchemaMaintenanceService {
+
+    /**
+     * Indexes superseded by a differently ordered one on the same table.
+     */
+    private static final List<String> OBSOLETE_INDEXES = List.of(
+            "idx_telemetry_company_rollup", // Now (rollup_batch, company_id)
+            "idx_energy_usage_company_ingest_key"); // Covered by uk_energy_usage_ingest_key
+
+    /**
+     * Must match the allocationSize of EnergyInterval's id generator.
+     */
+    private static final int METER_INTERVAL_ID_ALLOCATION = 500;
+
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrateSchema() {
+        migrateEnergyIntervals();
+        addEnergyUsageKeyConstraint();
+        entityManager.createNativeQuery("ALTER TABLE meter_intervals ADD CONSTRAINT IF NOT EXISTS uk_meter_interval " +
+                "UNIQUE NULLS NOT DISTINCT (company_id, interval_start, interval_minutes, department_id, region)")
+                .executeUpdate();
+        for (String index : OBSOLETE_INDEXES) {
+            entityManager.createNativeQuery("DROP INDEX IF EXISTS " + index).executeUpdate();
+        }
+        log.debug("Dropped obsolete indexes {}", OBSOLETE_INDEXES);
+    }
+
+    /**
+     * Make ingest keys unique per company in the database, so idempotent
+     * ingestion does not rest on the in-process locks and key filters alone.
+     * Rows that share a key were stored twice before the constraint existed;
+     * all but the oldest get their id appended to the key to stay admissible.
+     */
+    private void addEnergyUsageKeyConstraint() {
+        if (exists("TABLE_CONSTRAINTS", "CONSTRAINT_NAME", "UK_ENERGY_USAGE_INGEST_KEY")) {
+            return;
+        }
+        int rekeyed = entityManager.createNativeQuery("UPDATE energy_usage SET ingest_key = ingest_key || '|#' || id " +
+                "WHERE id IN (SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY company_id, ingest_key " +
+                "ORDER BY created_at, id) AS copy FROM energy_usage WHERE ingest_key IS NOT NULL) WHERE copy > 1)")
+                .executeUpdate();
+        if (rekeyed > 0) {
+            log.warn("Re-keyed {} energy usage rows duplicating another row's ingest key", rekeyed);
+        }
+        entityManager.createNativeQuery("ALTER TABLE energy_usage ADD CONSTRAINT " +
+                "uk_energy_usage_ingest_key UNIQUE (ingest_key, company_id)").executeUpdate();
+    }
+
+    /**
+     * Copy the legacy energy_intervals table (UUID ids, zone name and key string
+     * per row) into meter_intervals, keeping the first of any rows sharing a
+     * natural key, then drop it. Ids follow interval start and the id sequence
+     * is moved past them.
+     */
+    private void migrateEnergyIntervals() {
+        if (!exists("TABLES", "TABLE_NAME", "ENERGY_INTERVALS")) {
+            return;
+        }
+        entityManager.createNativeQuery("INSERT INTO meter_zones (zone_id) SELECT DISTINCT timezone " +
+                "FROM energy_intervals WHERE timezone NOT IN (SELECT zone_id FROM meter_zones)").executeUpdate();
+        long base = ((Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM meter_intervals")
+                .getSingleResult()).longValue();
+        int copied = entityManager.createNativeQuery("INSERT INTO meter_intervals (id, company_id, department_id, " +
+                "region, interval_start, interval_minutes, zone_id, usage_date, kwh, rollup_batch) " +
+                "SELECT :base + ROW_NUMBER() OVER (ORDER BY l.interval_start, l.id), l.company_id, " +
+                "l.department_id, l.region, l.interval_start, l.interval_minutes, z.id, l.usage_date, l.kwh, " +
+                "l.rollup_batch FROM (SELECT i.*, ROW_NUMBER() OVER (PARTITION BY i.company_id, i.interval_start, " +
+                "i.interval_minutes, i.department_id, i.region ORDER BY i.id) AS copy FROM energy_intervals i) l " +
+                "JOIN meter_zones z ON z.zone_id = l.timezone WHERE l.copy = 1")
+                .setParameter("base", base)
+                .executeUpdate();
+        entityManager.createNativeQuery("ALTER SEQUENCE meter_interval_seq RESTART WITH "
+                + (base + copied + METER_INTERVAL_ID_ALLOCATION)).executeUpdate();
+        entityManager.createNativeQuery("DROP TABLE energy_intervals").executeUpdate();
+        log.info("Migrated {} meter intervals from energy_intervals to meter_intervals", copied);
+    }
+
+    private boolean exists(String view, String nameColumn, String name) {
+        Number count = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA." + view +
+                " WHERE TABLE_SCHEMA = SCHEMA() AND " + nameColumn + " = :name")
+                .setParameter("name", name)
+                .getSingleResult();
+        return count.intValue() > 0;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.CacheStatsDTO;
+import com.ecoai.dto.SweepDTO;
+import com.ecoai.util.LruCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Simulation Result Cache.
+ * 
+ * Results are keyed by (company, simulation type, normalized parameters, company
+ * data version, baseline date). Any ingestion bumps the data version through
+ * {@link DataVersionService}, so stale results are never served; entries for
+ * superseded versions are dropped the next time the company is simulated, and
+ * the LRU bound takes care of the rest.
+ */
+@Service
+@Slf4j
+public class SimulationCacheService {
+
+    private static final long BASE_ENTRY_BYTES = 2_048;
+
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final LruCache<CacheKey, Object> cache;
+    private final Map<UUID, Long> lastSeenVersion = new ConcurrentHashMap<>();
+    private final Map<UUID, CompanyCounters> companyCounters = new ConcurrentHashMap<>();
+
+    public SimulationCacheService(DataVersionService dataVersionService, ObjectMapper objectMapper,
+            @Value("${app.simulation.cache.max-entries:1000}") int maxEntries,
+            @Value("${app.simulation.cache.max-weight-mb:64}") long maxWeightMb) {
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
+        this.cache = new LruCache<>(maxEntries, maxWeightMb * 1024 * 1024, SimulationCacheService::estimateBytes);
+    }
+
+    private record CacheKey(UUID companyId, String type, String params, long dataVersion, LocalDate asOf) {
+    }
+
+    private static final class CompanyCounters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+    }
+
+    /**
+     * Return the cached result for these parameters, or compute and cache it.
+     * The data version is read before computing, so a result computed while new
+     * data arrives is stored under the old version and never served again.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(UUID companyId, String type, Object params, Supplier<T> compute) {
+        long version = dataVersionService.currentVersion(companyId);
+        evictSupersededVersions(companyId, version);
+
+        CacheKey key = new CacheKey(companyId, type, normalize(params), version, LocalDate.now());
+        Object cached = cache.get(key);
+        CompanyCounters counters = countersFor(companyId);
+        if (cached != null) {
+            counters.hits.increment();
+            return (T) cached;
+        }
+        counters.misses.increment();
+        T result = compute.get();
+        if (result != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Cache metrics of one company. The cache is shared between companies, so
+     * evictions and retained size are not reported per company; maxEntries and
+     * maxWeightBytes are the shared bounds.
+     */
+    public CacheStatsDTO getStats(UUID companyId) {
+        CompanyCounters counters = countersFor(companyId);
+        long hits = counters.hits.sum();
+        long misses = counters.misses.sum();
+        LruCache.Stats stats = cache.stats();
+        return CacheStatsDTO.builder()
+                .cache("simulation-results")
+                .companyId(companyId)
+                .hits(hits)
+                .misses(misses)
+                .hitRatio(BigDecimal.valueOf(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                        .setScale(4, RoundingMode.HALF_UP))
+                .invalidations(counters.invalidations.sum())
+                .entries(cache.countIf(k -> k.companyId().equals(companyId)))
+                .maxEntries(stats.maxEntries())
+                .maxWeightBytes(stats.maxWeight())
+                .build();
+    }
+
+    private CompanyCounters countersFor(UUID companyId) {
+        return companyCounters.computeIfAbsent(companyId, id -> new CompanyCounters());
+    }
+
+    private void evictSupersededVersions(UUID companyId, long version) {
+        Long previous = lastSeenVersion.put(companyId, version);
+        if (previous != null && previous < version) {
+            int removed = cache.invalidateIf(k -> k.companyId().equals(companyId) && k.dataVersion() < version);
+            countersFor(companyId).invalidations.add(removed);
+            log.debug("Dropped {} cached simulations for company {} (data version {} -> {})",
+                    removed, companyId, previous, version);
+        }
+    }
+
+    /**
+     * Canonical form of the parameters: keys sorted, nulls dropped, numbers
+     * compared by value (20 == 20.0), so equivalent requests share an entry.
+     */
+    private String normalize(Object params) {
+        if (params == null) {
+            return "";
+        }
+        return String.valueOf(canonical(objectMapper.valueToTree(params)));
+    }
+
+    private Object canonical(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            BigDecimal value = node.decimalValue().stripTrailingZeros();
+            return value.signum() == 0 ? "0" : value.toPlainString();
+        }
+        if (node.isObject()) {
+            Map<String, Object> sorted = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                Object value = canonical(field.getValue());
+                if (value != null) {
+                    sorted.put(field.getKey(), value);
+                }
+            }
+            return sorted;
+        }
+        if (node.isArray()) {
+            List<Object> items = new ArrayList<>();
+            node.forEach(item -> items.add(canonical(item)));
+            return items;
+        }
+        return node.asText();
+    }
+
+    /**
+     * Rough retained size: a fixed overhead plus the result matrices of sweeps.
+     */
+    private static long estimateBytes(Object result) {
+        if (result instanceof SweepDTO sweep && sweep.getCells() != null) {
+            return BASE_ENTRY_BYTES + (long) sweep.getCells() * Double.BYTES * 2;
+        }
+        return BASE_ENTRY_BYTES;
+    }
+}
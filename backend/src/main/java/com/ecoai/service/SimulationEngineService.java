@@ -1,6 +1,27 @@
 package com.ecoai.service;
 
+import com.ecoai.dto.CustomSimulationDTO;
+import com.ecoai.dto.DistributionSpecDTO;
+import com.ecoai.dto.GoalSeekDTO;
+import com.ecoai.dto.LatencyGroupDTO;
+import com.ecoai.dto.MonteCarloDTO;
+import com.ecoai.dto.PathwayDTO;
+import com.ecoai.dto.PathwayMeasureDTO;
+import com.ecoai.dto.PathwayPlanDTO;
+import com.ecoai.dto.PercentileSummaryDTO;
+import com.ecoai.dto.ProjectionDTO;
+import com.ecoai.dto.ProjectionSeriesDTO;
+import com.ecoai.dto.RegionAllocationDTO;
+import com.ecoai.dto.RegionMixDTO;
+import com.ecoai.dto.ScenarioComparisonDTO;
+import com.ecoai.dto.ScenarioDiffDTO;
+import com.ecoai.dto.ScenarioStageDTO;
+import com.ecoai.dto.SensitivityDTO;
+import com.ecoai.dto.SensitivityInputDTO;
+import com.ecoai.dto.SimulationBreakdownDTO;
 import com.ecoai.dto.SimulationDTO;
+import com.ecoai.dto.SweepDTO;
+import com.ecoai.dto.SweepRangeDTO;
 import com.ecoai.entity.Company;
 import com.ecoai.entity.SimulationScenario;
 import com.ecoai.entity.SimulationScenario.SimulationType;
@@ -8,20 +29,44 @@ import com.ecoai.repository.CompanyRepository;
 import com.ecoai.repository.EnergyUsageRepository;
 import com.ecoai.repository.SimulationScenarioRepository;
 import com.ecoai.util.CarbonIntensityDefaults;
+import com.ecoai.util.GoalSeeker;
+import com.ecoai.util.MonteCarloSimulator;
+import com.ecoai.util.MonteCarloSimulator.Distribution;
+import com.ecoai.util.PathwayPlanner;
+import com.ecoai.util.ProjectionEngine;
+import com.ecoai.util.RegionMixOptimizer;
+import com.ecoai.util.ScenarioPipeline;
+import com.ecoai.util.SensitivityAnalyzer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * What-If Simulation Engine Service.
@@ -31,6 +76,14 @@ import java.util.stream.Collectors;
  * - "What if AI usage grows 20%?"
  * - "What if workloads move to EU?"
  * - "What if we improve efficiency by 15%?"
+ * 
+ * Monte Carlo mode samples growth, efficiency, intensity and price from
+ * distributions and reports percentiles instead of a single point estimate.
+ * Sweeps evaluate a whole growth × efficiency × region grid against one baseline,
+ * and the region-mix optimizer splits load across regions under constraints.
+ * Monthly projections compound each scenario from a seasonal baseline built
+ * from history; CUSTOM simulations chain growth / efficiency / region-move
+ * stages over a department × region baseline. Results are cached per parameters and company data version.
  */
 @Service
 @RequiredArgsConstructor
@@ -43,15 +96,38 @@ public class SimulationEngineService {
     private final CompanyRepository companyRepository;
     private final CarbonCalculationService carbonCalculationService;
     private final ObjectMapper objectMapper;
+    private final SimulationCacheService simulationCacheService;
+
+    private static final int DEFAULT_TRIALS = 100_000;
+    private static final int MAX_TRIALS = 2_000_000;
+    private static final int MAX_SWEEP_AXIS = 1_000;
+    private static final int MAX_SWEEP_CELLS = 1_000_000;
+    private static final int MAX_PROJECTION_MONTHS = 240;
+    private static final int MAX_PATHWAY_YEARS = 50;
+    private static final int MAX_PATHWAYS = 1_000;
+    private static final double MAX_GOAL_SEEK_GROWTH = 50; // Monthly %, both directions
+    private static final int SEASONAL_HISTORY_MONTHS = 36;
+    private static final int MAX_SCENARIO_PAGE = 500;
 
     /**
      * Simulate AI usage growth scenario.
      * "What if AI usage grows by X%?"
      */
     public SimulationDTO simulateGrowth(UUID companyId, BigDecimal growthPercent, Integer monthsAhead) {
+        int months = projectionMonths(monthsAhead);
+        return simulationCacheService.getOrCompute(companyId, SimulationType.GROWTH.name(),
+                cacheParams("growthPercent", growthPercent, "monthsAhead", months),
+                () -> computeGrowth(companyId, growthPercent, months));
+    }
+
+    /**
+     * Baseline is the last 30 days of AI usage; the projected figures are the
+     * final month of the seasonal month-by-month path, so both agree.
+     */
+    private SimulationDTO computeGrowth(UUID companyId, BigDecimal growthPercent, int months) {
         Company company = getCompany(companyId);
 
-        // Get baseline values (last 30 days average extrapolated)
+        // Get baseline values (last 30 days)
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(30);
 
@@ -60,37 +136,48 @@ public class SimulationEngineService {
         if (baselineAiKwh == null)
             baselineAiKwh = new BigDecimal("1000"); // Default for demo
 
-        // Project for specified months
-        BigDecimal monthlyBaseline = baselineAiKwh; // Assuming 30-day data
-        BigDecimal projectedMonths = new BigDecimal(monthsAhead != null ? monthsAhead : 12);
-
-        // Apply growth: baseline × (1 + growth%) ^ months
-        BigDecimal growthMultiplier = BigDecimal.ONE.add(
-                growthPercent.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
-        BigDecimal projectedAiKwh = monthlyBaseline
-                .multiply(growthMultiplier.pow(monthsAhead != null ? monthsAhead : 12))
-                .setScale(2, RoundingMode.HALF_UP);
-
-        // Calculate carbon impact
+        // Calculate carbon and cost of the baseline
         BigDecimal carbonIntensity = carbonCalculationService.getEffectiveCarbonIntensity(
                 companyId, company.getRegion());
         BigDecimal baselineCo2eKg = baselineAiKwh.multiply(carbonIntensity)
                 .divide(new BigDecimal("1000"), 2, RoundingMode.HALF_UP);
-        BigDecimal projectedCo2eKg = projectedAiKwh.multiply(carbonIntensity)
-                .divide(new BigDecimal("1000"), 2, RoundingMode.HALF_UP);
-
-        // Calculate cost impact
         BigDecimal baselineCost = baselineAiKwh.multiply(company.getElectricityCostPerKwh())
                 .setScale(2, RoundingMode.HALF_UP);
-        BigDecimal projectedCost = projectedAiKwh.multiply(company.getElectricityCostPerKwh())
-                .setScale(2, RoundingMode.HALF_UP);
 
-        return buildSimulationDTO(
+        // Month-by-month path from the seasonal baseline
+        ProjectionDTO path = computeProjection(companyId, ProjectionDTO.builder()
+                .horizonMonths(months)
+                .scenarios(List.of(ProjectionSeriesDTO.builder()
+                        .name("Growth " + growthPercent + "%")
+                        .growthPercent(growthPercent)
+                        .build()))
+                .build());
+        ProjectionSeriesDTO series = path.getScenarios().get(0);
+        int last = months - 1;
+        BigDecimal projectedAiKwh = BigDecimal.valueOf(series.getAiKwh()[last]).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal projectedCo2eKg = BigDecimal.valueOf(series.getCo2eKg()[last]).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal projectedCost = BigDecimal.valueOf(series.getCost()[last]).setScale(2, RoundingMode.HALF_UP);
+
+        SimulationDTO result = buildSimulationDTO(
                 SimulationType.GROWTH,
-                "AI Growth Simulation (" + growthPercent + "% over " + monthsAhead + " months)",
+                "AI Growth Simulation (" + growthPercent + "% over " + months + " months)",
                 baselineAiKwh, baselineCo2eKg, baselineCost,
                 projectedAiKwh, projectedCo2eKg, projectedCost,
-                growthPercent, null, null, null, monthsAhead);
+                growthPercent, null, null, null, months);
+        result.setProjectionMonths(path.getMonths());
+        result.setMonthlySeries(series);
+        return result;
+    }
+
+    /**
+     * Requested projection length in months, defaulting to a year.
+     */
+    private int projectionMonths(Integer monthsAhead) {
+        int months = monthsAhead != null ? monthsAhead : 12;
+        if (months < 1 || months > MAX_PROJECTION_MONTHS) {
+            throw new RuntimeException("monthsAhead must be between 1 and " + MAX_PROJECTION_MONTHS + ": " + months);
+        }
+        return months;
     }
 
     /**
@@ -98,6 +185,12 @@ public class SimulationEngineService {
      * "What if workloads move from region A to region B?"
      */
     public SimulationDTO simulateRegionChange(UUID companyId, String fromRegion, String toRegion) {
+        return simulationCacheService.getOrCompute(companyId, SimulationType.REGION_CHANGE.name(),
+                cacheParams("fromRegion", fromRegion, "toRegion", toRegion),
+                () -> computeRegionChange(companyId, fromRegion, toRegion));
+    }
+
+    private SimulationDTO computeRegionChange(UUID companyId, String fromRegion, String toRegion) {
         Company company = getCompany(companyId);
 
         // Get current AI usage
@@ -140,6 +233,12 @@ public class SimulationEngineService {
      * "What if we improve AI efficiency by X%?"
      */
     public SimulationDTO simulateEfficiency(UUID companyId, BigDecimal efficiencyPercent) {
+        return simulationCacheService.getOrCompute(companyId, SimulationType.EFFICIENCY.name(),
+                cacheParams("efficiencyPercent", efficiencyPercent),
+                () -> computeEfficiency(companyId, efficiencyPercent));
+    }
+
+    private SimulationDTO computeEfficiency(UUID companyId, BigDecimal efficiencyPercent) {
         Company company = getCompany(companyId);
 
         // Get current AI usage
@@ -178,39 +277,892 @@ public class SimulationEngineService {
                 null, null, null, efficiencyPercent, null);
     }
 
+    /**
+     * Monte Carlo projection: "What range of outcomes do we face if growth,
+     * efficiency, grid intensity and price are all uncertain?"
+     */
+    @Transactional(readOnly = true)
+    public MonteCarloDTO simulateMonteCarlo(UUID companyId, MonteCarloDTO request) {
+        if (request.getSeed() == null) {
+            return computeMonteCarlo(companyId, request); // Unseeded runs are not reproducible
+        }
+        return simulationCacheService.getOrCompute(companyId, "MONTE_CARLO", request,
+                () -> computeMonteCarlo(companyId, request));
+    }
+
+    private MonteCarloDTO computeMonteCarlo(UUID companyId, MonteCarloDTO request) {
+        SimulationBaseline baseline = loadBaseline(companyId);
+
+        int trials = request.getTrials() != null ? request.getTrials() : DEFAULT_TRIALS;
+        if (trials < 1 || trials > MAX_TRIALS) {
+            throw new RuntimeException("Trials must be between 1 and " + MAX_TRIALS);
+        }
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        int months = projectionMonths(request.getMonthsAhead());
+
+        MonteCarloSimulator.Model model = new MonteCarloSimulator.Model(
+                baseline.aiKwh(), months,
+                toDistribution(request.getGrowthPercent(), 0.0),
+                toDistribution(request.getEfficiencyPercent(), 0.0),
+                toDistribution(request.getCarbonIntensity(), baseline.carbonIntensity()),
+                toDistribution(request.getPricePerKwh(), baseline.costPerKwh()));
+
+        long started = System.nanoTime();
+        MonteCarloSimulator.Outcomes outcomes = MonteCarloSimulator.run(model, trials, seed);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Monte Carlo for company {}: {} trials in {} ms (seed {})", companyId, trials, elapsedMs, seed);
+
+        return MonteCarloDTO.builder()
+                .companyId(companyId)
+                .trials(trials)
+                .seed(seed)
+                .monthsAhead(months)
+                .growthPercent(request.getGrowthPercent())
+                .efficiencyPercent(request.getEfficiencyPercent())
+                .carbonIntensity(request.getCarbonIntensity())
+                .pricePerKwh(request.getPricePerKwh())
+                .baselineAiKwh(round(baseline.aiKwh()))
+                .baselineCo2eKg(round(baseline.aiKwh() * baseline.carbonIntensity() / 1000.0))
+                .baselineCost(round(baseline.aiKwh() * baseline.costPerKwh()))
+                .projectedAiKwh(summarize(outcomes.kwh()))
+                .projectedCo2eKg(summarize(outcomes.co2eKg()))
+                .projectedCost(summarize(outcomes.cost()))
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    /**
+     * Parameter sweep: growth × efficiency × target region in one call.
+     * The baseline and region intensities are loaded once; the grid itself is
+     * plain double arithmetic, evaluated in parallel over (region, growth) rows.
+     */
+    @Transactional(readOnly = true)
+    public SweepDTO simulateSweep(UUID companyId, SweepDTO request) {
+        return simulationCacheService.getOrCompute(companyId, "SWEEP", request,
+                () -> computeSweep(companyId, request));
+    }
+
+    private SweepDTO computeSweep(UUID companyId, SweepDTO request) {
+        SimulationBaseline baseline = loadBaseline(companyId);
+
+        double[] growth = expandAxis(request.getGrowthPercent(), "growthPercent");
+        double[] efficiency = expandAxis(request.getEfficiencyPercent(), "efficiencyPercent");
+        List<String> regions = request.getRegions() != null && !request.getRegions().isEmpty()
+                ? request.getRegions()
+                : List.of(baseline.region());
+        int months = projectionMonths(request.getMonthsAhead());
+
+        long cells = (long) growth.length * efficiency.length * regions.size();
+        if (cells > MAX_SWEEP_CELLS) {
+            throw new RuntimeException("Sweep too large: " + cells + " cells (max " + MAX_SWEEP_CELLS + ")");
+        }
+
+        double[] intensities = regions.stream()
+                .mapToDouble(r -> carbonCalculationService.getEffectiveCarbonIntensity(companyId, r).doubleValue())
+                .toArray();
+
+        long started = System.nanoTime();
+        double[] growthFactor = new double[growth.length];
+        for (int g = 0; g < growth.length; g++) {
+            growthFactor[g] = baseline.aiKwh() * Math.pow(1 + growth[g] / 100.0, months);
+        }
+        double[] efficiencyFactor = new double[efficiency.length];
+        for (int e = 0; e < efficiency.length; e++) {
+            efficiencyFactor[e] = Math.max(0, 1 - efficiency[e] / 100.0);
+        }
+
+        double[][] kwh = new double[growth.length][efficiency.length];
+        double[][] cost = new double[growth.length][efficiency.length];
+        double[][][] co2e = new double[regions.size()][growth.length][efficiency.length];
+        double price = baseline.costPerKwh();
+
+        IntStream.range(0, growth.length).parallel().forEach(g -> {
+            double[] kwhRow = kwh[g];
+            double[] costRow = cost[g];
+            for (int e = 0; e < efficiency.length; e++) {
+                kwhRow[e] = growthFactor[g] * efficiencyFactor[e];
+                costRow[e] = round2(kwhRow[e] * price);
+            }
+            for (int r = 0; r < intensities.length; r++) {
+                double[] co2eRow = co2e[r][g];
+                double perKwh = intensities[r] / 1000.0;
+                for (int e = 0; e < efficiency.length; e++) {
+                    co2eRow[e] = round2(kwhRow[e] * perKwh);
+                }
+            }
+            for (int e = 0; e < efficiency.length; e++) {
+                kwhRow[e] = round2(kwhRow[e]);
+            }
+        });
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        return SweepDTO.builder()
+                .companyId(companyId)
+                .growthPercent(request.getGrowthPercent())
+                .efficiencyPercent(request.getEfficiencyPercent())
+                .regions(regions)
+                .monthsAhead(months)
+                .baselineAiKwh(round(baseline.aiKwh()))
+                .baselineCo2eKg(round(baseline.aiKwh() * baseline.carbonIntensity() / 1000.0))
+                .baselineCost(round(baseline.aiKwh() * baseline.costPerKwh()))
+                .growthValues(growth)
+                .efficiencyValues(efficiency)
+                .regionIntensities(intensities)
+                .aiKwh(kwh)
+                .cost(cost)
+                .co2eKg(co2e)
+                .cells((int) cells)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    /**
+     * Region-mix optimization: "What split of AI load across these regions
+     * minimises carbon (or cost) within capacity, latency and budget limits?"
+     */
+    @Transactional(readOnly = true)
+    public RegionMixDTO optimizeRegionMix(UUID companyId, RegionMixDTO request) {
+        return simulationCacheService.getOrCompute(companyId, "REGION_MIX", request,
+                () -> computeRegionMix(companyId, request));
+    }
+
+    private RegionMixDTO computeRegionMix(UUID companyId, RegionMixDTO request) {
+        SimulationBaseline baseline = loadBaseline(companyId);
+        List<RegionAllocationDTO> candidates = request.getRegions();
+        if (candidates == null || candidates.isEmpty()) {
+            throw new RuntimeException("At least one candidate region is required");
+        }
+        boolean costObjective = "COST".equalsIgnoreCase(request.getObjective());
+        double total = request.getTotalAiKwh() != null ? request.getTotalAiKwh().doubleValue() : baseline.aiKwh();
+
+        int n = candidates.size();
+        Map<String, Integer> index = new HashMap<>();
+        double[] intensity = new double[n];
+        double[] price = new double[n];
+        double[] capacity = new double[n];
+        for (int r = 0; r < n; r++) {
+            RegionAllocationDTO c = candidates.get(r);
+            if (index.put(c.getRegion(), r) != null) {
+                throw new RuntimeException("Duplicate candidate region: " + c.getRegion());
+            }
+            intensity[r] = c.getCarbonIntensity() != null
+                    ? c.getCarbonIntensity().doubleValue()
+                    : carbonCalculationService.getEffectiveCarbonIntensity(companyId, c.getRegion()).doubleValue();
+            price[r] = c.getPricePerKwh() != null ? c.getPricePerKwh().doubleValue() : baseline.costPerKwh();
+            capacity[r] = Double.POSITIVE_INFINITY;
+            if (c.getMaxKwh() != null)
+                capacity[r] = Math.min(capacity[r], c.getMaxKwh().doubleValue());
+            if (c.getMaxSharePercent() != null)
+                capacity[r] = Math.min(capacity[r], total * c.getMaxSharePercent().doubleValue() / 100.0);
+        }
+
+        List<LatencyGroupDTO> groups = request.getLatencyGroups() != null ? request.getLatencyGroups() : List.of();
+        int[] groupOf = new int[n];
+        Arrays.fill(groupOf, -1);
+        double[] groupMin = new double[groups.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            LatencyGroupDTO group = groups.get(g);
+            groupMin[g] = group.getMinSharePercent() != null
+                    ? total * group.getMinSharePercent().doubleValue() / 100.0
+                    : 0.0;
+            for (String region : group.getRegions() != null ? group.getRegions() : List.<String>of()) {
+                Integer r = index.get(region);
+                if (r == null)
+                    throw new RuntimeException("Latency group region is not a candidate: " + region);
+                if (groupOf[r] >= 0)
+                    throw new RuntimeException("Region " + region + " is in more than one latency group");
+                groupOf[r] = g;
+            }
+        }
+
+        double ceiling = request.getCostCeiling() != null
+                ? request.getCostCeiling().doubleValue()
+                : Double.POSITIVE_INFINITY;
+
+        long started = System.nanoTime();
+        RegionMixOptimizer.Solution solution = RegionMixOptimizer.solve(total,
+                costObjective ? price : intensity, price, capacity, groupOf, groupMin, ceiling);
+        long elapsedMicros = (System.nanoTime() - started) / 1_000;
+
+        double baselineCo2e = total * baseline.carbonIntensity() / 1000.0;
+        double baselineCost = total * baseline.costPerKwh();
+        RegionMixDTO.RegionMixDTOBuilder result = RegionMixDTO.builder()
+                .companyId(companyId)
+                .objective(costObjective ? "COST" : "CARBON")
+                .totalAiKwh(round(total))
+                .costCeiling(request.getCostCeiling())
+                .latencyGroups(groups)
+                .baselineRegion(baseline.region())
+                .baselineCo2eKg(round(baselineCo2e))
+                .baselineCost(round(baselineCost))
+                .feasible(solution.feasible())
+                .message(solution.message())
+                .elapsedMicros(elapsedMicros);
+
+        double[] x = solution.allocation();
+        if (x.length == 0) {
+            return result.regions(candidates).build();
+        }
+
+        List<RegionAllocationDTO> allocations = new ArrayList<>();
+        double totalCo2e = 0;
+        for (int r = 0; r < n; r++) {
+            RegionAllocationDTO c = candidates.get(r);
+            double co2e = x[r] * intensity[r] / 1000.0;
+            totalCo2e += co2e;
+            allocations.add(RegionAllocationDTO.builder()
+                    .region(c.getRegion())
+                    .maxKwh(c.getMaxKwh())
+                    .maxSharePercent(c.getMaxSharePercent())
+                    .carbonIntensity(BigDecimal.valueOf(intensity[r]))
+                    .pricePerKwh(BigDecimal.valueOf(price[r]))
+                    .allocatedKwh(round(x[r]))
+                    .sharePercent(round(total > 0 ? x[r] * 100.0 / total : 0.0))
+                    .co2eKg(round(co2e))
+                    .cost(round(x[r] * price[r]))
+                    .build());
+        }
+        double totalCost = RegionMixOptimizer.cost(x, price);
+
+        return result
+                .regions(allocations)
+                .totalCo2eKg(round(totalCo2e))
+                .totalCost(round(totalCost))
+                .carbonDeltaKg(round(totalCo2e - baselineCo2e))
+                .costDelta(round(totalCost - baselineCost))
+                .build();
+    }
+
+    /**
+     * Monthly projection: the full month-by-month path of one or more scenarios,
+     * with cumulative CO₂e, starting from a seasonal baseline built from history.
+     */
+    @Transactional(readOnly = true)
+    public ProjectionDTO simulateProjection(UUID companyId, ProjectionDTO request) {
+        return simulationCacheService.getOrCompute(companyId, "PROJECTION", request,
+                () -> computeProjection(companyId, request));
+    }
+
+    private ProjectionDTO computeProjection(UUID companyId, ProjectionDTO request) {
+        Company company = getCompany(companyId);
+        int horizon = request.getHorizonMonths() != null ? request.getHorizonMonths() : 12;
+        if (horizon < 1 || horizon > MAX_PROJECTION_MONTHS) {
+            throw new RuntimeException("Horizon must be between 1 and " + MAX_PROJECTION_MONTHS + " months");
+        }
+        List<ProjectionSeriesDTO> specs = request.getScenarios() != null && !request.getScenarios().isEmpty()
+                ? request.getScenarios()
+                : List.of(ProjectionSeriesDTO.builder().name("Baseline").build());
+
+        SeasonalBaseline seasonal = loadSeasonalBaseline(companyId);
+
+        int n = specs.size();
+        double[] growth = new double[n];
+        double[] efficiency = new double[n];
+        double[] intensity = new double[n];
+        double[] price = new double[n];
+        Map<String, Double> intensityByRegion = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ProjectionSeriesDTO spec = specs.get(i);
+            String region = spec.getRegion() != null ? spec.getRegion() : company.getRegion();
+            growth[i] = spec.getGrowthPercent() != null ? spec.getGrowthPercent().doubleValue() / 100.0 : 0.0;
+            efficiency[i] = spec.getEfficiencyPercent() != null
+                    ? spec.getEfficiencyPercent().doubleValue() / 100.0
+                    : 0.0;
+            intensity[i] = intensityByRegion.computeIfAbsent(region, r -> carbonCalculationService
+                    .getEffectiveCarbonIntensity(companyId, r).doubleValue());
+            price[i] = company.getElectricityCostPerKwh().doubleValue();
+        }
+
+        YearMonth first = YearMonth.now().plusMonths(1);
+        ProjectionEngine.Result result = ProjectionEngine.project(seasonal.level(), seasonal.index(),
+                first.getMonthValue() - 1, horizon, growth, efficiency, intensity, price);
+
+        List<String> months = new ArrayList<>(horizon);
+        for (int m = 0; m < horizon; m++) {
+            months.add(first.plusMonths(m).toString());
+        }
+
+        List<ProjectionSeriesDTO> series = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ProjectionSeriesDTO spec = specs.get(i);
+            series.add(ProjectionSeriesDTO.builder()
+                    .name(spec.getName() != null ? spec.getName() : "Scenario " + (i + 1))
+                    .growthPercent(spec.getGrowthPercent())
+                    .efficiencyPercent(spec.getEfficiencyPercent())
+                    .region(spec.getRegion() != null ? spec.getRegion() : company.getRegion())
+                    .carbonIntensity(BigDecimal.valueOf(intensity[i]))
+                    .aiKwh(round2(result.kwh()[i]))
+                    .co2eKg(round2(result.co2eKg()[i]))
+                    .cost(round2(result.cost()[i]))
+                    .cumulativeCo2eKg(round2(result.cumulativeCo2eKg()[i]))
+                    .totalAiKwh(round(sum(result.kwh()[i])))
+                    .totalCo2eKg(round(result.cumulativeCo2eKg()[i][horizon - 1]))
+                    .totalCost(round(sum(result.cost()[i])))
+                    .build());
+        }
+
+        return ProjectionDTO.builder()
+                .companyId(companyId)
+                .horizonMonths(horizon)
+                .scenarios(series)
+                .baselineMonthlyAiKwh(round(seasonal.level()))
+                .historyMonths(seasonal.historyMonths())
+                .seasonalIndex(seasonal.index())
+                .months(months)
+                .build();
+    }
+
+    /**
+     * Sensitivity (tornado) analysis: each input - growth, efficiency, price, the
+     * intensity of every region in use and the aiUsageWeight of every department -
+     * is moved down and up on its own, ranked by the resulting CO₂e swing.
+     */
+    @Transactional(readOnly = true)
+    public SensitivityDTO simulateSensitivity(UUID companyId, SensitivityDTO request) {
+        return simulationCacheService.getOrCompute(companyId, "SENSITIVITY", request,
+                () -> computeSensitivity(companyId, request));
+    }
+
+    private SensitivityDTO computeSensitivity(UUID companyId, SensitivityDTO request) {
+        long started = System.nanoTime();
+        Company company = getCompany(companyId);
+        double swing = request.getSwingPercent() != null ? request.getSwingPercent().doubleValue() : 10.0;
+        if (swing <= 0 || swing > 100) {
+            throw new RuntimeException("Swing must be greater than 0 and at most 100 percent");
+        }
+        int horizon = request.getHorizonMonths() != null ? request.getHorizonMonths() : 12;
+        if (horizon < 1 || horizon > MAX_PROJECTION_MONTHS) {
+            throw new RuntimeException("Horizon must be between 1 and " + MAX_PROJECTION_MONTHS + " months");
+        }
+        double growth = request.getGrowthPercent() != null ? request.getGrowthPercent().doubleValue() : 0.0;
+        double efficiency = request.getEfficiencyPercent() != null ? request.getEfficiencyPercent().doubleValue()
+                : 0.0;
+
+        // One snapshot; every perturbation below is evaluated against it in memory
+        BaselineMatrix matrix = loadBaselineMatrix(companyId, company, List.of());
+        SensitivityAnalyzer.Model model = new SensitivityAnalyzer.Model(matrix.kwh(), matrix.kgPerKwh(),
+                matrix.price(), growth / 100.0, efficiency / 100.0, horizon);
+
+        double down = 1 - swing / 100.0;
+        double up = 1 + swing / 100.0;
+        List<SensitivityAnalyzer.Perturbation> perturbations = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        List<double[]> displayed = new ArrayList<>(); // base, low, high as reported to the caller
+
+        perturbations.add(new SensitivityAnalyzer.Perturbation(SensitivityAnalyzer.Lever.GROWTH, -1,
+                Math.max(-100, growth - swing) / 100.0, (growth + swing) / 100.0));
+        labels.add(null);
+        displayed.add(new double[] { growth, Math.max(-100, growth - swing), growth + swing });
+
+        perturbations.add(new SensitivityAnalyzer.Perturbation(SensitivityAnalyzer.Lever.EFFICIENCY, -1,
+                Math.max(0, efficiency - swing) / 100.0, Math.min(100, efficiency + swing) / 100.0));
+        labels.add(null);
+        displayed.add(new double[] { efficiency, Math.max(0, efficiency - swing),
+                Math.min(100, efficiency + swing) });
+
+        perturbations.add(new SensitivityAnalyzer.Perturbation(SensitivityAnalyzer.Lever.PRICE, -1,
+                matrix.price() * down, matrix.price() * up));
+        labels.add(null);
+        displayed.add(new double[] { matrix.price(), matrix.price() * down, matrix.price() * up });
+
+        double[][] kwh = matrix.kwh();
+        for (int r = 0; r < matrix.regions().size(); r++) {
+            double k = matrix.kgPerKwh()[r];
+            perturbations.add(new SensitivityAnalyzer.Perturbation(SensitivityAnalyzer.Lever.INTENSITY, r,
+                    k * down, k * up));
+            labels.add(matrix.regions().get(r));
+            displayed.add(new double[] { k * 1000, k * down * 1000, k * up * 1000 }); // gCO2/kWh
+        }
+
+        for (int d = 0; d < kwh.length; d++) {
+            double weight = matrix.deptWeights()[d];
+            if (Double.isNaN(weight) || weight <= 0)
+                continue; // Unassigned usage has no weight to move
+            double low = weight * down;
+            double high = Math.min(1, weight * up);
+            perturbations.add(new SensitivityAnalyzer.Perturbation(SensitivityAnalyzer.Lever.WEIGHT, d,
+                    low / weight, high / weight));
+            labels.add(matrix.deptNames().get(d));
+            displayed.add(new double[] { weight, low, high });
+        }
+
+        double[] base = SensitivityAnalyzer.evaluate(model);
+        SensitivityAnalyzer.Impact[] impacts = SensitivityAnalyzer.run(model, perturbations);
+
+        List<SensitivityInputDTO> inputs = new ArrayList<>(impacts.length);
+        for (int i = 0; i < impacts.length; i++) {
+            SensitivityAnalyzer.Impact impact = impacts[i];
+            double[] values = displayed.get(i);
+            inputs.add(SensitivityInputDTO.builder()
+                    .input(perturbations.get(i).lever().name())
+                    .label(labels.get(i))
+                    .baseValue(BigDecimal.valueOf(values[0]).setScale(4, RoundingMode.HALF_UP))
+                    .lowValue(BigDecimal.valueOf(values[1]).setScale(4, RoundingMode.HALF_UP))
+                    .highValue(BigDecimal.valueOf(values[2]).setScale(4, RoundingMode.HALF_UP))
+                    .co2eKgLow(round(impact.co2eLow()))
+                    .co2eKgHigh(round(impact.co2eHigh()))
+                    .costLow(round(impact.costLow()))
+                    .costHigh(round(impact.costHigh()))
+                    .co2eSwingKg(round(Math.abs(impact.co2eHigh() - impact.co2eLow())))
+                    .costSwing(round(Math.abs(impact.costHigh() - impact.costLow())))
+                    .build());
+        }
+        inputs.sort(Comparator.comparing(SensitivityInputDTO::getCo2eSwingKg)
+                .thenComparing(SensitivityInputDTO::getCostSwing).reversed());
+        for (int i = 0; i < inputs.size(); i++) {
+            inputs.get(i).setRank(i + 1);
+        }
+
+        return SensitivityDTO.builder()
+                .companyId(companyId)
+                .swingPercent(BigDecimal.valueOf(swing))
+                .growthPercent(BigDecimal.valueOf(growth))
+                .efficiencyPercent(BigDecimal.valueOf(efficiency))
+                .horizonMonths(horizon)
+                .baseAiKwh(round(base[0]))
+                .baseCo2eKg(round(base[1]))
+                .baseCost(round(base[2]))
+                .inputs(inputs)
+                .elapsedMs((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    /**
+     * Goal seek: solves for one free parameter (efficiency, share of load moved to
+     * a region, or monthly growth cap) so that the horizon total of CO₂e, cost or
+     * kWh stays at or below a target. The seasonal baseline and intensities are
+     * loaded once; the solver only re-runs the in-memory projection.
+     */
+    @Transactional(readOnly = true)
+    public GoalSeekDTO simulateGoalSeek(UUID companyId, GoalSeekDTO request) {
+        return simulationCacheService.getOrCompute(companyId, "GOAL_SEEK", request,
+                () -> computeGoalSeek(companyId, request));
+    }
+
+    private GoalSeekDTO computeGoalSeek(UUID companyId, GoalSeekDTO request) {
+        Company company = getCompany(companyId);
+        if (request.getTargetValue() == null || request.getTargetValue().signum() <= 0) {
+            throw new RuntimeException("targetValue must be a positive number");
+        }
+        String solveFor = request.getSolveFor() != null ? request.getSolveFor().toUpperCase() : "EFFICIENCY";
+        String metric = request.getMetric() != null ? request.getMetric().toUpperCase() : "CO2E";
+        if (!List.of("CO2E", "COST", "KWH").contains(metric)) {
+            throw new RuntimeException("Unknown metric: " + request.getMetric());
+        }
+        int horizon = request.getHorizonMonths() != null ? request.getHorizonMonths() : 12;
+        if (horizon < 1 || horizon > MAX_PROJECTION_MONTHS) {
+            throw new RuntimeException("Horizon must be between 1 and " + MAX_PROJECTION_MONTHS + " months");
+        }
+        double growth = request.getGrowthPercent() != null ? request.getGrowthPercent().doubleValue() : 0.0;
+        double efficiency = request.getEfficiencyPercent() != null ? request.getEfficiencyPercent().doubleValue()
+                : 0.0;
+        double share = request.getRegionSharePercent() != null ? request.getRegionSharePercent().doubleValue()
+                : 0.0;
+        if (solveFor.equals("REGION_SHARE")) {
+            // Moving load to the same region changes nothing, so the search could never converge
+            if (request.getToRegion() == null || request.getToRegion().isBlank()) {
+                throw new RuntimeException("toRegion is required when solving for REGION_SHARE");
+            }
+            if (request.getToRegion().equalsIgnoreCase(company.getRegion())) {
+                throw new RuntimeException("toRegion must differ from the company region: " + request.getToRegion());
+            }
+        }
+
+        // Everything the projection needs, loaded once outside the solver loop
+        SeasonalBaseline seasonal = loadSeasonalBaseline(companyId);
+        double fromIntensity = carbonCalculationService
+                .getEffectiveCarbonIntensity(companyId, company.getRegion()).doubleValue();
+        String toRegion = request.getToRegion() != null ? request.getToRegion() : company.getRegion();
+        double toIntensity = carbonCalculationService.getEffectiveCarbonIntensity(companyId, toRegion)
+                .doubleValue();
+        double price = company.getElectricityCostPerKwh().doubleValue();
+        int startMonth = YearMonth.now().plusMonths(1).getMonthValue() - 1;
+
+        // Parameter in percent -> {growth %, efficiency %, share %}
+        Function<Double, double[]> inputs = switch (solveFor) {
+            case "EFFICIENCY" -> x -> new double[] { growth, x, share };
+            case "REGION_SHARE" -> x -> new double[] { growth, efficiency, x };
+            case "GROWTH" -> x -> new double[] { x, efficiency, share };
+            default -> throw new RuntimeException("Unknown goal-seek parameter: " + request.getSolveFor());
+        };
+        Function<double[], double[]> totals = in -> {
+            double intensity = fromIntensity + (toIntensity - fromIntensity) * in[2] / 100.0;
+            ProjectionEngine.Result result = ProjectionEngine.project(seasonal.level(), seasonal.index(),
+                    startMonth, horizon, new double[] { in[0] / 100.0 }, new double[] { in[1] / 100.0 },
+                    new double[] { intensity }, new double[] { price });
+            return new double[] { sum(result.kwh()[0]), result.cumulativeCo2eKg()[0][horizon - 1],
+                    sum(result.cost()[0]), intensity };
+        };
+        int metricIndex = switch (metric) {
+            case "KWH" -> 0;
+            case "COST" -> 2;
+            default -> 1;
+        };
+
+        // Preferred end first: no efficiency gain, nothing moved, or the highest growth
+        double preferred = solveFor.equals("GROWTH") ? MAX_GOAL_SEEK_GROWTH : 0;
+        double fallback = solveFor.equals("GROWTH") ? -MAX_GOAL_SEEK_GROWTH : 100;
+        // Growth compounds, so seek on log(metric), which is close to linear in it
+        boolean logScale = solveFor.equals("GROWTH");
+        double target = request.getTargetValue().doubleValue();
+        GoalSeeker.Result solved = GoalSeeker.solve(x -> {
+            double value = totals.apply(inputs.apply(x))[metricIndex];
+            return logScale ? Math.log(value) : value;
+        }, preferred, fallback, logScale ? Math.log(target) : target, 1e-4, 60);
+        double[] solvedInputs = inputs.apply(solved.value());
+        double[] at = totals.apply(solvedInputs);
+
+        return GoalSeekDTO.builder()
+                .companyId(companyId)
+                .solveFor(solveFor)
+                .metric(metric)
+                .targetValue(request.getTargetValue())
+                .horizonMonths(horizon)
+                .growthPercent(BigDecimal.valueOf(solvedInputs[0]).setScale(4, RoundingMode.HALF_UP))
+                .efficiencyPercent(BigDecimal.valueOf(solvedInputs[1]).setScale(4, RoundingMode.HALF_UP))
+                .regionSharePercent(BigDecimal.valueOf(solvedInputs[2]).setScale(4, RoundingMode.HALF_UP))
+                .toRegion(toRegion)
+                .solvedPercent(BigDecimal.valueOf(solved.value()).setScale(4, RoundingMode.HALF_UP))
+                .feasible(solved.feasible())
+                .iterations(solved.iterations())
+                .achievedValue(round(at[metricIndex]))
+                .totalAiKwh(round(at[0]))
+                .totalCo2eKg(round(at[1]))
+                .totalCost(round(at[2]))
+                .carbonIntensity(BigDecimal.valueOf(at[3]).setScale(2, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    /**
+     * Net-zero pathway planner: candidate pathways of yearly measures (efficiency
+     * programmes, region migrations, grid-intensity decline) evaluated side by
+     * side over 10-30 years and ranked by cumulative CO₂e per unit of cost.
+     * With save=true every pathway is stored as a PATHWAY scenario.
+     */
+    public PathwayPlanDTO planPathways(UUID companyId, PathwayPlanDTO request) {
+        if (Boolean.TRUE.equals(request.getSave())) {
+            PathwayPlanDTO plan = computePathways(companyId, request);
+            savePathways(companyId, plan);
+            return plan;
+        }
+        return simulationCacheService.getOrCompute(companyId, SimulationType.PATHWAY.name(), request,
+                () -> computePathways(companyId, request));
+    }
+
+    private PathwayPlanDTO computePathways(UUID companyId, PathwayPlanDTO request) {
+        long started = System.nanoTime();
+        Company company = getCompany(companyId);
+        int years = request.getYears() != null ? request.getYears() : 20;
+        if (years < 1 || years > MAX_PATHWAY_YEARS) {
+            throw new RuntimeException("Years must be between 1 and " + MAX_PATHWAY_YEARS);
+        }
+        List<PathwayDTO> specs = request.getPathways() != null ? request.getPathways() : List.of();
+        if (specs.isEmpty() || specs.size() > MAX_PATHWAYS) {
+            throw new RuntimeException("Between 1 and " + MAX_PATHWAYS + " pathways are required");
+        }
+        int startYear = request.getStartYear() != null ? request.getStartYear() : LocalDate.now().getYear() + 1;
+        double growth = request.getGrowthPercent() != null ? request.getGrowthPercent().doubleValue() : 0.0;
+
+        List<String> measureRegions = new ArrayList<>();
+        for (PathwayDTO spec : specs) {
+            for (PathwayMeasureDTO measure : spec.getMeasures() != null ? spec.getMeasures()
+                    : List.<PathwayMeasureDTO>of()) {
+                if (measure.getRegions() != null)
+                    measureRegions.addAll(measure.getRegions());
+                if (measure.getToRegion() != null)
+                    measureRegions.add(measure.getToRegion());
+            }
+        }
+
+        // Starting vectors: last 30 days per region, annualised
+        BaselineMatrix matrix = loadBaselineMatrix(companyId, company, measureRegions);
+        List<String> regions = matrix.regions();
+        double[] annualKwh = new double[regions.size()];
+        for (double[] row : matrix.kwh()) {
+            for (int r = 0; r < row.length; r++) {
+                annualKwh[r] += row[r] * 12;
+            }
+        }
+        Map<String, Integer> regionIndex = new HashMap<>();
+        for (int r = 0; r < regions.size(); r++) {
+            regionIndex.put(regions.get(r), r);
+        }
+
+        List<List<PathwayPlanner.Measure>> compiled = new ArrayList<>(specs.size());
+        for (PathwayDTO spec : specs) {
+            List<PathwayPlanner.Measure> measures = new ArrayList<>();
+            for (PathwayMeasureDTO measure : spec.getMeasures() != null ? spec.getMeasures()
+                    : List.<PathwayMeasureDTO>of()) {
+                measures.add(compileMeasure(measure, startYear, years, regionIndex));
+            }
+            compiled.add(measures);
+        }
+
+        PathwayPlanner.Result bau = PathwayPlanner.simulate(annualKwh, matrix.kgPerKwh(), matrix.price(),
+                growth / 100.0, years, List.of());
+        PathwayPlanner.Result[] results = PathwayPlanner.simulateAll(annualKwh, matrix.kgPerKwh(),
+                matrix.price(), growth / 100.0, years, compiled);
+
+        List<PathwayDTO> pathways = new ArrayList<>(specs.size());
+        for (int p = 0; p < specs.size(); p++) {
+            PathwayDTO spec = specs.get(p);
+            pathways.add(pathwayResult(spec.getName() != null ? spec.getName() : "Pathway " + (p + 1),
+                    spec.getMeasures(), results[p], bau));
+        }
+        pathways.sort(Comparator.comparingInt(SimulationEngineService::abatementTier)
+                .thenComparing(pathway -> abatementTier(pathway) == 1
+                        ? pathway.getCostPerTonneAvoided()
+                        : pathway.getAvoidedCo2eKg().negate())
+                .thenComparing(PathwayDTO::getExtraCost));
+        for (int p = 0; p < pathways.size(); p++) {
+            pathways.get(p).setRank(p + 1);
+        }
+
+        return PathwayPlanDTO.builder()
+                .companyId(companyId)
+                .startYear(startYear)
+                .years(years)
+                .growthPercent(BigDecimal.valueOf(growth))
+                .save(request.getSave())
+                .pathways(pathways)
+                .baselineAiKwh(round(bau.kwh()[0]))
+                .baselineCo2eKg(round(bau.co2eKg()[0]))
+                .baselineCost(round(bau.cost()[0]))
+                .yearLabels(IntStream.range(0, years).mapToObj(y -> startYear + y).collect(Collectors.toList()))
+                .businessAsUsual(pathwayResult("Business as usual", List.of(), bau, bau))
+                .elapsedMs((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private PathwayPlanner.Measure compileMeasure(PathwayMeasureDTO spec, int startYear, int years,
+            Map<String, Integer> regionIndex) {
+        PathwayPlanner.MeasureType type;
+        try {
+            type = PathwayPlanner.MeasureType.valueOf(spec.getType() != null ? spec.getType().toUpperCase() : "");
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown measure type: " + spec.getType());
+        }
+        double percent = spec.getPercent() != null ? spec.getPercent().doubleValue() : 0.0;
+        if (percent < 0 || percent > 100) {
+            throw new RuntimeException("Measure percent must be between 0 and 100");
+        }
+        int first = (spec.getStartYear() != null ? spec.getStartYear() : startYear) - startYear;
+        int last = spec.getEndYear() != null ? spec.getEndYear() - startYear
+                : type == PathwayPlanner.MeasureType.GRID_DECLINE ? years - 1 : first;
+        if (first < 0 || last < first) {
+            throw new RuntimeException("Measure years must fall within the pathway, start to end: "
+                    + spec.getStartYear() + "-" + spec.getEndYear());
+        }
+
+        boolean[] regions = new boolean[regionIndex.size()];
+        if (spec.getRegions() == null || spec.getRegions().isEmpty()) {
+            Arrays.fill(regions, true);
+        } else {
+            spec.getRegions().forEach(r -> regions[regionIndex.get(r)] = true);
+        }
+        int toRegion = -1;
+        if (type == PathwayPlanner.MeasureType.MOVE_REGION) {
+            if (spec.getToRegion() == null)
+                throw new RuntimeException("MOVE_REGION measure requires toRegion");
+            toRegion = regionIndex.get(spec.getToRegion());
+        }
+        return new PathwayPlanner.Measure(type, first, last, percent / 100.0, regions, toRegion,
+                spec.getOneOffCost() != null ? spec.getOneOffCost().doubleValue() : 0.0,
+                spec.getAnnualCost() != null ? spec.getAnnualCost().doubleValue() : 0.0);
+    }
+
+    private PathwayDTO pathwayResult(String name, List<PathwayMeasureDTO> measures, PathwayPlanner.Result result,
+            PathwayPlanner.Result bau) {
+        int last = result.kwh().length - 1;
+        double totalCo2e = result.cumulativeCo2eKg()[last];
+        double totalCost = result.cumulativeCost()[last];
+        double bauFinal = bau.co2eKg()[last];
+        double avoidedCo2e = bau.cumulativeCo2eKg()[last] - totalCo2e;
+        double extraCost = totalCost - bau.cumulativeCost()[last];
+        return PathwayDTO.builder()
+                .name(name)
+                .measures(measures)
+                .aiKwh(round2(result.kwh()))
+                .co2eKg(round2(result.co2eKg()))
+                .cost(round2(result.cost()))
+                .cumulativeCo2eKg(round2(result.cumulativeCo2eKg()))
+                .cumulativeCost(round2(result.cumulativeCost()))
+                .totalAiKwh(round(sum(result.kwh())))
+                .totalCo2eKg(round(totalCo2e))
+                .totalCost(round(totalCost))
+                .avoidedCo2eKg(round(avoidedCo2e))
+                .extraCost(round(extraCost))
+                .costPerTonneAvoided(avoidedCo2e > 0 ? round(extraCost / (avoidedCo2e / 1000)) : null)
+                .finalYearReductionPercent(bauFinal > 0 ? round((bauFinal - result.co2eKg()[last]) / bauFinal * 100)
+                        : null)
+                .build();
+    }
+
+    /**
+     * Ranking tier: 0 avoids CO₂e without extra cost, 1 avoids it at extra cost,
+     * 2 avoids nothing. Within tier 1 the cost per tonne decides, elsewhere the
+     * CO₂e avoided; ties go to the cheaper pathway.
+     */
+    private static int abatementTier(PathwayDTO pathway) {
+        if (pathway.getAvoidedCo2eKg().signum() <= 0) {
+            return 2;
+        }
+        return pathway.getExtraCost().signum() <= 0 ? 0 : 1;
+    }
+
+    /**
+     * Store each evaluated pathway as a PATHWAY scenario: horizon totals in the
+     * typed columns (baseline = business as usual), the yearly series as extras.
+     */
+    private void savePathways(UUID companyId, PathwayPlanDTO plan) {
+        Company company = getCompany(companyId);
+        PathwayDTO bau = plan.getBusinessAsUsual();
+        int endYear = plan.getStartYear() + plan.getYears() - 1;
+        try {
+            List<SimulationScenario> scenarios = new ArrayList<>();
+            for (PathwayDTO pathway : plan.getPathways()) {
+                Map<String, Object> extras = new HashMap<>();
+                extras.put("pathwayYears", plan.getYearLabels());
+                extras.put("pathway", pathway);
+
+                SimulationScenario scenario = SimulationScenario.builder()
+                        .company(company)
+                        .name(pathway.getName())
+                        .description("Net-zero pathway " + plan.getStartYear() + "-" + endYear + " (rank "
+                                + pathway.getRank() + " of " + plan.getPathways().size() + ")")
+                        .simulationType(SimulationType.PATHWAY)
+                        .growthPercent(plan.getGrowthPercent())
+                        .monthsAhead(plan.getYears() * 12)
+                        .baselineAiKwh(bau.getTotalAiKwh())
+                        .baselineCo2eKg(bau.getTotalCo2eKg())
+                        .baselineCost(bau.getTotalCost())
+                        .projectedAiKwh(pathway.getTotalAiKwh())
+                        .projectedCo2eKg(pathway.getTotalCo2eKg())
+                        .projectedCost(pathway.getTotalCost())
+                        .results(objectMapper.writeValueAsString(extras))
+                        .build();
+                applyDeltas(scenario, null);
+                scenarios.add(scenario);
+            }
+            List<SimulationScenario> saved = scenarioRepository.saveAll(scenarios);
+            for (int p = 0; p < saved.size(); p++) {
+                plan.getPathways().get(p).setScenarioId(saved.get(p).getId());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to save pathways", e);
+        }
+    }
+
+    /**
+     * CUSTOM simulation: a chain of stages such as "grow 20%, then move 40% of ML
+     * workloads to EU, then improve efficiency 15%", applied in order to the
+     * last-30-day department × region baseline.
+     */
+    @Transactional(readOnly = true)
+    public CustomSimulationDTO simulateCustom(UUID companyId, CustomSimulationDTO request) {
+        return simulationCacheService.getOrCompute(companyId, SimulationType.CUSTOM.name(),
+                cacheParams("name", request.getName(), "stages", request.getStages()),
+                () -> computeCustom(companyId, request));
+    }
+
+    private CustomSimulationDTO computeCustom(UUID companyId, CustomSimulationDTO request) {
+        Company company = getCompany(companyId);
+        List<ScenarioStageDTO> stageSpecs = request.getStages() != null ? request.getStages() : List.of();
+
+        List<String> stageRegions = new ArrayList<>();
+        for (ScenarioStageDTO stage : stageSpecs) {
+            if (stage.getToRegion() != null)
+                stageRegions.add(stage.getToRegion());
+            if (stage.getRegions() != null)
+                stageRegions.addAll(stage.getRegions());
+        }
+        BaselineMatrix matrix = loadBaselineMatrix(companyId, company, stageRegions);
+        List<String> deptNames = matrix.deptNames();
+        List<String> regions = matrix.regions();
+        double[][] baseline = matrix.kwh();
+        double[] kgPerKwh = matrix.kgPerKwh();
+        double price = matrix.price();
+
+        Map<String, Integer> regionIndex = new HashMap<>();
+        for (int r = 0; r < regions.size(); r++) {
+            regionIndex.put(regions.get(r), r);
+        }
+        List<ScenarioPipeline.Stage> stages = new ArrayList<>();
+        for (ScenarioStageDTO spec : stageSpecs) {
+            stages.add(compileStage(spec, deptNames, matrix.deptTeams(), regionIndex));
+        }
+        double[][] projected = ScenarioPipeline.apply(baseline, stages);
+
+        int departments = deptNames.size();
+        double[][] byDept = new double[departments][4]; // baseline kWh, projected kWh, baseline CO₂e, projected CO₂e
+        double[][] byRegion = new double[regions.size()][4];
+        for (int d = 0; d < departments; d++) {
+            for (int r = 0; r < regions.size(); r++) {
+                double[] cell = { baseline[d][r], projected[d][r], baseline[d][r] * kgPerKwh[r],
+                        projected[d][r] * kgPerKwh[r] };
+                for (int k = 0; k < 4; k++) {
+                    byDept[d][k] += cell[k];
+                    byRegion[r][k] += cell[k];
+                }
+            }
+        }
+
+        double[] totals = new double[4];
+        for (double[] line : byDept)
+            for (int k = 0; k < 4; k++)
+                totals[k] += line[k];
+
+        return CustomSimulationDTO.builder()
+                .companyId(companyId)
+                .name(request.getName() != null ? request.getName() : "Custom Simulation")
+                .stages(stageSpecs)
+                .baselineAiKwh(round(totals[0]))
+                .projectedAiKwh(round(totals[1]))
+                .baselineCo2eKg(round(totals[2]))
+                .projectedCo2eKg(round(totals[3]))
+                .baselineCost(round(totals[0] * price))
+                .projectedCost(round(totals[1] * price))
+                .carbonDeltaKg(round(totals[3] - totals[2]))
+                .costDelta(round((totals[1] - totals[0]) * price))
+                .byDepartment(breakdown("DEPARTMENT", deptNames, byDept, price))
+                .byRegion(breakdown("REGION", regions, byRegion, price))
+                .build();
+    }
+
     /**
      * Save a simulation scenario for future reference.
+     * Parameters and headline results go to typed columns; only extras such as
+     * the monthly series are kept as JSON.
      */
     public SimulationDTO saveScenario(UUID companyId, SimulationDTO dto) {
         Company company = getCompany(companyId);
 
         try {
-            Map<String, Object> params = new HashMap<>();
-            params.put("growthPercent", dto.getGrowthPercent());
-            params.put("fromRegion", dto.getFromRegion());
-            params.put("toRegion", dto.getToRegion());
-            params.put("efficiencyPercent", dto.getEfficiencyPercent());
-            params.put("monthsAhead", dto.getMonthsAhead());
-
-            Map<String, Object> results = new HashMap<>();
-            results.put("projectedAiKwh", dto.getProjectedAiKwh());
-            results.put("projectedCo2eKg", dto.getProjectedCo2eKg());
-            results.put("projectedCost", dto.getProjectedCost());
-
-            Map<String, Object> baseline = new HashMap<>();
-            baseline.put("aiKwh", dto.getBaselineAiKwh());
-            baseline.put("co2eKg", dto.getBaselineCo2eKg());
-            baseline.put("cost", dto.getBaselineCost());
+            Map<String, Object> extras = new HashMap<>();
+            if (dto.getMonthlySeries() != null) {
+                extras.put("projectionMonths", dto.getProjectionMonths());
+                extras.put("monthlySeries", dto.getMonthlySeries());
+            }
 
             SimulationScenario scenario = SimulationScenario.builder()
                     .company(company)
                     .name(dto.getName())
                     .description(dto.getDescription())
                     .simulationType(dto.getSimulationType())
-                    .parameters(objectMapper.writeValueAsString(params))
-                    .results(objectMapper.writeValueAsString(results))
-                    .baselineValues(objectMapper.writeValueAsString(baseline))
+                    .growthPercent(dto.getGrowthPercent())
+                    .fromRegion(dto.getFromRegion())
+                    .toRegion(dto.getToRegion())
+                    .efficiencyPercent(dto.getEfficiencyPercent())
+                    .monthsAhead(dto.getMonthsAhead())
+                    .baselineAiKwh(dto.getBaselineAiKwh())
+                    .baselineCo2eKg(dto.getBaselineCo2eKg())
+                    .baselineCost(dto.getBaselineCost())
+                    .projectedAiKwh(dto.getProjectedAiKwh())
+                    .projectedCo2eKg(dto.getProjectedCo2eKg())
+                    .projectedCost(dto.getProjectedCost())
+                    .results(extras.isEmpty() ? null : objectMapper.writeValueAsString(extras))
                     .build();
+            applyDeltas(scenario, dto);
 
             SimulationScenario saved = scenarioRepository.save(scenario);
             dto.setId(saved.getId());
@@ -227,16 +1179,442 @@ public class SimulationEngineService {
      */
     @Transactional(readOnly = true)
     public List<SimulationDTO> getSavedScenarios(UUID companyId) {
-        return scenarioRepository.findByCompanyIdOrderByCreatedAtDesc(companyId).stream()
-                .map(this::mapToDTO)
+        return getSavedScenarios(companyId, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Saved scenarios filtered by type, creation date and CO₂e delta, read from
+     * the typed columns only (no JSON parsing per row).
+     *
+     * @param sortBy createdAt (default, newest first), carbonDeltaKg or projectedCo2eKg (ascending)
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationDTO> getSavedScenarios(UUID companyId, SimulationType type, LocalDate from,
+            LocalDate to, BigDecimal minCarbonDelta, BigDecimal maxCarbonDelta, String sortBy, Integer limit) {
+        Sort sort = switch (sortBy != null ? sortBy : "createdAt") {
+            case "carbonDeltaKg" -> Sort.by(Sort.Direction.ASC, "carbonDeltaKg");
+            case "projectedCo2eKg" -> Sort.by(Sort.Direction.ASC, "projectedCo2eKg");
+            case "createdAt" -> Sort.by(Sort.Direction.DESC, "createdAt");
+            default -> throw new RuntimeException("Unsupported sort: " + sortBy);
+        };
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_SCENARIO_PAGE)) : MAX_SCENARIO_PAGE;
+        boolean filterDelta = minCarbonDelta != null || maxCarbonDelta != null;
+
+        return scenarioRepository.findFiltered(companyId, type,
+                from != null ? from.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0),
+                to != null ? to.plusDays(1).atStartOfDay() : LocalDateTime.of(9999, 1, 1, 0, 0),
+                filterDelta,
+                minCarbonDelta != null ? minCarbonDelta : new BigDecimal("-1E15"),
+                maxCarbonDelta != null ? maxCarbonDelta : new BigDecimal("1E15"),
+                PageRequest.of(0, pageSize, sort)).stream()
+                .map(scenario -> mapToDTO(scenario, false))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A single saved scenario including its JSON extras.
+     */
+    @Transactional(readOnly = true)
+    public SimulationDTO getScenario(UUID companyId, UUID scenarioId) {
+        return scenarioRepository.findById(scenarioId)
+                .filter(s -> s.getCompany().getId().equals(companyId))
+                .map(scenario -> mapToDTO(scenario, true))
+                .orElseThrow(() -> new RuntimeException("Scenario not found: " + scenarioId));
+    }
+
+    /**
+     * Compare saved scenarios (loaded in one query) against the first id given.
+     */
+    @Transactional(readOnly = true)
+    public ScenarioComparisonDTO compareScenarios(UUID companyId, List<UUID> scenarioIds) {
+        if (scenarioIds == null || scenarioIds.size() < 2) {
+            throw new RuntimeException("At least two scenario ids are required");
+        }
+        Map<UUID, SimulationScenario> byId = scenarioRepository.findByCompanyIdAndIdIn(companyId, scenarioIds)
+                .stream()
+                .collect(Collectors.toMap(SimulationScenario::getId, s -> s));
+
+        List<SimulationDTO> scenarios = new ArrayList<>();
+        for (UUID id : scenarioIds) {
+            SimulationScenario scenario = byId.get(id);
+            if (scenario == null)
+                throw new RuntimeException("Scenario not found: " + id);
+            scenarios.add(mapToDTO(scenario, false));
+        }
+
+        SimulationDTO reference = scenarios.get(0);
+        List<ScenarioDiffDTO> diffs = scenarios.stream()
+                .map(s -> ScenarioDiffDTO.builder()
+                        .scenarioId(s.getId())
+                        .name(s.getName())
+                        .projectedAiKwhDiff(difference(s.getProjectedAiKwh(), reference.getProjectedAiKwh()))
+                        .projectedCo2eKgDiff(difference(s.getProjectedCo2eKg(), reference.getProjectedCo2eKg()))
+                        .projectedCostDiff(difference(s.getProjectedCost(), reference.getProjectedCost()))
+                        .co2ePercentDiff(reference.getProjectedCo2eKg() != null
+                                && reference.getProjectedCo2eKg().signum() != 0 && s.getProjectedCo2eKg() != null
+                                        ? s.getProjectedCo2eKg().subtract(reference.getProjectedCo2eKg())
+                                                .divide(reference.getProjectedCo2eKg(), 4, RoundingMode.HALF_UP)
+                                                .multiply(new BigDecimal("100"))
+                                        : null)
+                        .build())
+                .collect(Collectors.toList());
+
+        return ScenarioComparisonDTO.builder()
+                .companyId(companyId)
+                .referenceScenarioId(reference.getId())
+                .lowestCo2eScenarioId(lowest(scenarios, SimulationDTO::getProjectedCo2eKg))
+                .lowestCostScenarioId(lowest(scenarios, SimulationDTO::getProjectedCost))
+                .scenarios(scenarios)
+                .diffs(diffs)
+                .build();
+    }
+
+    /**
+     * Move scenarios saved before the typed columns existed off their JSON.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillScenarioColumns() {
+        List<SimulationScenario> legacy = scenarioRepository.findLegacyScenarios();
+        if (legacy.isEmpty()) {
+            return;
+        }
+        for (SimulationScenario scenario : legacy) {
+            try {
+                JsonNode params = readJson(scenario.getParameters());
+                JsonNode results = readJson(scenario.getResults());
+                JsonNode baseline = readJson(scenario.getBaselineValues());
+
+                scenario.setGrowthPercent(decimal(params, "growthPercent"));
+                scenario.setFromRegion(text(params, "fromRegion"));
+                scenario.setToRegion(text(params, "toRegion"));
+                scenario.setEfficiencyPercent(decimal(params, "efficiencyPercent"));
+                scenario.setMonthsAhead(params.hasNonNull("monthsAhead") ? params.get("monthsAhead").asInt() : null);
+                scenario.setProjectedAiKwh(decimal(results, "projectedAiKwh"));
+                scenario.setProjectedCo2eKg(decimal(results, "projectedCo2eKg"));
+                scenario.setProjectedCost(decimal(results, "projectedCost"));
+                scenario.setBaselineAiKwh(decimal(baseline, "aiKwh"));
+                scenario.setBaselineCo2eKg(decimal(baseline, "co2eKg"));
+                scenario.setBaselineCost(decimal(baseline, "cost"));
+                applyDeltas(scenario, null);
+
+                scenario.setParameters(null);
+                scenario.setResults(null);
+                scenario.setBaselineValues(null);
+            } catch (Exception e) {
+                log.warn("Could not backfill scenario {}: {}", scenario.getId(), e.getMessage());
+            }
+        }
+        scenarioRepository.saveAll(legacy);
+        log.info("Backfilled typed columns for {} saved scenarios", legacy.size());
+    }
+
     private Company getCompany(UUID companyId) {
         return companyRepository.findById(companyId)
                 .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
     }
 
+    /**
+     * Baseline inputs shared by the array-based simulations: last-30-day AI kWh,
+     * company region intensity (gCO₂/kWh) and electricity price.
+     */
+    private SimulationBaseline loadBaseline(UUID companyId) {
+        Company company = getCompany(companyId);
+        LocalDate endDate = LocalDate.now();
+        BigDecimal aiKwh = energyUsageRepository.sumAiKwhByCompanyAndDateRange(
+                companyId, endDate.minusDays(30), endDate);
+        if (aiKwh == null)
+            aiKwh = new BigDecimal("1000"); // Default for demo
+
+        return new SimulationBaseline(company.getRegion(), aiKwh.doubleValue(),
+                carbonCalculationService.getEffectiveCarbonIntensity(companyId, company.getRegion()).doubleValue(),
+                company.getElectricityCostPerKwh().doubleValue());
+    }
+
+    /**
+     * Expand a sweep axis to its values; an absent axis is the single value 0.
+     */
+    private double[] expandAxis(SweepRangeDTO range, String name) {
+        if (range == null) {
+            return new double[] { 0.0 };
+        }
+        if (range.getValues() != null && !range.getValues().isEmpty()) {
+            if (range.getValues().size() > MAX_SWEEP_AXIS)
+                throw new RuntimeException("Too many " + name + " values (max " + MAX_SWEEP_AXIS + ")");
+            return range.getValues().stream().mapToDouble(BigDecimal::doubleValue).toArray();
+        }
+        if (range.getFrom() == null || range.getTo() == null) {
+            throw new RuntimeException(name + " needs either values or from/to");
+        }
+
+        BigDecimal step = range.getStep() != null ? range.getStep() : BigDecimal.ONE;
+        if (step.signum() <= 0 || range.getTo().compareTo(range.getFrom()) < 0) {
+            throw new RuntimeException(name + " requires to >= from and a positive step");
+        }
+        List<Double> values = new ArrayList<>();
+        for (BigDecimal v = range.getFrom(); v.compareTo(range.getTo()) <= 0; v = v.add(step)) {
+            if (values.size() == MAX_SWEEP_AXIS)
+                throw new RuntimeException("Too many " + name + " values (max " + MAX_SWEEP_AXIS + ")");
+            values.add(v.doubleValue());
+        }
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Cache-key parameters from alternating name/value pairs (values may be null).
+     */
+    private static Map<String, Object> cacheParams(Object... namesAndValues) {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return params;
+    }
+
+    /**
+     * Seasonal baseline from up to three years of complete months: a calendar-month
+     * index and the de-seasonalised level of the last twelve months. Without any
+     * history the 30-day baseline is used with a flat index.
+     */
+    private SeasonalBaseline loadSeasonalBaseline(UUID companyId) {
+        YearMonth current = YearMonth.now();
+        List<Object[]> rows = energyUsageRepository.sumMonthlyByCompanyAndDateRange(companyId,
+                current.minusMonths(SEASONAL_HISTORY_MONTHS).atDay(1), current.minusMonths(1).atEndOfMonth());
+
+        int[] calendarMonth = new int[rows.size()];
+        int[] monthNumber = new int[rows.size()];
+        double[] aiKwh = new double[rows.size()];
+        int count = 0;
+        for (Object[] row : rows) {
+            if (row[3] == null)
+                continue;
+            int year = ((Number) row[0]).intValue();
+            int month = ((Number) row[1]).intValue();
+            calendarMonth[count] = month - 1;
+            monthNumber[count] = year * 12 + month - 1;
+            aiKwh[count] = ((BigDecimal) row[3]).doubleValue();
+            count++;
+        }
+        if (count == 0) {
+            double[] flat = new double[12];
+            Arrays.fill(flat, 1.0);
+            return new SeasonalBaseline(loadBaseline(companyId).aiKwh(), flat, 0);
+        }
+
+        calendarMonth = Arrays.copyOf(calendarMonth, count);
+        aiKwh = Arrays.copyOf(aiKwh, count);
+        double[] index = ProjectionEngine.seasonalIndex(calendarMonth, aiKwh);
+
+        int lastMonth = current.getYear() * 12 + current.getMonthValue() - 2;
+        double levelSum = 0;
+        int levelCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (lastMonth - monthNumber[i] < 12 && index[calendarMonth[i]] > 0) {
+                levelSum += aiKwh[i] / index[calendarMonth[i]];
+                levelCount++;
+            }
+        }
+        double level = levelCount > 0 ? levelSum / levelCount : loadBaseline(companyId).aiKwh();
+        return new SeasonalBaseline(level, index, count);
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double v : values)
+            total += v;
+        return total;
+    }
+
+    private double[] round2(double[] values) {
+        double[] rounded = new double[values.length];
+        for (int i = 0; i < values.length; i++)
+            rounded[i] = round2(values[i]);
+        return rounded;
+    }
+
+    /**
+     * Last-30-day AI kWh as a department × region matrix, with per-region
+     * kgCO₂e/kWh and the company price - one snapshot shared by every evaluation
+     * of a request. Extra regions (e.g. migration targets) get empty columns.
+     */
+    private BaselineMatrix loadBaselineMatrix(UUID companyId, Company company, Collection<String> extraRegions) {
+        LocalDate endDate = LocalDate.now();
+        List<Object[]> rows = energyUsageRepository.sumAiKwhByDepartmentAndRegion(
+                companyId, endDate.minusDays(30), endDate);
+
+        Map<UUID, Integer> deptIndex = new LinkedHashMap<>();
+        List<String> deptNames = new ArrayList<>();
+        List<String> deptTeams = new ArrayList<>();
+        List<Double> deptWeights = new ArrayList<>();
+        Map<String, Integer> regionIndex = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            UUID deptId = (UUID) row[0];
+            if (!deptIndex.containsKey(deptId)) {
+                deptIndex.put(deptId, deptNames.size());
+                deptNames.add(deptId != null ? (String) row[1] : "Unassigned");
+                deptTeams.add((String) row[2]);
+                deptWeights.add(row[3] != null ? ((BigDecimal) row[3]).doubleValue() : Double.NaN);
+            }
+            regionIndex.putIfAbsent((String) row[4], regionIndex.size());
+        }
+        if (rows.isEmpty()) {
+            deptIndex.put(null, 0);
+            deptNames.add("Unassigned");
+            deptTeams.add(null);
+            deptWeights.add(Double.NaN);
+            regionIndex.put(company.getRegion(), 0);
+        }
+        extraRegions.forEach(r -> regionIndex.putIfAbsent(r, regionIndex.size()));
+
+        double[][] kwh = new double[deptNames.size()][regionIndex.size()];
+        for (Object[] row : rows) {
+            if (row[5] != null)
+                kwh[deptIndex.get((UUID) row[0])][regionIndex.get((String) row[4])] += ((BigDecimal) row[5])
+                        .doubleValue();
+        }
+        if (rows.isEmpty())
+            kwh[0][0] = 1000; // Default for demo
+
+        List<String> regions = new ArrayList<>(regionIndex.keySet());
+        double[] kgPerKwh = regions.stream()
+                .mapToDouble(r -> carbonCalculationService.getEffectiveCarbonIntensity(companyId, r).doubleValue()
+                        / 1000.0)
+                .toArray();
+
+        return new BaselineMatrix(new ArrayList<>(deptIndex.keySet()), deptNames, deptTeams,
+                deptWeights.stream().mapToDouble(Double::doubleValue).toArray(), regions, kwh, kgPerKwh,
+                company.getElectricityCostPerKwh().doubleValue());
+    }
+
+    private ScenarioPipeline.Stage compileStage(ScenarioStageDTO spec, List<String> deptNames,
+            List<String> deptTeams, Map<String, Integer> regionIndex) {
+        ScenarioPipeline.StageType type;
+        try {
+            type = ScenarioPipeline.StageType.valueOf(String.valueOf(spec.getType()).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown stage type: " + spec.getType());
+        }
+        if (spec.getPercent() == null || spec.getPercent().signum() < 0) {
+            throw new RuntimeException("Stage " + type + " needs a non-negative percent");
+        }
+        if (type == ScenarioPipeline.StageType.MOVE_REGION && spec.getToRegion() == null) {
+            throw new RuntimeException("MOVE_REGION stage needs toRegion");
+        }
+        double fraction = spec.getPercent().doubleValue() / 100.0;
+        if (type == ScenarioPipeline.StageType.MOVE_REGION && fraction > 1) {
+            throw new RuntimeException("MOVE_REGION cannot move more than 100%");
+        }
+
+        boolean[] departments = new boolean[deptNames.size()];
+        boolean anyDepartment = false;
+        for (int d = 0; d < departments.length; d++) {
+            String deptName = deptNames.get(d);
+            String deptTeam = deptTeams.get(d);
+            departments[d] = spec.getDepartments() == null || spec.getDepartments().isEmpty()
+                    || spec.getDepartments().stream()
+                            .anyMatch(name -> name.equalsIgnoreCase(deptName) || name.equalsIgnoreCase(deptTeam));
+            anyDepartment |= departments[d];
+        }
+        if (!anyDepartment) {
+            throw new RuntimeException("No department with baseline usage matches " + spec.getDepartments());
+        }
+
+        boolean[] regions = new boolean[regionIndex.size()];
+        if (spec.getRegions() == null || spec.getRegions().isEmpty()) {
+            Arrays.fill(regions, true);
+        } else {
+            spec.getRegions().forEach(r -> regions[regionIndex.get(r)] = true);
+        }
+
+        int toRegion = spec.getToRegion() != null ? regionIndex.get(spec.getToRegion()) : -1;
+        return new ScenarioPipeline.Stage(type, departments, regions, fraction, toRegion);
+    }
+
+    private List<SimulationBreakdownDTO> breakdown(String dimension, List<String> keys, double[][] lines,
+            double price) {
+        List<SimulationBreakdownDTO> result = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            double[] line = lines[i];
+            if (line[0] == 0 && line[1] == 0)
+                continue;
+            result.add(SimulationBreakdownDTO.builder()
+                    .dimension(dimension)
+                    .key(keys.get(i))
+                    .baselineAiKwh(round(line[0]))
+                    .projectedAiKwh(round(line[1]))
+                    .baselineCo2eKg(round(line[2]))
+                    .projectedCo2eKg(round(line[3]))
+                    .baselineCost(round(line[0] * price))
+                    .projectedCost(round(line[1] * price))
+                    .build());
+        }
+        return result;
+    }
+
+    private Distribution toDistribution(DistributionSpecDTO spec, double defaultValue) {
+        if (spec == null || spec.getType() == null) {
+            return Distribution.fixed(spec != null && spec.getValue() != null
+                    ? spec.getValue().doubleValue()
+                    : defaultValue);
+        }
+
+        switch (spec.getType().toUpperCase()) {
+            case "FIXED":
+                return Distribution.fixed(required(spec.getValue(), "value"));
+            case "UNIFORM": {
+                double min = required(spec.getMin(), "min");
+                double max = required(spec.getMax(), "max");
+                if (max < min)
+                    throw new RuntimeException("Distribution max must be >= min");
+                return Distribution.uniform(min, max);
+            }
+            case "NORMAL": {
+                double stdDev = required(spec.getStdDev(), "stdDev");
+                if (stdDev < 0)
+                    throw new RuntimeException("Distribution stdDev must be >= 0");
+                return Distribution.normal(required(spec.getMean(), "mean"), stdDev,
+                        spec.getMin() != null ? spec.getMin().doubleValue() : Double.NEGATIVE_INFINITY,
+                        spec.getMax() != null ? spec.getMax().doubleValue() : Double.POSITIVE_INFINITY);
+            }
+            case "TRIANGULAR": {
+                double min = required(spec.getMin(), "min");
+                double mode = required(spec.getMode(), "mode");
+                double max = required(spec.getMax(), "max");
+                if (mode < min || max < mode)
+                    throw new RuntimeException("Triangular distribution requires min <= mode <= max");
+                return Distribution.triangular(min, mode, max);
+            }
+            default:
+                throw new RuntimeException("Unknown distribution type: " + spec.getType());
+        }
+    }
+
+    private double required(BigDecimal value, String field) {
+        if (value == null)
+            throw new RuntimeException("Distribution parameter '" + field + "' is required");
+        return value.doubleValue();
+    }
+
+    private PercentileSummaryDTO summarize(double[] sorted) {
+        double mean = MonteCarloSimulator.mean(sorted);
+        return PercentileSummaryDTO.builder()
+                .mean(round(mean))
+                .stdDev(round(MonteCarloSimulator.stdDev(sorted, mean)))
+                .p5(round(MonteCarloSimulator.percentile(sorted, 5)))
+                .p50(round(MonteCarloSimulator.percentile(sorted, 50)))
+                .p95(round(MonteCarloSimulator.percentile(sorted, 95)))
+                .min(round(sorted[0]))
+                .max(round(sorted[sorted.length - 1]))
+                .build();
+    }
+
+    private BigDecimal round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
     private SimulationDTO buildSimulationDTO(
             SimulationType type, String description,
             BigDecimal baselineKwh, BigDecimal baselineCo2e, BigDecimal baselineCost,
@@ -274,13 +1652,104 @@ public class SimulationEngineService {
                 .build();
     }
 
-    private SimulationDTO mapToDTO(SimulationScenario scenario) {
-        return SimulationDTO.builder()
+    private SimulationDTO mapToDTO(SimulationScenario scenario, boolean includeExtras) {
+        SimulationDTO dto = SimulationDTO.builder()
                 .id(scenario.getId())
                 .companyId(scenario.getCompany().getId())
                 .name(scenario.getName())
                 .description(scenario.getDescription())
                 .simulationType(scenario.getSimulationType())
+                .growthPercent(scenario.getGrowthPercent())
+                .fromRegion(scenario.getFromRegion())
+                .toRegion(scenario.getToRegion())
+                .efficiencyPercent(scenario.getEfficiencyPercent())
+                .monthsAhead(scenario.getMonthsAhead())
+                .baselineAiKwh(scenario.getBaselineAiKwh())
+                .baselineCo2eKg(scenario.getBaselineCo2eKg())
+                .baselineCost(scenario.getBaselineCost())
+                .projectedAiKwh(scenario.getProjectedAiKwh())
+                .projectedCo2eKg(scenario.getProjectedCo2eKg())
+                .projectedCost(scenario.getProjectedCost())
+                .energyDeltaKwh(scenario.getEnergyDeltaKwh())
+                .carbonDeltaKg(scenario.getCarbonDeltaKg())
+                .costDelta(scenario.getCostDelta())
+                .percentChange(scenario.getPercentChange())
                 .build();
+
+        if (includeExtras && scenario.getResults() != null) {
+            try {
+                JsonNode extras = objectMapper.readTree(scenario.getResults());
+                if (extras.hasNonNull("pathway")) {
+                    dto.setPathwayYears(objectMapper.convertValue(extras.get("pathwayYears"),
+                            new TypeReference<List<Integer>>() {
+                            }));
+                    dto.setPathway(objectMapper.treeToValue(extras.get("pathway"), PathwayDTO.class));
+                }
+                if (extras.hasNonNull("monthlySeries")) {
+                    dto.setProjectionMonths(objectMapper.convertValue(extras.get("projectionMonths"),
+                            new TypeReference<List<String>>() {
+                            }));
+                    dto.setMonthlySeries(objectMapper.treeToValue(extras.get("monthlySeries"),
+                            ProjectionSeriesDTO.class));
+                }
+            } catch (Exception e) {
+                log.warn("Could not read extras of scenario {}: {}", scenario.getId(), e.getMessage());
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Fill the delta columns from the DTO, or derive them from baseline and projection.
+     */
+    private void applyDeltas(SimulationScenario scenario, SimulationDTO dto) {
+        scenario.setEnergyDeltaKwh(dto != null && dto.getEnergyDeltaKwh() != null ? dto.getEnergyDeltaKwh()
+                : difference(scenario.getProjectedAiKwh(), scenario.getBaselineAiKwh()));
+        scenario.setCarbonDeltaKg(dto != null && dto.getCarbonDeltaKg() != null ? dto.getCarbonDeltaKg()
+                : difference(scenario.getProjectedCo2eKg(), scenario.getBaselineCo2eKg()));
+        scenario.setCostDelta(dto != null && dto.getCostDelta() != null ? dto.getCostDelta()
+                : difference(scenario.getProjectedCost(), scenario.getBaselineCost()));
+        if (dto != null && dto.getPercentChange() != null) {
+            scenario.setPercentChange(dto.getPercentChange());
+        } else if (scenario.getEnergyDeltaKwh() != null && scenario.getBaselineAiKwh() != null
+                && scenario.getBaselineAiKwh().signum() > 0) {
+            scenario.setPercentChange(scenario.getEnergyDeltaKwh()
+                    .divide(scenario.getBaselineAiKwh(), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100")));
+        }
+    }
+
+    private BigDecimal difference(BigDecimal value, BigDecimal reference) {
+        return value != null && reference != null ? value.subtract(reference) : null;
+    }
+
+    private UUID lowest(List<SimulationDTO> scenarios, Function<SimulationDTO, BigDecimal> metric) {
+        return scenarios.stream()
+                .filter(s -> metric.apply(s) != null)
+                .min(Comparator.comparing(metric))
+                .map(SimulationDTO::getId)
+                .orElse(null);
+    }
+
+    private JsonNode readJson(String json) throws Exception {
+        return json != null ? objectMapper.readTree(json) : objectMapper.createObjectNode();
+    }
+
+    private BigDecimal decimal(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).decimalValue() : null;
+    }
+
+    private String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private record SimulationBaseline(String region, double aiKwh, double carbonIntensity, double costPerKwh) {
+    }
+
+    private record BaselineMatrix(List<UUID> deptIds, List<String> deptNames, List<String> deptTeams,
+            double[] deptWeights, List<String> regions, double[][] kwh, double[] kgPerKwh, double price) {
+    }
+
+    private record SeasonalBaseline(double level, double[] index, int historyMonths) {
     }
 }
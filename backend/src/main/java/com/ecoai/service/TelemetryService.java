@@ -0,0 +1,391 @@
+package com.ecoai.service;
+
+import com.ecoai.dto.TelemetryIngestDTO;
+import com.ecoai.dto.TelemetryModelUsageDTO;
+import com.ecoai.dto.TelemetryRecordDTO;
+import com.ecoai.dto.UsageRollupDTO;
+import com.ecoai.entity.Company;
+import com.ecoai.entity.Department;
+import com.ecoai.entity.EnergyTelemetry;
+import com.ecoai.entity.TelemetryKey;
+import com.ecoai.repository.CompanyRepository;
+import com.ecoai.repository.DepartmentRepository;
+import com.ecoai.repository.EnergyTelemetryRepository;
+import com.ecoai.repository.TelemetryKeyRepository;
+import com.ecoai.util.IntensityTimeSeries;
+import com.ecoai.util.CompressedInput;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-model / per-job energy telemetry.
+ *
+ * Readings are appended in batches to energy_telemetry with model and job
+ * identifiers dictionary-encoded as TelemetryKey ids. A scheduled rollup folds
+ * new readings into daily EnergyUsage records (dataSource TELEMETRY) per
+ * department and region, so attribution, carbon and every existing analytics
+ * view pick them up without reading raw telemetry.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class TelemetryService {
+
+    public static final String DATA_SOURCE = "TELEMETRY";
+
+    private static final int SAVE_BATCH_SIZE = 5000;
+    private static final int MAX_CACHED_KEYS = 200_000;
+    private static final int ROLLUP_BATCH_SIZE = 50_000;
+
+    private final EnergyTelemetryRepository telemetryRepository;
+    private final TelemetryKeyRepository keyRepository;
+    private final CompanyRepository companyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UsageRollupService usageRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    // companyId|kind|value -> TelemetryKey id
+    private final Map<String, Long> keyCache = new ConcurrentHashMap<>();
+    private final Map<UUID, Object> keyLocks = new ConcurrentHashMap<>();
+    private final Map<UUID, Object> rollupLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Ingest a batch of readings. Each slice of SAVE_BATCH_SIZE rows is written
+     * in its own transaction; invalid readings are counted and skipped.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TelemetryIngestDTO ingest(UUID companyId, List<TelemetryRecordDTO> records) {
+        IngestContext context = newContext(companyId);
+        for (int i = 0; i < records.size(); i += SAVE_BATCH_SIZE) {
+            writeBatch(context, records.subList(i, Math.min(i + SAVE_BATCH_SIZE, records.size())));
+        }
+        return context.result();
+    }
+
+    /**
+     * Import readings from CSV, streaming the file in slices.
+     * Expected CSV format: timestamp,modelId,jobId,departmentName,region,gpuHours,kwh
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TelemetryIngestDTO importFromCsv(UUID companyId, MultipartFile file)
+            throws IOException, CsvValidationException {
+        IngestContext context = newContext(companyId);
+        List<TelemetryRecordDTO> batch = new ArrayList<>(SAVE_BATCH_SIZE);
+
+        try (CSVReader reader = new CSVReader(new InputStreamReader(CompressedInput.decompressing(file.getInputStream()),
+                StandardCharsets.UTF_8))) {
+            reader.skip(1); // Header row
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                if (row.length < 7) {
+                    context.received++;
+                    context.rejected++;
+                    continue;
+                }
+                try {
+                    batch.add(TelemetryRecordDTO.builder()
+                            .timestamp(row[0].trim())
+                            .modelId(row[1].trim())
+                            .jobId(row[2].isBlank() ? null : row[2].trim())
+                            .departmentName(row[3].isBlank() ? null : row[3].trim())
+                            .region(row[4].isBlank() ? null : row[4].trim())
+                            .gpuHours(row[5].isBlank() ? null : new BigDecimal(row[5].trim()))
+                            .kwh(new BigDecimal(row[6].trim()))
+                            .build());
+                } catch (NumberFormatException e) {
+                    context.received++;
+                    context.rejected++;
+                }
+                if (batch.size() == SAVE_BATCH_SIZE) {
+                    writeBatch(context, batch);
+                    batch.clear();
+                }
+            }
+        }
+        writeBatch(context, batch);
+
+        log.info("Imported {} telemetry rows for company {} ({} rejected)", context.stored, companyId,
+                context.rejected);
+        return context.result();
+    }
+
+    /**
+     * Roll up every company's pending telemetry.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.rollup-interval-ms:60000}",
+            initialDelayString = "${app.telemetry.rollup-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledRollup() {
+        for (UUID companyId : telemetryRepository.findCompanyIdsWithPendingRollup()) {
+            try {
+                rollup(companyId);
+            } catch (RuntimeException e) {
+                log.warn("Telemetry rollup failed for company {}: {}", companyId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fold a company's not-yet-rolled-up telemetry into daily EnergyUsage
+     * records, ROLLUP_BATCH_SIZE rows at a time. Claiming a batch and updating
+     * usage happen in one transaction, so a failed batch leaves its rows pending
+     * for the next run while earlier batches stay rolled up.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UsageRollupDTO rollup(UUID companyId) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+
+        synchronized (rollupLocks.computeIfAbsent(companyId, id -> new Object())) {
+            UsageRollupDTO result = UsageRollupDTO.builder().companyId(companyId).dataSource(DATA_SOURCE).build();
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> {
+                    UUID batch = UUID.randomUUID();
+                    int rows = telemetryRepository.claimForRollup(companyId, batch, ROLLUP_BATCH_SIZE);
+                    if (rows == 0) {
+                        return 0;
+                    }
+
+                    UsageRollupService.DailyMerge merge = usageRollupService.addToDaily(company, DATA_SOURCE,
+                            telemetryRepository.sumByRollupBatch(companyId, batch));
+                    result.setSourceRecords(result.getSourceRecords() + rows);
+                    result.setUsageRecordsCreated(result.getUsageRecordsCreated() + merge.created());
+                    result.setUsageRecordsUpdated(result.getUsageRecordsUpdated() + merge.updated());
+                    return rows;
+                });
+            } while (claimed != null && claimed == ROLLUP_BATCH_SIZE);
+
+            if (result.getSourceRecords() > 0) {
+                log.info("Rolled up {} telemetry rows for company {} ({} usage records created, {} updated)",
+                        result.getSourceRecords(), companyId, result.getUsageRecordsCreated(),
+                        result.getUsageRecordsUpdated());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Per-model totals over a date range, from raw telemetry.
+     */
+    @Transactional(readOnly = true)
+    public List<TelemetryModelUsageDTO> getModelUsage(UUID companyId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = telemetryRepository.sumByModel(companyId, startDate, endDate);
+        BigDecimal totalKwh = rows.stream()
+                .map(row -> (BigDecimal) row[4])
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return rows.stream()
+                .map(row -> {
+                    BigDecimal kwh = (BigDecimal) row[4];
+                    return TelemetryModelUsageDTO.builder()
+                            .modelId((String) row[0])
+                            .jobCount((Long) row[1])
+                            .recordCount((Long) row[2])
+                            .gpuHours(row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO)
+                            .kwh(kwh)
+                            .percentage(totalKwh.compareTo(BigDecimal.ZERO) > 0
+                                    ? kwh.divide(totalKwh, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
+                                    : BigDecimal.ZERO)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private IngestContext newContext(UUID companyId) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+        Map<UUID, Department> byId = new HashMap<>();
+        Map<String, Department> byName = new HashMap<>();
+        for (Department department : departmentRepository.findByCompanyId(companyId)) {
+            byId.put(department.getId(), department);
+            byName.putIfAbsent(department.getName().toLowerCase(Locale.ROOT), department);
+        }
+        return new IngestContext(company, byId, byName);
+    }
+
+    private void writeBatch(IngestContext context, List<TelemetryRecordDTO> records) {
+        context.received += records.size();
+        List<TelemetryRecordDTO> valid = new ArrayList<>(records.size());
+        List<LocalDateTime> timestamps = new ArrayList<>(records.size());
+        Set<String> models = new HashSet<>();
+        Set<String> jobs = new HashSet<>();
+        for (TelemetryRecordDTO record : records) {
+            LocalDateTime recordedAt = parseTimestamp(record.getTimestamp());
+            if (recordedAt == null || record.getModelId() == null || record.getModelId().isBlank()
+                    || record.getKwh() == null || record.getKwh().signum() < 0
+                    || (record.getDepartmentId() != null && !context.departmentsById.containsKey(record.getDepartmentId()))) {
+                context.rejected++;
+                continue;
+            }
+            valid.add(record);
+            timestamps.add(recordedAt);
+            models.add(record.getModelId().trim());
+            if (record.getJobId() != null && !record.getJobId().isBlank()) {
+                jobs.add(record.getJobId().trim());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> modelKeys = resolveKeys(context, TelemetryKey.KeyKind.MODEL, models);
+        Map<String, Long> jobKeys = resolveKeys(context, TelemetryKey.KeyKind.JOB, jobs);
+
+        List<EnergyTelemetry> rows = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            TelemetryRecordDTO record = valid.get(i);
+            LocalDateTime recordedAt = timestamps.get(i);
+            Department department = record.getDepartmentId() != null
+                    ? context.departmentsById.get(record.getDepartmentId())
+                    : record.getDepartmentName() != null
+                            ? context.departmentsByName.get(record.getDepartmentName().toLowerCase(Locale.ROOT))
+                            : null;
+            rows.add(EnergyTelemetry.builder()
+                    .company(context.company)
+                    .department(department)
+                    .modelKeyId(modelKeys.get(record.getModelId().trim()))
+                    .jobKeyId(record.getJobId() != null && !record.getJobId().isBlank()
+                            ? jobKeys.get(record.getJobId().trim())
+                            : null)
+                    .recordedAt(recordedAt)
+                    .usageDate(recordedAt.toLocalDate())
+                    .region(record.getRegion() != null ? record.getRegion() : context.company.getRegion())
+                    .gpuHours(record.getGpuHours())
+                    .kwh(record.getKwh())
+                    .build());
+        }
+
+        transactionTemplate.execute(status -> telemetryRepository.saveAll(rows));
+        context.stored += rows.size();
+    }
+
+    /**
+     * Map identifiers to TelemetryKey ids, creating missing keys. Creation is
+     * serialized per company and committed on its own, so concurrent batches
+     * never race on the unique key and cached ids always exist.
+     */
+    private Map<String, Long> resolveKeys(IngestContext context, TelemetryKey.KeyKind kind, Set<String> values) {
+        UUID companyId = context.company.getId();
+        Map<String, Long> ids = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String value : values) {
+            Long id = keyCache.get(cacheKey(companyId, kind, value));
+            if (id != null) {
+                ids.put(value, id);
+            } else {
+                missing.add(value);
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        synchronized (keyLocks.computeIfAbsent(companyId, id -> new Object())) {
+            Map<String, Long> resolved = transactionTemplate.execute(status -> {
+                Map<String, Long> found = new HashMap<>();
+                for (TelemetryKey key : keyRepository.findByCompanyIdAndKindAndKeyValueIn(companyId, kind, missing)) {
+                    found.put(key.getKeyValue(), key.getId());
+                }
+                List<TelemetryKey> created = missing.stream()
+                        .filter(value -> !found.containsKey(value))
+                        .map(value -> TelemetryKey.builder()
+                                .company(context.company)
+                                .kind(kind)
+                                .keyValue(value)
+                                .build())
+                        .collect(Collectors.toList());
+                for (TelemetryKey key : keyRepository.saveAll(created)) {
+                    found.put(key.getKeyValue(), key.getId());
+                }
+                if (kind == TelemetryKey.KeyKind.MODEL) {
+                    context.newModelKeys += created.size();
+                } else {
+                    context.newJobKeys += created.size();
+                }
+                return found;
+            });
+
+            // Job ids are unbounded over time; start over rather than grow without limit
+            if (keyCache.size() + resolved.size() > MAX_CACHED_KEYS) {
+                keyCache.clear();
+            }
+            resolved.forEach((value, id) -> keyCache.put(cacheKey(companyId, kind, value), id));
+            ids.putAll(resolved);
+        }
+        return ids;
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return IntensityTimeSeries.parseUtc(value.trim());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String cacheKey(UUID companyId, TelemetryKey.KeyKind kind, String value) {
+        return companyId + "|" + kind + "|" + value;
+    }
+
+    /**
+     * Company, department lookups and running counters of one ingestion request.
+     */
+    private static final class IngestContext {
+        private final Company company;
+        private final Map<UUID, Department> departmentsById;
+        private final Map<String, Department> departmentsByName;
+        private long received;
+        private long stored;
+        private long rejected;
+        private int newModelKeys;
+        private int newJobKeys;
+
+        private IngestContext(Company company, Map<UUID, Department> departmentsById,
+                Map<String, Department> departmentsByName) {
+            this.company = company;
+            this.departmentsById = departmentsById;
+            this.departmentsByName = departmentsByName;
+        }
+
+        private TelemetryIngestDTO result() {
+            return TelemetryIngestDTO.builder()
+                    .recordsReceived(received)
+                    .recordsStored(stored)
+                    .recordsRejected(rejected)
+                    .newModelKeys(newModelKeys)
+                    .newJobKeys(newJobKeys)
+                    .build();
+        }
+    }
+}
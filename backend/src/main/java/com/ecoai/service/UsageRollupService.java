@@ -0,0 +1,105 @@
+package com.ecoai.service;
+
+import com.ecoai.entity.Company;
+import com.ecoai.entity.EnergyUsage;
+import com.ecoai.repository.DepartmentRepository;
+import com.ecoai.repository.EnergyUsageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Folds finer-grained readings (telemetry, meter intervals) into the daily
+ * EnergyUsage records that attribution, carbon and analytics work on.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class UsageRollupService {
+
+    private final EnergyUsageRepository energyUsageRepository;
+    private final DepartmentRepository departmentRepository;
+    private final AttributionEngineService attributionEngineService;
+    private final CarbonCalculationService carbonCalculationService;
+    private final DataVersionService dataVersionService;
+    private final IngestDeduplicationService ingestDeduplicationService;
+
+    /**
+     * Add kWh to the company's daily usage records of one data source, creating
+     * records that do not exist yet (their keys are recorded for ingestion's
+     * duplicate checks), then re-attribute and recalculate emissions of every
+     * touched record.
+     *
+     * @param groups rows of [0]departmentId (nullable), [1]usageDate, [2]region, [3]kWh
+     */
+    public DailyMerge addToDaily(Company company, String dataSource, List<Object[]> groups) {
+        if (groups.isEmpty()) {
+            return new DailyMerge(0, 0);
+        }
+        UUID companyId = company.getId();
+        LocalDate minDate = groups.stream().map(row -> (LocalDate) row[1]).min(LocalDate::compareTo).orElseThrow();
+        LocalDate maxDate = groups.stream().map(row -> (LocalDate) row[1]).max(LocalDate::compareTo).orElseThrow();
+        Map<String, EnergyUsage> existing = new HashMap<>();
+        for (EnergyUsage usage : energyUsageRepository.findByCompanyIdAndDataSourceAndUsageDateBetween(
+                companyId, dataSource, minDate, maxDate)) {
+            existing.put(key(usage.getDepartment() != null ? usage.getDepartment().getId() : null,
+                    usage.getUsageDate(), usage.getRegion()), usage);
+        }
+
+        List<String> newKeys = new ArrayList<>();
+        List<EnergyUsage> touched = new ArrayList<>(groups.size());
+        for (Object[] row : groups) {
+            UUID departmentId = (UUID) row[0];
+            LocalDate date = (LocalDate) row[1];
+            String region = (String) row[2];
+            BigDecimal kwh = (BigDecimal) row[3];
+
+            EnergyUsage usage = existing.get(key(departmentId, date, region));
+            if (usage == null) {
+                usage = EnergyUsage.builder()
+                        .company(company)
+                        .department(departmentId != null ? departmentRepository.getReferenceById(departmentId) : null)
+                        .totalKwh(BigDecimal.ZERO)
+                        .usageDate(date)
+                        .periodType(EnergyUsage.PeriodType.DAILY)
+                        .region(region)
+                        .currency(company.getCurrency())
+                        .dataSource(dataSource)
+                        .build();
+                existing.put(key(departmentId, date, region), usage);
+                newKeys.add(usage.naturalKey());
+            }
+            usage.setTotalKwh(usage.getTotalKwh().add(kwh));
+            usage.setCost(usage.getTotalKwh().multiply(company.getElectricityCostPerKwh()));
+            touched.add(usage);
+        }
+
+        ingestDeduplicationService.record(IngestDeduplicationService.Scope.USAGE, companyId, newKeys);
+        attributionEngineService.attributeAll(companyId, touched);
+        for (EnergyUsage saved : energyUsageRepository.saveAll(touched)) {
+            carbonCalculationService.calculateAndSaveEmission(saved);
+        }
+        dataVersionService.bumpAfterCommit(companyId);
+        return new DailyMerge(newKeys.size(), touched.size() - newKeys.size());
+    }
+
+    private static String key(UUID departmentId, LocalDate date, String region) {
+        return departmentId + "|" + date + "|" + region;
+    }
+
+    /**
+     * Number of daily usage records created and updated by one merge.
+     */
+    public record DailyMerge(int created, int updated) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecoai.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Attribution rules compiled into per-dimension bitsets.
+ *
+ * Rules are ordered by priority (highest first) and each gets one bit. For
+ * every dimension a value maps to the bits of the rules that accept it
+ * (rules naming that value plus wildcard rules); the hour of day has one
+ * mask per hour. Matching a record ANDs one mask per dimension and takes the
+ * lowest set bit, so lookup cost depends on the number of dimensions and
+ * rules / 64, never on how many values the rules name.
+ */
+public final class AttributionRuleSet {
+
+    public enum Dimension {
+        WORKLOAD_TYPE, CLUSTER, PRODUCT, DEPARTMENT, REGION
+    }
+
+    private static final int DIMENSIONS = Dimension.values().length;
+    private static final int NO_HOUR = 24;
+
+    /**
+     * A rule's conditions. {@code values} is indexed by Dimension ordinal, null
+     * meaning any value; the hour window is [hourFrom, hourTo) and wraps past
+     * midnight when hourFrom > hourTo, or -1 for any hour.
+     */
+    public record Rule(int priority, String[] values, int hourFrom, int hourTo) {
+    }
+
+    private final int words;
+    private final int[] ruleAt; // Bit position -> index in the compiled list
+    private final List<Map<String, long[]>> byValue = new ArrayList<>(DIMENSIONS);
+    private final long[][] wildcard = new long[DIMENSIONS][];
+    private final long[][] byHour = new long[NO_HOUR + 1][];
+
+    private AttributionRuleSet(List<Rule> rules) {
+        int n = rules.size();
+        words = Math.max(1, (n + 63) >>> 6);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // Stable: equal priorities keep list order
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> rules.get(i).priority()).reversed());
+        ruleAt = new int[n];
+
+        for (int d = 0; d < DIMENSIONS; d++) {
+            byValue.add(new HashMap<>());
+            wildcard[d] = new long[words];
+        }
+        for (int h = 0; h <= NO_HOUR; h++) {
+            byHour[h] = new long[words];
+        }
+
+        for (int bit = 0; bit < n; bit++) {
+            Rule rule = rules.get(order[bit]);
+            ruleAt[bit] = order[bit];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                String value = rule.values()[d];
+                if (value == null) {
+                    set(wildcard[d], bit);
+                } else {
+                    set(byValue.get(d).computeIfAbsent(key(value), k -> new long[words]), bit);
+                }
+            }
+            for (int h = 0; h < NO_HOUR; h++) {
+                if (inWindow(rule, h))
+                    set(byHour[h], bit);
+            }
+            if (rule.hourFrom() < 0)
+                set(byHour[NO_HOUR], bit);
+        }
+
+        // A named value also accepts the wildcard rules of its dimension
+        for (int d = 0; d < DIMENSIONS; d++) {
+            for (long[] mask : byValue.get(d).values()) {
+                for (int w = 0; w < words; w++) {
+                    mask[w] |= wildcard[d][w];
+                }
+            }
+        }
+    }
+
+    public static AttributionRuleSet compile(List<Rule> rules) {
+        return new AttributionRuleSet(rules);
+    }
+
+    /**
+     * @param values record values indexed by Dimension ordinal (null = not set)
+     * @param hour   hour of day 0-23, or null for a whole-day record
+     * @return index of the highest-priority matching rule in the compiled list, or -1
+     */
+    public int match(String[] values, Integer hour) {
+        long[][] masks = new long[DIMENSIONS + 1][];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            long[] mask = values[d] != null ? byValue.get(d).get(key(values[d])) : null;
+            masks[d] = mask != null ? mask : wildcard[d];
+        }
+        masks[DIMENSIONS] = byHour[hour != null && hour >= 0 && hour < NO_HOUR ? hour : NO_HOUR];
+
+        for (int w = 0; w < words; w++) {
+            long bits = -1L;
+            for (long[] mask : masks) {
+                bits &= mask[w];
+            }
+            if (bits != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+                return bit < ruleAt.length ? ruleAt[bit] : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean inWindow(Rule rule, int hour) {
+        if (rule.hourFrom() < 0)
+            return true;
+        return rule.hourFrom() <= rule.hourTo()
+                ? hour >= rule.hourFrom() && hour < rule.hourTo()
+                : hour >= rule.hourFrom() || hour < rule.hourTo();
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void set(long[] mask, int bit) {
+        mask[bit >>> 6] |= 1L << (bit & 63);
+    }
+}
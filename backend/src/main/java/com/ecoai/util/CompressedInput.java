@@ -0,0 +1,56 @@
+package com.ecoai.util;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Transparent decompression of uploaded files.
+ *
+ * The format is detected from the stream's magic bytes rather than a file name
+ * or content type, so gzip (.gz) and Zstandard (.zst) files are accepted
+ * wherever plain ones are. Data is decompressed as it is read; nothing is
+ * buffered beyond the read buffers.
+ */
+public final class CompressedInput {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final byte[] GZIP_MAGIC = { (byte) 0x1F, (byte) 0x8B };
+    private static final byte[] ZSTD_MAGIC = { (byte) 0x28, (byte) 0xB5, (byte) 0x2F, (byte) 0xFD };
+
+    private CompressedInput() {
+    }
+
+    /**
+     * The stream itself if it is not compressed, else a decompressing view of it.
+     */
+    public static InputStream decompressing(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_BYTES);
+        buffered.mark(ZSTD_MAGIC.length);
+        byte[] head = buffered.readNBytes(ZSTD_MAGIC.length);
+        buffered.reset();
+
+        if (startsWith(head, GZIP_MAGIC)) {
+            return new GZIPInputStream(buffered, BUFFER_BYTES);
+        }
+        if (startsWith(head, ZSTD_MAGIC)) {
+            return new BufferedInputStream(new ZstdInputStreamNoFinalizer(buffered), BUFFER_BYTES);
+        }
+        return buffered;
+    }
+
+    private static boolean startsWith(byte[] head, byte[] magic) {
+        if (head.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (head[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecoai.util;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * One-dimensional goal seek: the parameter value at which a monotone metric
+ * meets a ceiling.
+ *
+ * Uses the Illinois variant of false position, which keeps bisection's
+ * bracket guarantee but converges in a few steps when the metric is close to
+ * linear in the parameter (efficiency, region share) and stays fast for
+ * compounding ones (growth).
+ */
+public final class GoalSeeker {
+
+    private GoalSeeker() {
+    }
+
+    /**
+     * @param value      solved parameter value
+     * @param metric     metric at {@code value}
+     * @param iterations metric evaluations inside the bracket
+     * @param feasible   false when even the far end of the range exceeds the target
+     */
+    public record Result(double value, double metric, int iterations, boolean feasible) {
+    }
+
+    /**
+     * Finds the value closest to {@code preferred} (e.g. no efficiency gain, or
+     * the highest growth) whose metric is at or below {@code target}, searching
+     * towards {@code fallback}. The metric must be monotone between the two.
+     *
+     * @param tolerance stop once the bracket is narrower than this, in parameter units
+     */
+    public static Result solve(DoubleUnaryOperator metric, double preferred, double fallback, double target,
+            double tolerance, int maxIterations) {
+        double fp = metric.applyAsDouble(preferred) - target;
+        if (fp <= 0)
+            return new Result(preferred, fp + target, 0, true);
+        double ff = metric.applyAsDouble(fallback) - target;
+        if (ff > 0)
+            return new Result(fallback, ff + target, 0, false);
+
+        // Invariant: f(a) > 0 (misses the target), f(b) <= 0 (meets it)
+        double a = preferred, fa = fp;
+        double b = fallback, fb = ff;
+        double met = ff + target; // Unscaled metric at b
+        int side = 0;
+        int iterations = 0;
+        while (Math.abs(b - a) > tolerance && iterations < maxIterations) {
+            double x = (a * fb - b * fa) / (fb - fa);
+            if (!(x > Math.min(a, b) && x < Math.max(a, b)))
+                x = (a + b) / 2; // Degenerate secant, fall back to bisection
+            double fx = metric.applyAsDouble(x) - target;
+            iterations++;
+            if (fx <= 0 && -fx <= 1e-9 * Math.max(1, Math.abs(target))) {
+                return new Result(x, fx + target, iterations, true); // On the target within rounding
+            }
+            if (fx > 0) {
+                a = x;
+                fa = fx;
+                if (side == 1)
+                    fb /= 2;
+                side = 1;
+            } else {
+                b = x;
+                fb = fx;
+                met = fx + target;
+                if (side == -1)
+                    fa /= 2;
+                side = -1;
+            }
+        }
+        return new Result(b, met, iterations, true);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecoai.util;
+
+/**
+ * Hour-by-hour matching of consumption against carbon-free generation.
+ * 
+ * All inputs are dense arrays over the same hourly grid, so a whole year is a
+ * single pass over primitive arrays with no per-hour allocation.
+ */
+public final class HourlyMatcher {
+
+    private HourlyMatcher() {
+    }
+
+    /**
+     * Totals from one matching pass. Energy in kWh, emissions in kg CO₂e.
+     */
+    public record Result(double consumptionKwh, double generationKwh, double matchedKwh,
+            double unmatchedKwh, double excessKwh, double residualCo2eKg, double avoidedCo2eKg,
+            int fullyMatchedHours, int consumptionHours) {
+
+        /**
+         * Share of consumption met by same-hour carbon-free generation (0-1).
+         */
+        public double cfeScore() {
+            return consumptionKwh > 0 ? matchedKwh / consumptionKwh : 0.0;
+        }
+    }
+
+    /**
+     * Match consumption against generation hour by hour.
+     *
+     * @param consumption kWh per hour
+     * @param generation  kWh per hour
+     * @param intensity   grid gCO₂/kWh per hour, applied to unmatched (and matched, for avoided) kWh
+     */
+    public static Result match(double[] consumption, double[] generation, double[] intensity) {
+        int n = consumption.length;
+        if (generation.length != n || intensity.length != n) {
+            throw new IllegalArgumentException("Hourly arrays must have equal length");
+        }
+
+        double load = 0, gen = 0, matched = 0, excess = 0, residualGrams = 0, avoidedGrams = 0;
+        int fullHours = 0, loadHours = 0;
+        for (int h = 0; h < n; h++) {
+            double c = consumption[h];
+            double g = generation[h];
+            double m = Math.min(c, g);
+            load += c;
+            gen += g;
+            matched += m;
+            excess += g - m;
+            residualGrams += (c - m) * intensity[h];
+            avoidedGrams += m * intensity[h];
+            if (c > 0) {
+                loadHours++;
+                if (g >= c) {
+                    fullHours++;
+                }
+            }
+        }
+        return new Result(load, gen, matched, load - matched, excess,
+                residualGrams / 1000.0, avoidedGrams / 1000.0, fullHours, loadHours);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecoai.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Immutable hourly carbon intensity series for one region.
+ * 
+ * Values are held in a dense array indexed by hours since the first covered hour
+ * (UTC), so a lookup is a subtraction and an array read. Hours without data are
+ * NaN and callers fall back to the flat region factor. Daily means are
+ * precomputed for day-granularity energy records. Because the array covers the
+ * whole span, a series is limited to a maximum number of hours.
+ */
+public final class IntensityTimeSeries {
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final DateTimeFormatter SPACE_SEPARATED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    private final long firstHour; // epoch hours (UTC)
+    private final double[] hourly; // gCO₂/kWh, NaN = no data
+    private final double[] dailyMean; // indexed by days since firstDay
+    private final long firstDay; // epoch days (UTC)
+    private final int pointCount;
+
+    private IntensityTimeSeries(long firstHour, double[] hourly, int pointCount) {
+        this.firstHour = firstHour;
+        this.hourly = hourly;
+        this.pointCount = pointCount;
+        this.firstDay = Math.floorDiv(firstHour, HOURS_PER_DAY);
+
+        long lastDay = Math.floorDiv(firstHour + hourly.length - 1, HOURS_PER_DAY);
+        this.dailyMean = new double[(int) (lastDay - firstDay + 1)];
+        double[] sums = new double[dailyMean.length];
+        int[] counts = new int[dailyMean.length];
+        for (int i = 0; i < hourly.length; i++) {
+            if (!Double.isNaN(hourly[i])) {
+                int day = (int) (Math.floorDiv(firstHour + i, HOURS_PER_DAY) - firstDay);
+                sums[day] += hourly[i];
+                counts[day]++;
+            }
+        }
+        for (int d = 0; d < dailyMean.length; d++) {
+            dailyMean[d] = counts[d] > 0 ? sums[d] / counts[d] : Double.NaN;
+        }
+    }
+
+    /**
+     * Build a series from hour starts (epoch hours, UTC) and intensities.
+     * Multiple readings within the same hour are averaged.
+     *
+     * @param maxSpanHours Largest number of hours the series may cover, first to last
+     */
+    public static IntensityTimeSeries of(long[] epochHours, double[] intensities, long maxSpanHours) {
+        if (epochHours.length == 0) {
+            throw new IllegalArgumentException("Intensity series must contain at least one point");
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long h : epochHours) {
+            min = Math.min(min, h);
+            max = Math.max(max, h);
+        }
+        if (max - min + 1 > maxSpanHours) {
+            throw new IllegalArgumentException("Intensity series spans " + (max - min + 1)
+                    + " hours, more than the maximum of " + maxSpanHours);
+        }
+
+        double[] sums = new double[(int) (max - min + 1)];
+        int[] counts = new int[sums.length];
+        for (int i = 0; i < epochHours.length; i++) {
+            int idx = (int) (epochHours[i] - min);
+            sums[idx] += intensities[i];
+            counts[idx]++;
+        }
+
+        double[] hourly = new double[sums.length];
+        int points = 0;
+        for (int i = 0; i < hourly.length; i++) {
+            if (counts[i] > 0) {
+                hourly[i] = sums[i] / counts[i];
+                points++;
+            } else {
+                hourly[i] = Double.NaN;
+            }
+        }
+        return new IntensityTimeSeries(min, hourly, points);
+    }
+
+    public static long toEpochHour(LocalDateTime utc) {
+        return Math.floorDiv(utc.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    public static LocalDateTime fromEpochHour(long epochHour) {
+        return LocalDateTime.ofEpochSecond(epochHour * 3600L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Parse a CSV timestamp to UTC. Values with an offset are converted; values
+     * without one (ISO or "yyyy-MM-dd HH:mm[:ss]") are taken as UTC.
+     */
+    public static LocalDateTime parseUtc(String value) {
+        try {
+            return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            // No offset - treat as UTC
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value, SPACE_SEPARATED);
+        }
+    }
+
+    /**
+     * Intensity for the hour containing the given UTC time, or NaN if not covered.
+     */
+    public double intensityAt(LocalDateTime utc) {
+        return intensityAtEpochHour(toEpochHour(utc));
+    }
+
+    public double intensityAtEpochHour(long epochHour) {
+        long idx = epochHour - firstHour;
+        return idx >= 0 && idx < hourly.length ? hourly[(int) idx] : Double.NaN;
+    }
+
+    /**
+     * Bulk lookup: fills {@code out[i]} with the intensity for {@code epochHours[i]}.
+     */
+    public void lookup(long[] epochHours, double[] out) {
+        int n = hourly.length;
+        for (int i = 0; i < epochHours.length; i++) {
+            long idx = epochHours[i] - firstHour;
+            out[i] = idx >= 0 && idx < n ? hourly[(int) idx] : Double.NaN;
+        }
+    }
+
+    /**
+     * Mean intensity over the covered hours of a UTC day, or NaN if none are covered.
+     */
+    public double dailyMean(LocalDate date) {
+        long idx = date.toEpochDay() - firstDay;
+        return idx >= 0 && idx < dailyMean.length ? dailyMean[(int) idx] : Double.NaN;
+    }
+
+    public LocalDateTime getFirstInterval() {
+        return fromEpochHour(firstHour);
+    }
+
+    public LocalDateTime getLastInterval() {
+        return fromEpochHour(firstHour + hourly.length - 1);
+    }
+
+    public LocalDate getFirstDate() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    public LocalDate getLastDate() {
+        return LocalDate.ofEpochDay(firstDay + dailyMean.length - 1);
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public double getMin() {
+        return Arrays.stream(hourly).filter(v -> !Double.isNaN(v)).min().orElse(Double.NaN);
+    }
+
+    public double getMax() {
+        return Arrays.stream(hourly).filter(v -> !Double.isNaN(v)).max().orElse(Double.NaN);
+    }
+
+    public double getMean() {
+        return Arrays.stream(hourly).filter(v -> !Double.isNaN(v)).average().orElse(Double.NaN);
+    }
+}
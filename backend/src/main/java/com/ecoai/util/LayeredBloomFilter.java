@@ -0,0 +1,47 @@
+package com.ecoai.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bloom filter that never has to be rebuilt: once the newest layer is
+ * saturated, keys go into a new layer twice its size. A key is reported as
+ * possibly present if any layer may contain it, so there are still no false
+ * negatives and the false positive rate stays near the configured one per layer.
+ */
+public final class LayeredBloomFilter {
+
+    private final List<BloomFilter> layers = new CopyOnWriteArrayList<>();
+    private final double falsePositiveRate;
+
+    public LayeredBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        layers.add(BloomFilter.create(expectedInsertions, falsePositiveRate));
+    }
+
+    public boolean mightContain(String key) {
+        for (BloomFilter layer : layers) {
+            if (layer.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void put(String key) {
+        BloomFilter current = layers.get(layers.size() - 1);
+        if (current.isSaturated()) {
+            current = BloomFilter.create(current.getInsertions() * 2, falsePositiveRate);
+            layers.add(current);
+        }
+        current.put(key);
+    }
+
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    public long getSizeBytes() {
+        return layers.stream().mapToLong(BloomFilter::getSizeBytes).sum();
+    }
+}
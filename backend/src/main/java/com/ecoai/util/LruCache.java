@@ -0,0 +1,101 @@
+package com.ecoai.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU cache bounded by entry count and by total weight
+ * (an estimate of retained bytes supplied by the caller).
+ * 
+ * Values are computed outside the lock, so two concurrent misses on the same key
+ * may both compute; the later put simply replaces the earlier one.
+ */
+public final class LruCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(64, 0.75f, true);
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    private long totalWeight;
+
+    private record Entry<V>(V value, long weight) {
+    }
+
+    public record Stats(int entries, long weight, int maxEntries, long maxWeight) {
+    }
+
+    public LruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Insert a value, evicting least-recently-used entries to stay within bounds.
+     * Values heavier than the whole budget are not cached.
+     */
+    public synchronized void put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            return;
+        }
+        Entry<V> previous = map.put(key, new Entry<>(value, weight));
+        if (previous != null) {
+            totalWeight -= previous.weight();
+        }
+        totalWeight += weight;
+
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while ((map.size() > maxEntries || totalWeight > maxWeight) && it.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            totalWeight -= eldest.getValue().weight();
+            it.remove();
+        }
+    }
+
+    /**
+     * Remove all entries whose key matches; returns the number removed.
+     */
+    public synchronized int invalidateIf(Predicate<K> predicate) {
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (predicate.test(e.getKey())) {
+                totalWeight -= e.getValue().weight();
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Number of entries whose key matches.
+     */
+    public synchronized int countIf(Predicate<K> predicate) {
+        int count = 0;
+        for (K key : map.keySet()) {
+            if (predicate.test(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(map.size(), totalWeight, maxEntries, maxWeight);
+    }
+}
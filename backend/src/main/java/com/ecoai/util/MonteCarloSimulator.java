@@ -0,0 +1,148 @@
+package com.ecoai.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel Monte Carlo engine for energy / carbon / cost projections.
+ * 
+ * Trials are cut into fixed-size chunks and every chunk gets its own
+ * {@link SplittableRandom} split from the seeded root in chunk order, so the
+ * output depends only on the seed and trial count - never on how many cores
+ * ran the chunks or in which order they finished.
+ */
+public final class MonteCarloSimulator {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private MonteCarloSimulator() {
+    }
+
+    public enum DistributionType {
+        FIXED, UNIFORM, NORMAL, TRIANGULAR
+    }
+
+    /**
+     * A sampling distribution. Parameter meaning by type:
+     * FIXED(value), UNIFORM(min, max), NORMAL(mean, stdDev, clamped to [min, max]),
+     * TRIANGULAR(min, mode, max).
+     */
+    public record Distribution(DistributionType type, double a, double b, double c, double lower, double upper) {
+
+        public static Distribution fixed(double value) {
+            return new Distribution(DistributionType.FIXED, value, 0, 0,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+
+        public static Distribution uniform(double min, double max) {
+            return new Distribution(DistributionType.UNIFORM, min, max, 0, min, max);
+        }
+
+        public static Distribution normal(double mean, double stdDev, double lower, double upper) {
+            return new Distribution(DistributionType.NORMAL, mean, stdDev, 0, lower, upper);
+        }
+
+        public static Distribution triangular(double min, double mode, double max) {
+            return new Distribution(DistributionType.TRIANGULAR, min, mode, max, min, max);
+        }
+
+        double sample(SplittableRandom rng) {
+            switch (type) {
+                case UNIFORM:
+                    return a + (b - a) * rng.nextDouble();
+                case NORMAL:
+                    return Math.min(upper, Math.max(lower, a + b * rng.nextGaussian()));
+                case TRIANGULAR: {
+                    // Inverse CDF; a = min, b = mode, c = max
+                    double u = rng.nextDouble();
+                    double range = c - a;
+                    if (range <= 0)
+                        return a;
+                    double split = (b - a) / range;
+                    return u < split
+                            ? a + Math.sqrt(u * range * (b - a))
+                            : c - Math.sqrt((1 - u) * range * (c - b));
+                }
+                default:
+                    return a;
+            }
+        }
+    }
+
+    /**
+     * Per-trial inputs. Growth is a monthly % compounded over {@code months},
+     * efficiency a % reduction, intensity in gCO₂/kWh and price per kWh.
+     */
+    public record Model(double baselineKwh, int months, Distribution growthPercent,
+            Distribution efficiencyPercent, Distribution intensity, Distribution price) {
+    }
+
+    /**
+     * Outcome arrays, sorted ascending, one entry per trial.
+     */
+    public record Outcomes(double[] kwh, double[] co2eKg, double[] cost) {
+    }
+
+    public static Outcomes run(Model model, int trials, long seed) {
+        double[] kwh = new double[trials];
+        double[] co2e = new double[trials];
+        double[] cost = new double[trials];
+
+        int chunks = (trials + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            streams[i] = root.split();
+        }
+
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom rng = streams[chunk];
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(trials, from + CHUNK_SIZE);
+            for (int t = from; t < to; t++) {
+                double growth = model.growthPercent().sample(rng) / 100.0;
+                double efficiency = model.efficiencyPercent().sample(rng) / 100.0;
+                double intensity = model.intensity().sample(rng);
+                double price = model.price().sample(rng);
+
+                double projected = model.baselineKwh() * Math.pow(1 + growth, model.months())
+                        * Math.max(0, 1 - efficiency);
+                kwh[t] = projected;
+                co2e[t] = projected * intensity / 1000.0;
+                cost[t] = projected * price;
+            }
+        });
+
+        Arrays.parallelSort(kwh);
+        Arrays.parallelSort(co2e);
+        Arrays.parallelSort(cost);
+        return new Outcomes(kwh, co2e, cost);
+    }
+
+    /**
+     * Nearest-rank percentile of an ascending array, {@code p} in [0, 100].
+     */
+    public static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0)
+            return Double.NaN;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+
+    public static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values)
+            sum += v;
+        return values.length > 0 ? sum / values.length : Double.NaN;
+    }
+
+    public static double stdDev(double[] values, double mean) {
+        double sq = 0;
+        for (double v : values) {
+            double d = v - mean;
+            sq += d * d;
+        }
+        return values.length > 1 ? Math.sqrt(sq / (values.length - 1)) : 0.0;
+    }
+}
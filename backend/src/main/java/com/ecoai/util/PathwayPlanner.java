@@ -0,0 +1,116 @@
+package com.ecoai.util;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Year-by-year decarbonisation pathways over a per-region energy vector.
+ *
+ * Every pathway starts from the same annual kWh per region and kgCO₂e/kWh per
+ * region; measures are compiled to region indices and year offsets up front so
+ * a 30-year pathway is a few hundred multiplications and many candidates can be
+ * evaluated side by side.
+ */
+public final class PathwayPlanner {
+
+    private PathwayPlanner() {
+    }
+
+    public enum MeasureType {
+        EFFICIENCY, // Reduce energy in the selected regions by fraction over the ramp
+        MOVE_REGION, // Move fraction of the selected regions' load to toRegion over the ramp
+        GRID_DECLINE // Lower the selected regions' intensity by fraction every year of the ramp
+    }
+
+    /**
+     * A compiled measure. Years are offsets from the first pathway year, both
+     * inclusive; {@code regions} selects the affected columns. Costs are charged
+     * once in {@code firstYear} and every year from {@code firstYear} onwards.
+     */
+    public record Measure(MeasureType type, int firstYear, int lastYear, double fraction, boolean[] regions,
+            int toRegion, double oneOffCost, double annualCost) {
+    }
+
+    /**
+     * Series indexed by year offset. CO₂e in kg, cost in currency units
+     * (energy plus measure costs).
+     */
+    public record Result(double[] kwh, double[] co2eKg, double[] cost, double[] cumulativeCo2eKg,
+            double[] cumulativeCost) {
+    }
+
+    /**
+     * @param annualKwh    kWh per region in the first year before any measure
+     * @param kgPerKwh     kgCO₂e/kWh per region in the first year
+     * @param price        price per kWh
+     * @param annualGrowth demand growth per year as a fraction
+     */
+    public static Result simulate(double[] annualKwh, double[] kgPerKwh, double price, double annualGrowth,
+            int years, List<Measure> measures) {
+        int regions = annualKwh.length;
+        double[] load = annualKwh.clone(); // Before growth
+        double[] intensity = kgPerKwh.clone();
+        double[] kwh = new double[years];
+        double[] co2e = new double[years];
+        double[] cost = new double[years];
+        double[] cumulativeCo2e = new double[years];
+        double[] cumulativeCost = new double[years];
+
+        double demand = 1.0;
+        for (int y = 0; y < years; y++) {
+            double spend = 0;
+            for (Measure measure : measures) {
+                if (y < measure.firstYear())
+                    continue;
+                spend += measure.annualCost() + (y == measure.firstYear() ? measure.oneOffCost() : 0);
+                if (y > measure.lastYear())
+                    continue;
+                if (measure.type() == MeasureType.GRID_DECLINE) {
+                    for (int r = 0; r < regions; r++) {
+                        if (measure.regions()[r])
+                            intensity[r] *= 1 - measure.fraction();
+                    }
+                    continue;
+                }
+                // Spread the total over the ramp so n steps of q compound to fraction
+                int steps = measure.lastYear() - measure.firstYear() + 1;
+                double q = 1 - Math.pow(1 - measure.fraction(), 1.0 / steps);
+                double moved = 0;
+                for (int r = 0; r < regions; r++) {
+                    if (!measure.regions()[r]
+                            || (measure.type() == MeasureType.MOVE_REGION && r == measure.toRegion()))
+                        continue;
+                    moved += load[r] * q;
+                    load[r] -= load[r] * q;
+                }
+                if (measure.type() == MeasureType.MOVE_REGION)
+                    load[measure.toRegion()] += moved;
+            }
+
+            double e = 0;
+            double c = 0;
+            for (int r = 0; r < regions; r++) {
+                e += load[r] * demand;
+                c += load[r] * demand * intensity[r];
+            }
+            kwh[y] = e;
+            co2e[y] = c;
+            cost[y] = e * price + spend;
+            cumulativeCo2e[y] = c + (y > 0 ? cumulativeCo2e[y - 1] : 0);
+            cumulativeCost[y] = cost[y] + (y > 0 ? cumulativeCost[y - 1] : 0);
+            demand *= 1 + annualGrowth;
+        }
+        return new Result(kwh, co2e, cost, cumulativeCo2e, cumulativeCost);
+    }
+
+    /**
+     * Evaluates every pathway against the same starting vectors, in parallel.
+     */
+    public static Result[] simulateAll(double[] annualKwh, double[] kgPerKwh, double price, double annualGrowth,
+            int years, List<List<Measure>> pathways) {
+        Result[] results = new Result[pathways.size()];
+        IntStream.range(0, results.length).parallel().forEach(
+                p -> results[p] = simulate(annualKwh, kgPerKwh, price, annualGrowth, years, pathways.get(p)));
+        return results;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecoai.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Period-over-period percent change as shown on dashboards and reports.
+ */
+public final class PercentChange {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private PercentChange() {
+    }
+
+    /**
+     * (newValue - oldValue) / oldValue in percent, rounded to {@code scale}
+     * decimals. Null counts as zero; growth from zero is reported as 100%.
+     */
+    public static BigDecimal between(BigDecimal oldValue, BigDecimal newValue, int scale) {
+        if (oldValue == null || oldValue.compareTo(BigDecimal.ZERO) == 0) {
+            return newValue != null && newValue.compareTo(BigDecimal.ZERO) > 0
+                    ? HUNDRED
+                    : BigDecimal.ZERO;
+        }
+        if (newValue == null) {
+            return HUNDRED.negate();
+        }
+        return newValue.subtract(oldValue)
+                .divide(oldValue, 4, RoundingMode.HALF_UP)
+                .multiply(HUNDRED)
+                .setScale(scale, RoundingMode.HALF_UP);
+    }
+}
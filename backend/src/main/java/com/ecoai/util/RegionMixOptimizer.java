@@ -0,0 +1,157 @@
+package com.ecoai.util;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Small LP solver for splitting a fixed amount of energy across regions.
+ * 
+ * minimise   Σ w[r]·x[r]
+ * subject to Σ x[r] = total, 0 ≤ x[r] ≤ capacity[r],
+ *            Σ x[r] ≥ groupMin[g] over each (disjoint) latency group g,
+ *            Σ price[r]·x[r] ≤ costCeiling
+ * 
+ * Without the cost ceiling the problem is solved exactly by a greedy fill:
+ * each group's minimum from its cheapest members, then the rest from the
+ * cheapest remaining capacity. The cost ceiling is handled by Lagrangian
+ * relaxation - bisection on λ over weights w + λ·price - and the two bracketing
+ * greedy solutions are blended so the ceiling binds exactly, which is optimal
+ * for the LP.
+ */
+public final class RegionMixOptimizer {
+
+    private static final double EPS = 1e-9;
+    private static final int BISECTION_STEPS = 60;
+    private static final double MAX_LAMBDA = 1e9;
+
+    private RegionMixOptimizer() {
+    }
+
+    public record Solution(double[] allocation, boolean feasible, String message) {
+    }
+
+    /**
+     * @param groupOf  latency group index per region, or -1 when unconstrained
+     * @param groupMin minimum kWh per latency group
+     * @param costCeiling maximum Σ price·x, or {@code Double.POSITIVE_INFINITY}
+     */
+    public static Solution solve(double total, double[] weight, double[] price, double[] capacity,
+            int[] groupOf, double[] groupMin, double costCeiling) {
+        double[] x = greedy(total, weight, null, capacity, groupOf, groupMin);
+        if (x == null) {
+            return infeasible("Capacity cannot cover total demand and latency-group minimums");
+        }
+        if (cost(x, price) <= costCeiling + EPS) {
+            return new Solution(x, true, null);
+        }
+
+        // Cheapest possible mix (ties broken by the objective)
+        double[] cheapest = greedy(total, price, weight, capacity, groupOf, groupMin);
+        double minCost = cost(cheapest, price);
+        if (minCost > costCeiling + EPS) {
+            return new Solution(cheapest, false,
+                    String.format("Cost ceiling %.2f is below the minimum achievable cost %.2f", costCeiling, minCost));
+        }
+
+        double[] lagrangian = new double[weight.length];
+        double lo = 0.0;
+        double[] xLo = x;
+        double hi = 1.0;
+        double[] xHi = null;
+        while (hi <= MAX_LAMBDA) {
+            double[] candidate = greedy(total, combine(weight, price, hi, lagrangian), weight, capacity, groupOf,
+                    groupMin);
+            if (cost(candidate, price) <= costCeiling + EPS) {
+                xHi = candidate;
+                break;
+            }
+            lo = hi;
+            xLo = candidate;
+            hi *= 4;
+        }
+        if (xHi == null) {
+            xHi = cheapest;
+        }
+
+        for (int step = 0; step < BISECTION_STEPS && hi - lo > EPS * Math.max(1.0, hi); step++) {
+            double mid = (lo + hi) / 2;
+            double[] candidate = greedy(total, combine(weight, price, mid, lagrangian), weight, capacity, groupOf,
+                    groupMin);
+            if (cost(candidate, price) <= costCeiling + EPS) {
+                hi = mid;
+                xHi = candidate;
+            } else {
+                lo = mid;
+                xLo = candidate;
+            }
+        }
+
+        // Blend so that cost == ceiling: θ·cost(xLo) + (1-θ)·cost(xHi) = ceiling
+        double costLo = cost(xLo, price);
+        double costHi = cost(xHi, price);
+        double theta = costLo - costHi > EPS ? (costCeiling - costHi) / (costLo - costHi) : 0.0;
+        theta = Math.max(0.0, Math.min(1.0, theta));
+        double[] blended = new double[x.length];
+        for (int r = 0; r < blended.length; r++) {
+            blended[r] = theta * xLo[r] + (1 - theta) * xHi[r];
+        }
+        return new Solution(blended, true, null);
+    }
+
+    public static double cost(double[] x, double[] price) {
+        double sum = 0;
+        for (int r = 0; r < x.length; r++)
+            sum += x[r] * price[r];
+        return sum;
+    }
+
+    private static double[] combine(double[] weight, double[] price, double lambda, double[] out) {
+        for (int r = 0; r < out.length; r++)
+            out[r] = weight[r] + lambda * price[r];
+        return out;
+    }
+
+    /**
+     * Exact solution without the cost ceiling, or null if infeasible.
+     */
+    private static double[] greedy(double total, double[] weight, double[] tieBreak, double[] capacity,
+            int[] groupOf, double[] groupMin) {
+        int n = weight.length;
+        Comparator<Integer> byWeight = Comparator.comparingDouble(r -> weight[r]);
+        if (tieBreak != null) {
+            byWeight = byWeight.thenComparingDouble(r -> tieBreak[r]);
+        }
+        int[] order = IntStream.range(0, n).boxed().sorted(byWeight).mapToInt(Integer::intValue).toArray();
+
+        double[] x = new double[n];
+        double remaining = total;
+        for (int g = 0; g < groupMin.length; g++) {
+            double need = groupMin[g];
+            for (int i = 0; i < n && need > EPS; i++) {
+                int r = order[i];
+                if (groupOf[r] == g) {
+                    double take = Math.min(capacity[r] - x[r], need);
+                    x[r] += take;
+                    need -= take;
+                }
+            }
+            if (need > EPS * Math.max(1.0, total))
+                return null;
+            remaining -= groupMin[g];
+        }
+        if (remaining < -EPS * Math.max(1.0, total))
+            return null;
+
+        for (int i = 0; i < n && remaining > EPS; i++) {
+            int r = order[i];
+            double take = Math.min(capacity[r] - x[r], remaining);
+            x[r] += take;
+            remaining -= take;
+        }
+        return remaining > EPS * Math.max(1.0, total) ? null : x;
+    }
+
+    private static Solution infeasible(String message) {
+        return new Solution(new double[0], false, message);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecoai.util;
+
+import java.util.List;
+
+/**
+ * Composable scenario stages over a department × region energy matrix.
+ * 
+ * The baseline is a dense kWh matrix [department][region]; each stage is a
+ * masked pass over it (scale the selected cells, or move a share of them to
+ * another region column), and stages run in order on a private copy.
+ */
+public final class ScenarioPipeline {
+
+    private ScenarioPipeline() {
+    }
+
+    public enum StageType {
+        GROWTH, // Scale selected cells up by a percentage
+        EFFICIENCY, // Scale selected cells down by a percentage
+        MOVE_REGION // Move a share of selected cells to another region
+    }
+
+    /**
+     * A compiled stage. Masks select the departments / regions it applies to;
+     * {@code fraction} is the stage percentage / 100 and {@code toRegion} the
+     * target column for MOVE_REGION.
+     */
+    public record Stage(StageType type, boolean[] departments, boolean[] regions, double fraction, int toRegion) {
+    }
+
+    public static double[][] apply(double[][] baseline, List<Stage> stages) {
+        double[][] cells = new double[baseline.length][];
+        for (int d = 0; d < baseline.length; d++) {
+            cells[d] = baseline[d].clone();
+        }
+
+        for (Stage stage : stages) {
+            double factor = switch (stage.type()) {
+                case GROWTH -> 1 + stage.fraction();
+                case EFFICIENCY -> Math.max(0, 1 - stage.fraction());
+                case MOVE_REGION -> 1 - stage.fraction();
+            };
+            for (int d = 0; d < cells.length; d++) {
+                if (!stage.departments()[d])
+                    continue;
+                double[] row = cells[d];
+                double moved = 0;
+                for (int r = 0; r < row.length; r++) {
+                    if (!stage.regions()[r] || (stage.type() == StageType.MOVE_REGION && r == stage.toRegion()))
+                        continue;
+                    double before = row[r];
+                    row[r] = before * factor;
+                    moved += before - row[r];
+                }
+                if (stage.type() == StageType.MOVE_REGION) {
+                    row[stage.toRegion()] += moved;
+                }
+            }
+        }
+        return cells;
+    }
+}
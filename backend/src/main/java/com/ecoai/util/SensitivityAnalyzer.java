@@ -0,0 +1,114 @@
+package com.ecoai.util;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * One-at-a-time (tornado) sensitivity over a department × region energy matrix.
+ *
+ * The matrix is reduced once to row, column and grand totals; each perturbation
+ * then only adjusts the totals it touches, so hundreds of levers evaluate in
+ * microseconds against the same snapshot.
+ */
+public final class SensitivityAnalyzer {
+
+    private SensitivityAnalyzer() {
+    }
+
+    public enum Lever {
+        GROWTH, // Monthly growth as a fraction
+        EFFICIENCY, // Energy reduction as a fraction
+        PRICE, // Price per kWh
+        INTENSITY, // kgCO₂e/kWh of one region column
+        WEIGHT // Scale of one department row
+    }
+
+    /**
+     * Baseline: kWh per month [department][region], kgCO₂e/kWh per region,
+     * price per kWh, and growth / efficiency applied over the horizon.
+     */
+    public record Model(double[][] kwh, double[] kgPerKwh, double price, double growth, double efficiency,
+            int horizonMonths) {
+    }
+
+    /**
+     * Low and high values of one lever; {@code index} is the region column or
+     * department row for INTENSITY / WEIGHT.
+     */
+    public record Perturbation(Lever lever, int index, double low, double high) {
+    }
+
+    /**
+     * Monthly CO₂e (kg) and cost at the horizon with the lever at its low and high value.
+     */
+    public record Impact(double co2eLow, double co2eHigh, double costLow, double costHigh) {
+    }
+
+    /**
+     * @return {kwh, co2eKg, cost} in the last month of the horizon with no perturbation
+     */
+    public static double[] evaluate(Model model) {
+        Totals totals = Totals.of(model);
+        double multiplier = multiplier(model.growth(), model.efficiency(), model.horizonMonths());
+        return new double[] { multiplier * totals.kwh, multiplier * totals.co2e,
+                multiplier * totals.kwh * model.price() };
+    }
+
+    public static Impact[] run(Model model, List<Perturbation> perturbations) {
+        Totals totals = Totals.of(model);
+        Impact[] impacts = new Impact[perturbations.size()];
+        IntStream.range(0, impacts.length).parallel().forEach(i -> {
+            Perturbation p = perturbations.get(i);
+            double[] low = evaluate(model, totals, p, p.low());
+            double[] high = evaluate(model, totals, p, p.high());
+            impacts[i] = new Impact(low[0], high[0], low[1], high[1]);
+        });
+        return impacts;
+    }
+
+    private static double[] evaluate(Model model, Totals totals, Perturbation p, double value) {
+        double growth = p.lever() == Lever.GROWTH ? value : model.growth();
+        double efficiency = p.lever() == Lever.EFFICIENCY ? value : model.efficiency();
+        double price = p.lever() == Lever.PRICE ? value : model.price();
+        double kwh = totals.kwh;
+        double co2e = totals.co2e;
+        if (p.lever() == Lever.INTENSITY) {
+            co2e += totals.columnKwh[p.index()] * (value - model.kgPerKwh()[p.index()]);
+        } else if (p.lever() == Lever.WEIGHT) {
+            kwh += totals.rowKwh[p.index()] * (value - 1);
+            co2e += totals.rowCo2e[p.index()] * (value - 1);
+        }
+        double multiplier = multiplier(growth, efficiency, model.horizonMonths());
+        return new double[] { multiplier * co2e, multiplier * kwh * price };
+    }
+
+    private static double multiplier(double growth, double efficiency, int months) {
+        return Math.pow(1 + growth, months) * Math.max(0, 1 - efficiency);
+    }
+
+    private static final class Totals {
+        double[] rowKwh;
+        double[] rowCo2e;
+        double[] columnKwh;
+        double kwh;
+        double co2e;
+
+        static Totals of(Model model) {
+            double[][] cells = model.kwh();
+            Totals t = new Totals();
+            t.rowKwh = new double[cells.length];
+            t.rowCo2e = new double[cells.length];
+            t.columnKwh = new double[model.kgPerKwh().length];
+            for (int d = 0; d < cells.length; d++) {
+                for (int r = 0; r < cells[d].length; r++) {
+                    t.rowKwh[d] += cells[d][r];
+                    t.rowCo2e[d] += cells[d][r] * model.kgPerKwh()[r];
+                    t.columnKwh[r] += cells[d][r];
+                }
+                t.kwh += t.rowKwh[d];
+                t.co2e += t.rowCo2e[d];
+            }
+            return t;
+        }
+    }
+}
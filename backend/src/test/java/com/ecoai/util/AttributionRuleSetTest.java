@@ -0,0 +1,112 @@
+package com.ecoai.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AttributionRuleSetTest {
+
+    private static final int ANY_HOUR = -1;
+
+    /** Values in Dimension order: workload type, cluster, product, department, region. */
+    private static String[] values(String workloadType, String cluster, String product, String department,
+            String region) {
+        return new String[] { workloadType, cluster, product, department, region };
+    }
+
+    private static AttributionRuleSet.Rule rule(int priority, String workloadType, String region, int hourFrom,
+            int hourTo) {
+        return new AttributionRuleSet.Rule(priority, values(workloadType, null, null, null, region), hourFrom,
+                hourTo);
+    }
+
+    @Test
+    void highestPriorityMatchWinsRegardlessOfListOrder() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(
+                rule(1, "training", null, ANY_HOUR, ANY_HOUR),
+                rule(10, "training", "US", ANY_HOUR, ANY_HOUR),
+                rule(5, null, null, ANY_HOUR, ANY_HOUR)));
+
+        assertEquals(1, rules.match(values("training", null, null, null, "US"), null));
+        assertEquals(2, rules.match(values("training", null, null, null, "EU"), null));
+        assertEquals(2, rules.match(values("inference", null, null, null, "US"), null));
+    }
+
+    @Test
+    void equalPrioritiesKeepListOrder() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(
+                rule(3, null, "US", ANY_HOUR, ANY_HOUR),
+                rule(3, "training", null, ANY_HOUR, ANY_HOUR)));
+
+        assertEquals(0, rules.match(values("training", null, null, null, "US"), null));
+    }
+
+    @Test
+    void wildcardsAcceptAnyValueAndNamedValuesIgnoreCase() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(
+                rule(2, "Training", null, ANY_HOUR, ANY_HOUR),
+                rule(1, null, null, ANY_HOUR, ANY_HOUR)));
+
+        assertEquals(0, rules.match(values(" training ", "gpu-a", null, null, "US"), null));
+        assertEquals(1, rules.match(values("inference", "gpu-a", null, null, "US"), null));
+        // A record without the value only matches rules that do not name one
+        assertEquals(1, rules.match(values(null, null, null, null, null), null));
+    }
+
+    @Test
+    void noMatchWithoutWildcardFallback() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(
+                rule(1, "training", null, ANY_HOUR, ANY_HOUR)));
+
+        assertEquals(-1, rules.match(values("inference", null, null, null, null), 3));
+        assertEquals(-1, AttributionRuleSet.compile(List.of()).match(values(null, null, null, null, null), null));
+    }
+
+    @Test
+    void hourWindowWrapsPastMidnight() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(
+                rule(5, null, null, 22, 6),
+                rule(1, null, null, ANY_HOUR, ANY_HOUR)));
+
+        for (int hour : new int[] { 22, 23, 0, 5 }) {
+            assertEquals(0, rules.match(values(null, null, null, null, null), hour), "hour " + hour);
+        }
+        for (int hour : new int[] { 6, 12, 21 }) {
+            assertEquals(1, rules.match(values(null, null, null, null, null), hour), "hour " + hour);
+        }
+    }
+
+    @Test
+    void dayWindowEndIsExclusive() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(rule(1, null, null, 9, 17)));
+
+        assertEquals(0, rules.match(values(null, null, null, null, null), 9));
+        assertEquals(0, rules.match(values(null, null, null, null, null), 16));
+        assertEquals(-1, rules.match(values(null, null, null, null, null), 17));
+    }
+
+    @Test
+    void wholeDayRecordsOnlyMatchRulesWithoutHourWindow() {
+        AttributionRuleSet rules = AttributionRuleSet.compile(List.of(
+                rule(5, null, null, 0, 24),
+                rule(1, null, null, ANY_HOUR, ANY_HOUR)));
+
+        assertEquals(1, rules.match(values(null, null, null, null, null), null));
+        assertEquals(0, rules.match(values(null, null, null, null, null), 0));
+    }
+
+    @Test
+    void matchesRulesBeyondTheFirstBitsetWord() {
+        List<AttributionRuleSet.Rule> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(rule(200 - i, "workload-" + i, null, ANY_HOUR, ANY_HOUR));
+        }
+        AttributionRuleSet rules = AttributionRuleSet.compile(list);
+
+        assertEquals(99, rules.match(values("workload-99", null, null, null, null), null));
+        assertEquals(64, rules.match(values("WORKLOAD-64", null, null, null, null), 12));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecoai.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GoalSeekerTest {
+
+    private static final double TOLERANCE = 1e-6;
+    private static final int MAX_ITERATIONS = 100;
+
+    @Test
+    void preferredValueThatAlreadyMeetsTargetIsReturnedWithoutSearching() {
+        GoalSeeker.Result result = GoalSeeker.solve(x -> 500 - x, 0, 100, 600, TOLERANCE, MAX_ITERATIONS);
+
+        assertTrue(result.feasible());
+        assertEquals(0, result.value());
+        assertEquals(0, result.iterations());
+    }
+
+    @Test
+    void fallbackThatStillMissesTargetIsInfeasible() {
+        GoalSeeker.Result result = GoalSeeker.solve(x -> 1000 - x, 0, 100, 600, TOLERANCE, MAX_ITERATIONS);
+
+        assertFalse(result.feasible());
+        assertEquals(100, result.value());
+        assertEquals(900, result.metric());
+    }
+
+    @Test
+    void linearMetricIsSolvedInOneStep() {
+        // Efficiency: 1000 kg falling 10 kg per percent, target 600 kg at 40%
+        GoalSeeker.Result result = GoalSeeker.solve(x -> 1000 - 10 * x, 0, 100, 600, TOLERANCE, MAX_ITERATIONS);
+
+        assertTrue(result.feasible());
+        assertEquals(40, result.value(), TOLERANCE);
+        assertEquals(1, result.iterations());
+    }
+
+    @Test
+    void compoundingMetricSearchedDownwardsStaysOnTheMeetingSide() {
+        // Growth: highest growth preferred, searching down towards none
+        DoubleUnaryOperator metric = g -> 100 * Math.pow(1.02, g);
+        GoalSeeker.Result result = GoalSeeker.solve(metric, 100, 0, 150, TOLERANCE, MAX_ITERATIONS);
+
+        double exact = Math.log(1.5) / Math.log(1.02);
+        assertTrue(result.feasible());
+        assertEquals(exact, result.value(), 1e-5);
+        assertTrue(result.value() <= exact + 1e-9);
+        assertTrue(metric.applyAsDouble(result.value()) <= 150 + 1e-9);
+        assertEquals(metric.applyAsDouble(result.value()), result.metric(), 1e-9);
+        assertTrue(result.iterations() < 20, "Illinois steps should avoid one-sided stalls");
+    }
+
+    @Test
+    void iterationLimitStillReturnsAValueThatMeetsTarget() {
+        DoubleUnaryOperator metric = g -> 100 * Math.pow(1.02, g);
+        GoalSeeker.Result result = GoalSeeker.solve(metric, 100, 0, 150, TOLERANCE, 2);
+
+        assertTrue(result.feasible());
+        assertEquals(2, result.iterations());
+        assertTrue(metric.applyAsDouble(result.value()) <= 150);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecoai.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayeredBloomFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void staysOneLayerUntilSaturated() {
+        LayeredBloomFilter filter = new LayeredBloomFilter(100, FALSE_POSITIVE_RATE);
+        for (int i = 0; i <= 100; i++) {
+            filter.put("key-" + i);
+        }
+
+        // The 101st key saturates the first layer but still goes into it
+        assertEquals(1, filter.getLayerCount());
+    }
+
+    @Test
+    void addsTwiceAsLargeLayerOnceSaturated() {
+        LayeredBloomFilter filter = new LayeredBloomFilter(100, FALSE_POSITIVE_RATE);
+        long firstLayerBytes = filter.getSizeBytes();
+        for (int i = 0; i <= 101; i++) {
+            filter.put("key-" + i);
+        }
+
+        assertEquals(2, filter.getLayerCount());
+        assertTrue(filter.getSizeBytes() - firstLayerBytes >= 2 * firstLayerBytes - Long.BYTES);
+    }
+
+    @Test
+    void keysOfEveryLayerAreFound() {
+        LayeredBloomFilter filter = new LayeredBloomFilter(100, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 5000; i++) {
+            filter.put("key-" + i);
+        }
+
+        assertTrue(filter.getLayerCount() > 2);
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(filter.mightContain("key-" + i), "key-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysBoundedAcrossLayers() {
+        LayeredBloomFilter filter = new LayeredBloomFilter(100, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 5000; i++) {
+            filter.put("key-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // Each layer contributes up to the configured rate
+        assertTrue(falsePositives < 10_000 * FALSE_POSITIVE_RATE * filter.getLayerCount(),
+                falsePositives + " false positives over " + filter.getLayerCount() + " layers");
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        LayeredBloomFilter filter = new LayeredBloomFilter(100, FALSE_POSITIVE_RATE);
+
+        assertFalse(filter.mightContain("key-0"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecoai.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionMixOptimizerTest {
+
+    private static final double DELTA = 1e-6;
+    private static final double NO_CEILING = Double.POSITIVE_INFINITY;
+
+    // Region 0 is clean but expensive, region 1 dirty but cheap, region 2 in between
+    private static final double[] WEIGHT = { 100, 400, 250 };
+    private static final double[] PRICE = { 0.30, 0.10, 0.20 };
+    private static final int[] NO_GROUPS = { -1, -1, -1 };
+
+    @Test
+    void fillsCleanestRegionFirstWithoutCeiling() {
+        RegionMixOptimizer.Solution solution = RegionMixOptimizer.solve(1500, WEIGHT, PRICE,
+                new double[] { 1000, 1000, 1000 }, NO_GROUPS, new double[0], NO_CEILING);
+
+        assertTrue(solution.feasible());
+        assertArrayEquals(new double[] { 1000, 0, 500 }, solution.allocation(), DELTA);
+    }
+
+    @Test
+    void latencyGroupMinimumIsServedFromItsCleanestMember() {
+        int[] groupOf = { -1, 0, 0 };
+        RegionMixOptimizer.Solution solution = RegionMixOptimizer.solve(1000, WEIGHT, PRICE,
+                new double[] { 1000, 1000, 1000 }, groupOf, new double[] { 300 }, NO_CEILING);
+
+        assertTrue(solution.feasible());
+        assertArrayEquals(new double[] { 700, 0, 300 }, solution.allocation(), DELTA);
+    }
+
+    @Test
+    void reportsInfeasibleWhenCapacityIsShort() {
+        RegionMixOptimizer.Solution solution = RegionMixOptimizer.solve(1000, WEIGHT, PRICE,
+                new double[] { 300, 300, 300 }, NO_GROUPS, new double[0], NO_CEILING);
+
+        assertFalse(solution.feasible());
+        assertNotNull(solution.message());
+    }
+
+    @Test
+    void bindingCostCeilingIsMetExactlyAtLowestWeight() {
+        double[] weight = { 100, 400 };
+        double[] price = { 0.30, 0.10 };
+        RegionMixOptimizer.Solution solution = RegionMixOptimizer.solve(1000, weight, price,
+                new double[] { 1000, 1000 }, new int[] { -1, -1 }, new double[0], 200);
+
+        // 0.30·x + 0.10·(1000 - x) = 200 gives x = 500
+        assertTrue(solution.feasible());
+        assertArrayEquals(new double[] { 500, 500 }, solution.allocation(), 1e-3);
+        assertEquals(200, RegionMixOptimizer.cost(solution.allocation(), price), 1e-3);
+    }
+
+    @Test
+    void ceilingBelowCheapestMixIsInfeasible() {
+        RegionMixOptimizer.Solution solution = RegionMixOptimizer.solve(1000, WEIGHT, PRICE,
+                new double[] { 1000, 1000, 1000 }, NO_GROUPS, new double[0], 50);
+
+        assertFalse(solution.feasible());
+        assertArrayEquals(new double[] { 0, 1000, 0 }, solution.allocation(), DELTA);
+        assertTrue(solution.message().contains("minimum achievable cost 100.00"));
+    }
+}